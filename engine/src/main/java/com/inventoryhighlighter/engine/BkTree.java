@@ -0,0 +1,149 @@
+package com.inventoryhighlighter.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Names indexed by edit distance, for finding every name within a few typos of a term without
+ * measuring the term against each one. Each node's children are keyed by their distance to it, so
+ * by the triangle inequality a search only descends into children whose key is within the allowed
+ * distance of the term's own distance to the node. Past the largest such key nothing below a node
+ * can match, so distances are only computed that far.
+ * <p>
+ * Not thread safe while names are added; searching a finished tree is.
+ */
+public final class BkTree {
+    private Node root;
+    private int size = 0;
+
+    private static final class Node {
+        private final String name;
+        private int[] distances = new int[0];
+        private Node[] children = new Node[0];
+        private int maxChildDistance = 0;
+
+        Node(String name) {
+            this.name = name;
+        }
+
+        Node child(int distance) {
+            for (int i = 0; i < distances.length; i++) {
+                if (distances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int distance, Node child) {
+            distances = Arrays.copyOf(distances, distances.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            distances[distances.length - 1] = distance;
+            children[children.length - 1] = child;
+            maxChildDistance = Math.max(maxChildDistance, distance);
+        }
+    }
+
+    /**
+     * Add a name unless it is already indexed
+     */
+    public void add(String name) {
+        if (root == null) {
+            root = new Node(name);
+            size++;
+            return;
+        }
+
+        Node node = root;
+        while (true) {
+            int distance = distance(name, node.name);
+            if (distance == 0) {
+                return;
+            }
+            Node child = node.child(distance);
+            if (child == null) {
+                node.addChild(distance, new Node(name));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Every indexed name at most {@code maxDistance} edits from the term
+     */
+    public List<String> search(String term, int maxDistance) {
+        List<String> found = new ArrayList<>();
+        if (root == null) {
+            return found;
+        }
+
+        List<Node> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.remove(pending.size() - 1);
+            int distance = distance(term, node.name, Math.max(maxDistance, node.maxChildDistance + maxDistance));
+            if (distance <= maxDistance) {
+                found.add(node.name);
+            }
+            for (int i = 0; i < node.distances.length; i++) {
+                if (Math.abs(node.distances[i] - distance) <= maxDistance) {
+                    pending.add(node.children[i]);
+                }
+            }
+        }
+        return found;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The Levenshtein distance: single character insertions, deletions and substitutions
+     */
+    static int distance(String a, String b) {
+        return distance(a, b, Math.max(a.length(), b.length()));
+    }
+
+    /**
+     * The Levenshtein distance if it is at most {@code limit}, else {@code limit + 1}
+     */
+    static int distance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+
+        // One row at a time over the shorter string
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitute = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitute, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            // Distances never shrink from one row to the next
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+}
@@ -0,0 +1,119 @@
+package com.inventoryhighlighter.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Classifies the items of a container ahead of rendering. Opening the bank delivers hundreds of unseen
+ * ids at once; rather than letting the overlays discover them a few per frame (so highlights pop in),
+ * every unseen id is queued here and classified by the {@link SliceScheduler} in slices of at most
+ * {@link #SLICE_BUDGET_NANOS} per tick. The overlays then only read finished verdicts.
+ */
+@Slf4j
+@Singleton
+public class ClassificationJob {
+    // Work per tick; a 1000 slot bank takes a few ticks
+    public static final long SLICE_BUDGET_NANOS = 1_000_000;
+
+    private final SliceScheduler scheduler;
+    private final Classifier classifier;
+
+    // Pending ids, classified from head to tail; scheduler thread only
+    private int[] queue = new int[0];
+    private int head = 0;
+    private int tail = 0;
+
+    private volatile boolean pending = false;
+    private long enqueuedAt = 0;
+
+    private int jobSlices = 0;
+    private long slices = 0;
+    private long lastJobNanos = 0;
+
+    @Inject
+    public ClassificationJob(SliceScheduler scheduler, Classifier classifier) {
+        this.scheduler = scheduler;
+        this.classifier = classifier;
+    }
+
+    /**
+     * Queue the first {@code count} ids that have no verdict yet; empty slots are skipped. Call on the
+     * scheduler's thread.
+     */
+    public void enqueue(int[] itemIds, int count) {
+        for (int i = 0; i < count; i++) {
+            int itemId = itemIds[i];
+            if (itemId > 0 && classifier.getCachedVerdict(itemId) == VerdictTable.UNKNOWN) {
+                add(itemId);
+            }
+        }
+        schedule();
+    }
+
+    private void add(int itemId) {
+        if (tail == queue.length) {
+            // Drop the consumed head while making room
+            int size = tail - head;
+            int[] grown = new int[Math.max(64, size * 2)];
+            System.arraycopy(queue, head, grown, 0, size);
+            queue = grown;
+            head = 0;
+            tail = size;
+        }
+        queue[tail++] = itemId;
+    }
+
+    private void schedule() {
+        if (pending || head == tail) {
+            return;
+        }
+        pending = true;
+        jobSlices = 0;
+        enqueuedAt = System.nanoTime();
+        scheduler.schedule(this::runSlice);
+    }
+
+    /**
+     * Classify until the queue is empty or the slice budget is spent. Returns true once done, so the
+     * scheduler stops calling it.
+     */
+    boolean runSlice() {
+        long deadline = System.nanoTime() + SLICE_BUDGET_NANOS;
+        jobSlices++;
+        slices++;
+
+        while (head < tail) {
+            classifier.classify(queue[head++]);
+            // Checking the clock every few items keeps the overhead negligible
+            if ((head & 7) == 0 && System.nanoTime() >= deadline) {
+                return false;
+            }
+        }
+
+        head = 0;
+        tail = 0;
+        pending = false;
+        lastJobNanos = System.nanoTime() - enqueuedAt;
+        log.debug("Pre-classified container in {} slices, {} us", jobSlices, lastJobNanos / 1000);
+        return true;
+    }
+
+    /**
+     * Whether ids are still waiting; until then, unknown verdicts are left to this job
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    public long getSlices() {
+        return slices;
+    }
+
+    /**
+     * Time from queueing to the last verdict of the most recent job
+     */
+    public long getLastJobNanos() {
+        return lastJobNanos;
+    }
+}
@@ -0,0 +1,17 @@
+package com.inventoryhighlighter.engine;
+
+/**
+ * Item verdicts: the index of the first highlight group an item matches, or
+ * {@link ItemMatcher#NO_MATCH}.
+ */
+public interface Classifier {
+    /**
+     * The verdict, classifying and caching the item if it has none yet
+     */
+    int classify(int itemId);
+
+    /**
+     * The cached verdict, or {@link VerdictTable#UNKNOWN} if the item hasn't been classified
+     */
+    int getCachedVerdict(int itemId);
+}
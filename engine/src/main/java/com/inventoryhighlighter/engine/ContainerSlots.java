@@ -0,0 +1,213 @@
+package com.inventoryhighlighter.engine;
+
+import java.util.Arrays;
+
+/**
+ * The last seen contents of one item container, diffed slot by slot against each new version. Ids
+ * and quantities live in primitive arrays that only grow, so once they fit the container an update
+ * allocates nothing.
+ * <p>
+ * An update records which slots changed, and for each whether it now holds a different item and how
+ * much the container's total of that item grew; a quantity change keeps the item's verdict, so only
+ * new ids need classifying. Totals are compared rather than slots, so swapping or moving items is no
+ * gain.
+ * <p>
+ * Not thread safe; owned by the thread that delivers container changes.
+ */
+public final class ContainerSlots {
+    private int[] itemIds = new int[0];
+    private int[] quantities = new int[0];
+    private int size = 0;
+
+    // Slots changed by the last update, and per changed slot its new id if the id changed, else 0,
+    // how much the total of its item grew, and the id and quantity it held before
+    private int[] changedSlots = new int[64];
+    private int[] changedIds = new int[64];
+    private int[] changedGains = new int[64];
+    private int[] changedOldIds = new int[64];
+    private int[] changedOldQuantities = new int[64];
+    private int changedCount = 0;
+
+    // Open addressed id to total change, over the items in the changed slots only; unchanged slots
+    // hold the same amount before and after
+    private int[] tallyIds = new int[128];
+    private int[] tallyGains = new int[128];
+
+    /**
+     * Replace the contents with the first {@code length} entries of the arrays. Slots past the new
+     * length are emptied. Returns the number of slots that changed.
+     */
+    public int update(int[] newIds, int[] newQuantities, int length) {
+        int oldSize = size;
+        if (itemIds.length < length) {
+            itemIds = grow(itemIds, length, -1);
+            quantities = grow(quantities, length, 0);
+        }
+        int maxChanged = Math.max(length, oldSize);
+        if (changedSlots.length < maxChanged) {
+            changedSlots = new int[maxChanged];
+            changedIds = new int[maxChanged];
+            changedGains = new int[maxChanged];
+            changedOldIds = new int[maxChanged];
+            changedOldQuantities = new int[maxChanged];
+        }
+
+        int changed = 0;
+        for (int slot = 0; slot < length; slot++) {
+            int itemId = newIds[slot];
+            int quantity = newQuantities[slot];
+            boolean newId = slot >= oldSize || itemIds[slot] != itemId;
+            if (newId || quantities[slot] != quantity) {
+                changedSlots[changed] = slot;
+                changedOldIds[changed] = slot < oldSize ? itemIds[slot] : -1;
+                changedOldQuantities[changed] = slot < oldSize ? quantities[slot] : 0;
+                changedIds[changed++] = newId ? itemId : 0;
+                itemIds[slot] = itemId;
+                quantities[slot] = quantity;
+            }
+        }
+
+        for (int slot = length; slot < oldSize; slot++) {
+            changedOldIds[changed] = itemIds[slot];
+            changedOldQuantities[changed] = quantities[slot];
+            itemIds[slot] = -1;
+            quantities[slot] = 0;
+            changedSlots[changed] = slot;
+            changedIds[changed++] = 0;
+        }
+        size = length;
+        changedCount = changed;
+        tallyGains(changed);
+        return changed;
+    }
+
+    /**
+     * Per change, how much the container's total of the slot's item grew: the item it now holds, or
+     * the one it held if it is now empty. Only the changed slots are tallied.
+     */
+    private void tallyGains(int changed) {
+        if (changed == 0) {
+            return;
+        }
+        int capacity = tallyIds.length;
+        while (capacity < changed * 4) {
+            capacity *= 2;
+        }
+        if (capacity != tallyIds.length) {
+            tallyIds = new int[capacity];
+            tallyGains = new int[capacity];
+        }
+        Arrays.fill(tallyIds, -1);
+
+        for (int i = 0; i < changed; i++) {
+            int slot = changedSlots[i];
+            tally(changedOldIds[i], -changedOldQuantities[i]);
+            tally(itemIds[slot], quantities[slot]);
+        }
+        for (int i = 0; i < changed; i++) {
+            int itemId = itemIds[changedSlots[i]];
+            itemId = itemId >= 0 ? itemId : changedOldIds[i];
+            changedGains[i] = itemId >= 0 ? tallyGains[find(itemId)] : 0;
+        }
+    }
+
+    private void tally(int itemId, int gain) {
+        if (itemId < 0) {
+            return;
+        }
+        int index = find(itemId);
+        if (tallyIds[index] < 0) {
+            tallyIds[index] = itemId;
+            tallyGains[index] = 0;
+        }
+        tallyGains[index] += gain;
+    }
+
+    /**
+     * The tally index holding the id, or the empty one it belongs in
+     */
+    private int find(int itemId) {
+        int mask = tallyIds.length - 1;
+        int index = (itemId * 0x9E3779B9) >>> 16 & mask;
+        while (tallyIds[index] >= 0 && tallyIds[index] != itemId) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static int[] grow(int[] array, int length, int fill) {
+        int[] grown = Arrays.copyOf(array, length);
+        Arrays.fill(grown, array.length, length, fill);
+        return grown;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * The id in a slot, -1 if it is empty or past the end
+     */
+    public int getItemId(int slot) {
+        return slot < size ? itemIds[slot] : -1;
+    }
+
+    public int getQuantity(int slot) {
+        return slot < size ? quantities[slot] : 0;
+    }
+
+    /**
+     * The first slot holding the item, preferring one with the given quantity, or -1. For containers
+     * whose interface doesn't show slots by index, like the equipment tab.
+     */
+    public int indexOf(int itemId, int quantity) {
+        int found = -1;
+        for (int slot = 0; slot < size; slot++) {
+            if (itemIds[slot] == itemId) {
+                if (quantities[slot] == quantity) {
+                    return slot;
+                }
+                found = found < 0 ? slot : found;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The ids in every slot; only the first {@link #getSize()} are current
+     */
+    public int[] getItemIds() {
+        return itemIds;
+    }
+
+    /**
+     * Number of slots changed by the last update
+     */
+    public int getChangedCount() {
+        return changedCount;
+    }
+
+    /**
+     * The slot of the {@code i}th change in the last update
+     */
+    public int getChangedSlot(int i) {
+        return changedSlots[i];
+    }
+
+    /**
+     * Per change in the last update, the slot's new id if it changed, else 0; only the first
+     * {@link #getChangedCount()} are current. Ready to hand to {@link ClassificationJob#enqueue}.
+     */
+    public int[] getChangedIds() {
+        return changedIds;
+    }
+
+    /**
+     * How much the container's total of the item in the slot of the {@code i}th change grew in the
+     * last update, negative if it shrank. For a slot now empty, the total of the item it held. An
+     * item swapped or moved between slots has gained nothing.
+     */
+    public int getChangedGain(int i) {
+        return changedGains[i];
+    }
+}
@@ -0,0 +1,250 @@
+package com.inventoryhighlighter.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Every configured glob compiled into one deterministic automaton, so a name is checked in a single
+ * left-to-right pass no matter how many globs there are. {@code *} matches any run of characters and
+ * {@code ?} any single character; globs are anchored at both ends.
+ * <p>
+ * DFA states are sets of glob positions and are built lazily, the first time a name walks into them,
+ * which keeps the subset construction proportional to the names actually seen rather than exponential
+ * in the number of globs.
+ * <p>
+ * Matching is safe from any thread without locks. States are immutable apart from their transition
+ * slots, which are filled racily: a reference write is atomic and a state's own fields are final, so a
+ * reader sees either nothing (and builds the same transition again) or a complete state.
+ */
+final class GlobAutomaton {
+    static final GlobAutomaton EMPTY = new GlobAutomaton(new ArrayList<>(), new long[0]);
+
+    // Discard the built states past this many and start over, in case of pathological globs
+    private static final int MAX_STATES = 4096;
+    private static final int ASCII = 128;
+
+    // Rough sizes for the footprint estimate: object and array headers, references, map entries
+    private static final int HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int MAP_ENTRY_BYTES = 48;
+
+    private static final byte LITERAL = 0;
+    private static final byte ANY_CHAR = 1;
+    private static final byte STAR = 2;
+    private static final byte END = 3;
+
+    // One entry per glob position, every glob followed by an END position
+    private final byte[] tokens;
+    private final char[] chars;
+    private final long[] acceptBits;
+    private final int[] starts;
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+    private volatile State start;
+    private final AtomicLong footprintBytes = new AtomicLong();
+
+    /**
+     * A set of glob positions and the transitions discovered out of it so far
+     */
+    private static final class State {
+        private final int[] positions;
+        // Bits of the globs that match when the name ends here; 0 for every other position
+        private final long accept;
+        // Whether no glob can match any more, whatever follows
+        private final boolean dead;
+        private final State[] ascii = new State[ASCII];
+        private volatile Map<Character, State> other;
+
+        State(int[] positions, long accept) {
+            this.positions = positions;
+            this.accept = accept;
+            this.dead = positions.length == 0;
+        }
+    }
+
+    /**
+     * @param globs      the globs to compile
+     * @param globBits   for each glob, the bits to report when it matches
+     */
+    GlobAutomaton(List<String> globs, long[] globBits) {
+        int size = 0;
+        for (String glob : globs) {
+            size += glob.length() + 1;
+        }
+
+        byte[] tokens = new byte[size];
+        char[] chars = new char[size];
+        long[] acceptBits = new long[size];
+        int[] starts = new int[globs.size()];
+
+        int position = 0;
+        for (int i = 0; i < globs.size(); i++) {
+            starts[i] = position;
+            String glob = globs.get(i);
+            for (int j = 0; j < glob.length(); j++) {
+                char c = glob.charAt(j);
+                if (c == '*') {
+                    // Runs of stars behave like one
+                    if (position > starts[i] && tokens[position - 1] == STAR) {
+                        continue;
+                    }
+                    tokens[position++] = STAR;
+                } else if (c == '?') {
+                    tokens[position++] = ANY_CHAR;
+                } else {
+                    tokens[position] = LITERAL;
+                    chars[position++] = c;
+                }
+            }
+            tokens[position] = END;
+            acceptBits[position++] = globBits[i];
+        }
+
+        this.tokens = Arrays.copyOf(tokens, position);
+        this.chars = Arrays.copyOf(chars, position);
+        this.acceptBits = Arrays.copyOf(acceptBits, position);
+        this.starts = starts;
+        this.start = startState();
+    }
+
+    boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    /**
+     * Number of DFA states built so far
+     */
+    int getStateCount() {
+        return states.size();
+    }
+
+    /**
+     * Estimated heap used by the states built so far
+     */
+    long getFootprintBytes() {
+        return footprintBytes.get();
+    }
+
+    /**
+     * The bits of every glob matching the whole name, OR'ed together
+     */
+    long match(String name) {
+        State state = start;
+        for (int i = 0; i < name.length() && !state.dead; i++) {
+            state = next(state, name.charAt(i));
+        }
+        return state.accept;
+    }
+
+    private State next(State state, char c) {
+        State next;
+        if (c < ASCII) {
+            next = state.ascii[c];
+        } else {
+            next = state.other != null ? state.other.get(c) : null;
+        }
+        if (next != null) {
+            return next;
+        }
+
+        if (states.size() >= MAX_STATES) {
+            states.clear();
+            footprintBytes.set(0);
+            start = startState();
+        }
+
+        next = step(state, c);
+        if (c < ASCII) {
+            state.ascii[c] = next;
+        } else {
+            Map<Character, State> other = state.other;
+            if (other == null) {
+                // Losing a racing map only loses cached transitions
+                other = new ConcurrentHashMap<>();
+                state.other = other;
+            }
+            other.put(c, next);
+            footprintBytes.addAndGet(MAP_ENTRY_BYTES);
+        }
+        return next;
+    }
+
+    private State startState() {
+        boolean[] seen = new boolean[tokens.length];
+        int[] positions = new int[tokens.length];
+        int count = 0;
+        for (int position : starts) {
+            count = addClosure(position, seen, positions, count);
+        }
+        return intern(positions, count);
+    }
+
+    private State step(State state, char c) {
+        boolean[] seen = new boolean[tokens.length];
+        int[] positions = new int[tokens.length];
+        int count = 0;
+        for (int position : state.positions) {
+            switch (tokens[position]) {
+                case STAR:
+                    count = addClosure(position, seen, positions, count);
+                    break;
+                case ANY_CHAR:
+                    count = addClosure(position + 1, seen, positions, count);
+                    break;
+                case LITERAL:
+                    if (chars[position] == c) {
+                        count = addClosure(position + 1, seen, positions, count);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return intern(positions, count);
+    }
+
+    /**
+     * Add a position, and the one after it while it is a star (which may match nothing)
+     */
+    private int addClosure(int position, boolean[] seen, int[] positions, int count) {
+        while (!seen[position]) {
+            seen[position] = true;
+            positions[count++] = position;
+            if (tokens[position] != STAR) {
+                break;
+            }
+            position++;
+        }
+        return count;
+    }
+
+    private State intern(int[] positions, int count) {
+        int[] key = Arrays.copyOf(positions, count);
+        Arrays.sort(key);
+        String id = Arrays.toString(key);
+
+        State state = states.get(id);
+        if (state == null) {
+            long accept = 0;
+            for (int position : key) {
+                accept |= acceptBits[position];
+            }
+            State created = new State(key, accept);
+            state = states.putIfAbsent(id, created);
+            if (state == null) {
+                state = created;
+                footprintBytes.addAndGet(3 * HEADER_BYTES + key.length * 4 + ASCII * REFERENCE_BYTES
+                    + MAP_ENTRY_BYTES + id.length() * 2);
+            }
+        }
+        return state;
+    }
+}
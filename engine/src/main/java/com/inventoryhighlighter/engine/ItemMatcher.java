@@ -0,0 +1,257 @@
+package com.inventoryhighlighter.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The patterns of every highlight group compiled into one matcher, so a single pass over a
+ * standardized item name returns the first (highest priority) group it matches.
+ * <p>
+ * Pattern syntax:
+ * <ul>
+ * <li>{@code coins} matches names containing "coins"</li>
+ * <li>{@code rune*}, {@code *(4)}, {@code *potion*}, {@code rune * bolts} are globs over the whole name;
+ * {@code *} matches any run of characters and {@code ?} any single character</li>
+ * <li>{@code =lobster} or {@code "lobster"} matches the name exactly, through one hash lookup</li>
+ * <li>{@code #995} matches the item id, without looking up the item at all</li>
+ * <li>a leading {@code !} turns any of the above into an exclusion: the item is skipped by that
+ * group and falls through to later ones</li>
+ * </ul>
+ * Every pattern reports a bit for its group: the low 32 bits are matches, the high 32 exclusions.
+ * Substring, prefix and suffix patterns all run through one {@link LiteralAutomaton}, and the
+ * remaining globs through one {@link GlobAutomaton}.
+ */
+public final class ItemMatcher {
+    public static final int NO_MATCH = -1;
+    // Returned by matchId when a name pattern could still change the verdict
+    public static final int NEEDS_NAME = -3;
+
+    public static final int MAX_GROUPS = 32;
+
+    public static final ItemMatcher EMPTY = new ItemMatcher(LiteralAutomaton.EMPTY, GlobAutomaton.EMPTY,
+        Collections.emptyMap(), Collections.emptyMap(), 0);
+
+    private static final long INCLUDE_MASK = 0xFFFFFFFFL;
+
+    private final LiteralAutomaton literals;
+    private final GlobAutomaton globs;
+    private final Map<String, Long> exactNames;
+    private final Map<Integer, Long> itemIds;
+
+    // Bits of every name based pattern, to tell when an id verdict is final
+    private final long nameBits;
+
+    private ItemMatcher(LiteralAutomaton literals, GlobAutomaton globs, Map<String, Long> exactNames,
+            Map<Integer, Long> itemIds, long nameBits) {
+        this.literals = literals;
+        this.globs = globs;
+        this.exactNames = exactNames;
+        this.itemIds = itemIds;
+        this.nameBits = nameBits;
+    }
+
+    /**
+     * Compile the standardized, lower-case patterns of each group, highest priority first. Groups
+     * past {@link #MAX_GROUPS} are ignored.
+     */
+    public static ItemMatcher compile(List<? extends List<String>> groupPatterns) {
+        List<String> literalList = new ArrayList<>();
+        List<Byte> literalKinds = new ArrayList<>();
+        List<Long> literalBits = new ArrayList<>();
+        List<String> globList = new ArrayList<>();
+        List<Long> globBits = new ArrayList<>();
+        Map<String, Long> exactNames = new HashMap<>();
+        Map<Integer, Long> itemIds = new HashMap<>();
+        long nameBits = 0;
+
+        int groupCount = Math.min(groupPatterns.size(), MAX_GROUPS);
+        for (int group = 0; group < groupCount; group++) {
+            for (String pattern : groupPatterns.get(group)) {
+                boolean exclude = pattern.startsWith("!");
+                if (exclude) {
+                    pattern = pattern.substring(1).trim();
+                }
+                if (pattern.isEmpty()) {
+                    continue;
+                }
+                long bit = 1L << (exclude ? group + 32 : group);
+
+                int itemId = parseItemId(pattern);
+                if (itemId >= 0) {
+                    itemIds.merge(itemId, bit, (a, b) -> a | b);
+                    continue;
+                }
+
+                String exactName = parseExactName(pattern);
+                if (exactName != null) {
+                    if (!exactName.isEmpty()) {
+                        exactNames.merge(exactName, bit, (a, b) -> a | b);
+                        nameBits |= bit;
+                    }
+                    continue;
+                }
+
+                // Plain text keeps its substring meaning
+                String glob = pattern.indexOf('*') < 0 && pattern.indexOf('?') < 0 ? "*" + pattern + "*" : pattern;
+                int kind = LiteralAutomaton.kindOf(glob);
+                if (kind >= 0) {
+                    literalList.add(LiteralAutomaton.literalOf(glob));
+                    literalKinds.add((byte) kind);
+                    literalBits.add(bit);
+                } else {
+                    globList.add(glob);
+                    globBits.add(bit);
+                }
+                nameBits |= bit;
+            }
+        }
+
+        if (literalList.isEmpty() && globList.isEmpty() && exactNames.isEmpty() && itemIds.isEmpty()) {
+            return EMPTY;
+        }
+
+        byte[] kinds = new byte[literalKinds.size()];
+        long[] bits = new long[literalBits.size()];
+        for (int i = 0; i < bits.length; i++) {
+            kinds[i] = literalKinds.get(i);
+            bits[i] = literalBits.get(i);
+        }
+        LiteralAutomaton literals = literalList.isEmpty() ? LiteralAutomaton.EMPTY
+            : new LiteralAutomaton(literalList, kinds, bits);
+
+        bits = new long[globBits.size()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = globBits.get(i);
+        }
+        return new ItemMatcher(literals, new GlobAutomaton(globList, bits), exactNames, itemIds, nameBits);
+    }
+
+    /**
+     * The id of an {@code #123} pattern, or -1
+     */
+    private static int parseItemId(String pattern) {
+        if (pattern.length() < 2 || pattern.length() > 10 || pattern.charAt(0) != '#') {
+            return -1;
+        }
+        for (int i = 1; i < pattern.length(); i++) {
+            if (!Character.isDigit(pattern.charAt(i))) {
+                return -1;
+            }
+        }
+        return Integer.parseInt(pattern.substring(1));
+    }
+
+    /**
+     * The name of an {@code =name} or {@code "name"} pattern, or null
+     */
+    private static String parseExactName(String pattern) {
+        if (pattern.startsWith("=")) {
+            return pattern.substring(1).trim();
+        }
+        if (pattern.length() >= 2 && pattern.startsWith("\"") && pattern.endsWith("\"")) {
+            return pattern.substring(1, pattern.length() - 1).trim();
+        }
+        return null;
+    }
+
+    public boolean isEmpty() {
+        return literals.isEmpty() && globs.isEmpty() && exactNames.isEmpty() && itemIds.isEmpty();
+    }
+
+    public int size() {
+        return literals.size() + globs.size() + exactNames.size() + itemIds.size();
+    }
+
+    /**
+     * Number of glob automaton states built so far
+     */
+    public int getStateCount() {
+        return globs.getStateCount();
+    }
+
+    /**
+     * Number of literal automaton nodes, all built up front
+     */
+    public int getLiteralNodeCount() {
+        return literals.getNodeCount();
+    }
+
+    /**
+     * Estimated heap used by the literal automaton and the glob automaton states built so far
+     */
+    public long getFootprintBytes() {
+        return literals.getFootprintBytes() + globs.getFootprintBytes();
+    }
+
+    /**
+     * The verdict from id patterns alone, or {@link #NEEDS_NAME} if a name pattern in an earlier
+     * group could win, or one in the same group could exclude the item
+     */
+    public int matchId(int itemId) {
+        long bits = itemIds.getOrDefault(itemId, 0L);
+        int group = resolve(bits);
+
+        long earlier = group == NO_MATCH ? INCLUDE_MASK : (1L << group) - 1;
+        if ((nameBits & earlier) != 0 || (group != NO_MATCH && (nameBits & (1L << (group + 32))) != 0)) {
+            return NEEDS_NAME;
+        }
+        return group;
+    }
+
+    /**
+     * Group index of the first group matching the item by id or standardized name, or {@link #NO_MATCH}
+     */
+    public int match(int itemId, String itemName) {
+        return resolve(itemIds.getOrDefault(itemId, 0L) | nameBits(itemName));
+    }
+
+    /**
+     * Group index of the first group from {@code fromGroup} on matching the item, or {@link #NO_MATCH}.
+     * Used to fall through groups whose stack conditions failed.
+     */
+    public int match(int itemId, String itemName, int fromGroup) {
+        long earlier = fromGroup >= MAX_GROUPS ? INCLUDE_MASK : (1L << fromGroup) - 1;
+        return resolve((itemIds.getOrDefault(itemId, 0L) | nameBits(itemName)) & ~earlier);
+    }
+
+    /**
+     * Group index of the first group matching the standardized name, or {@link #NO_MATCH}
+     */
+    public int match(String itemName) {
+        return resolve(nameBits(itemName));
+    }
+
+    /**
+     * Group index of the first group matching the item, given the {@link #nameBits} of its name.
+     * Lets a batch match each distinct name once for every id that carries it.
+     */
+    public int match(int itemId, long nameBits) {
+        return resolve(itemIds.isEmpty() ? nameBits : itemIds.getOrDefault(itemId, 0L) | nameBits);
+    }
+
+    /**
+     * The match and exclusion bits of every name pattern the standardized name hits
+     */
+    public long nameBits(String itemName) {
+        return exactNames.getOrDefault(itemName, 0L) | literals.match(itemName) | globs.match(itemName);
+    }
+
+    /**
+     * Whether any pattern, match or exclusion, hits the item, given the {@link #nameBits} of its
+     * name. Tells which items a few added or removed patterns can affect.
+     */
+    public boolean matchesAny(int itemId, long nameBits) {
+        return nameBits != 0 || itemIds.containsKey(itemId);
+    }
+
+    /**
+     * The lowest group that matched and was not excluded
+     */
+    private static int resolve(long bits) {
+        long matched = bits & INCLUDE_MASK & ~(bits >>> 32);
+        return matched == 0 ? NO_MATCH : Long.numberOfTrailingZeros(matched);
+    }
+}
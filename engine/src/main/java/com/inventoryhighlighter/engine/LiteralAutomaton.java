@@ -0,0 +1,287 @@
+package com.inventoryhighlighter.engine;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Substring, prefix and suffix patterns ({@code coins}, {@code rune*}, {@code *(4)}) compiled into
+ * one Aho-Corasick automaton. Its size is linear in the patterns' total length and a name is matched
+ * in one pass however many patterns there are, where the {@link GlobAutomaton}'s states multiply with
+ * every substring pattern, so lists of thousands of plain names stay cheap.
+ * <p>
+ * Built up front and never changed, so matching is safe from any thread.
+ */
+final class LiteralAutomaton {
+    static final LiteralAutomaton EMPTY = new LiteralAutomaton(List.of(), new byte[0], new long[0]);
+
+    // How a literal has to sit in the name
+    static final byte SUBSTRING = 0;
+    static final byte PREFIX = 1;
+    static final byte SUFFIX = 2;
+
+    private static final int ASCII = 128;
+
+    // Trie edges in compressed rows: the children of node n are at edgeStart[n] to edgeStart[n + 1],
+    // sorted by character
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    // The root's children by character, as every mismatch falls back to the root
+    private final int[] rootNext = new int[ASCII];
+
+    private final int[] fail;
+    private final int[] depth;
+    // Index into the bit arrays for nodes that end a literal, else -1
+    private final int[] output;
+    // The nearest node on the failure chain that ends a literal, else -1
+    private final int[] outputLink;
+    private final long[] substringBits;
+    private final long[] prefixBits;
+    private final long[] suffixBits;
+    private final int size;
+
+    /**
+     * @param literals the literals to compile, without their stars
+     * @param kinds    for each literal, {@link #SUBSTRING}, {@link #PREFIX} or {@link #SUFFIX}
+     * @param bits     for each literal, the bits to report when it matches
+     */
+    LiteralAutomaton(List<String> literals, byte[] kinds, long[] bits) {
+        this.size = literals.size();
+
+        // Build the trie with growable child lists
+        int capacity = 16;
+        for (String literal : literals) {
+            capacity += literal.length();
+        }
+        char[][] childChars = new char[capacity][];
+        int[][] childNodes = new int[capacity][];
+        int[] childCount = new int[capacity];
+        int[] nodeDepth = new int[capacity];
+        int[] nodeOutput = new int[capacity];
+        Arrays.fill(nodeOutput, -1);
+        long[][] outputBits = new long[3][literals.size()];
+        int nodes = 1;
+        int outputs = 0;
+
+        for (int i = 0; i < literals.size(); i++) {
+            String literal = literals.get(i);
+            int node = 0;
+            for (int j = 0; j < literal.length(); j++) {
+                char c = literal.charAt(j);
+                int next = find(childChars[node], childNodes[node], childCount[node], c);
+                if (next < 0) {
+                    next = nodes++;
+                    nodeDepth[next] = j + 1;
+                    if (childChars[node] == null) {
+                        childChars[node] = new char[2];
+                        childNodes[node] = new int[2];
+                    } else if (childCount[node] == childChars[node].length) {
+                        childChars[node] = Arrays.copyOf(childChars[node], childCount[node] * 2);
+                        childNodes[node] = Arrays.copyOf(childNodes[node], childCount[node] * 2);
+                    }
+                    childChars[node][childCount[node]] = c;
+                    childNodes[node][childCount[node]++] = next;
+                }
+                node = next;
+            }
+            if (nodeOutput[node] < 0) {
+                nodeOutput[node] = outputs++;
+            }
+            outputBits[kinds[i]][nodeOutput[node]] |= bits[i];
+        }
+
+        // Flatten into sorted rows
+        int[] edgeStart = new int[nodes + 1];
+        for (int node = 0; node < nodes; node++) {
+            edgeStart[node + 1] = edgeStart[node] + childCount[node];
+        }
+        char[] edgeChars = new char[edgeStart[nodes]];
+        int[] edgeTargets = new int[edgeStart[nodes]];
+        long[] row = new long[16];
+        for (int node = 0; node < nodes; node++) {
+            int count = childCount[node];
+            if (row.length < count) {
+                row = new long[count];
+            }
+            for (int k = 0; k < count; k++) {
+                row[k] = (long) childChars[node][k] << 32 | childNodes[node][k];
+            }
+            Arrays.sort(row, 0, count);
+            for (int k = 0; k < count; k++) {
+                edgeChars[edgeStart[node] + k] = (char) (row[k] >>> 32);
+                edgeTargets[edgeStart[node] + k] = (int) row[k];
+            }
+        }
+        this.edgeStart = edgeStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        for (int k = edgeStart[0]; k < edgeStart[1]; k++) {
+            if (edgeChars[k] < ASCII) {
+                rootNext[edgeChars[k]] = edgeTargets[k];
+            }
+        }
+
+        // Failure links breadth first, so a node's suffixes are linked before it
+        int[] fail = new int[nodes];
+        int[] outputLink = new int[nodes];
+        Arrays.fill(outputLink, -1);
+        int[] queue = new int[nodes];
+        int head = 0;
+        int tail = 0;
+        for (int k = edgeStart[0]; k < edgeStart[1]; k++) {
+            queue[tail++] = edgeTargets[k];
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            for (int k = edgeStart[node]; k < edgeStart[node + 1]; k++) {
+                char c = edgeChars[k];
+                int child = edgeTargets[k];
+                int f = fail[node];
+                int target = child(f, c);
+                while (target < 0 && f != 0) {
+                    f = fail[f];
+                    target = child(f, c);
+                }
+                fail[child] = target < 0 ? 0 : target;
+                int suffix = fail[child];
+                outputLink[child] = nodeOutput[suffix] >= 0 ? suffix : outputLink[suffix];
+                queue[tail++] = child;
+            }
+        }
+
+        this.fail = fail;
+        this.outputLink = outputLink;
+        this.depth = Arrays.copyOf(nodeDepth, nodes);
+        this.output = Arrays.copyOf(nodeOutput, nodes);
+        this.substringBits = Arrays.copyOf(outputBits[SUBSTRING], outputs);
+        this.prefixBits = Arrays.copyOf(outputBits[PREFIX], outputs);
+        this.suffixBits = Arrays.copyOf(outputBits[SUFFIX], outputs);
+    }
+
+    private static int find(char[] chars, int[] nodes, int count, char c) {
+        for (int k = 0; k < count; k++) {
+            if (chars[k] == c) {
+                return nodes[k];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The child of a node along a character, or -1
+     */
+    private int child(int node, char c) {
+        if (node == 0 && c < ASCII) {
+            int next = rootNext[c];
+            return next == 0 ? -1 : next;
+        }
+        int low = edgeStart[node];
+        int high = edgeStart[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = edgeChars[mid];
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The bits of every literal found in the name where its kind allows, OR'ed together
+     */
+    long match(String name) {
+        if (size == 0) {
+            return 0;
+        }
+
+        long bits = 0;
+        int state = 0;
+        int last = name.length() - 1;
+        for (int i = 0; i <= last; i++) {
+            char c = name.charAt(i);
+            int next = child(state, c);
+            while (next < 0 && state != 0) {
+                state = fail[state];
+                next = child(state, c);
+            }
+            state = next < 0 ? 0 : next;
+
+            for (int node = output[state] >= 0 ? state : outputLink[state]; node >= 0; node = outputLink[node]) {
+                int o = output[node];
+                bits |= substringBits[o];
+                if (depth[node] == i + 1) {
+                    bits |= prefixBits[o];
+                }
+                if (i == last) {
+                    bits |= suffixBits[o];
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * The literal form of a glob, as its {@link #SUBSTRING}, {@link #PREFIX} or {@link #SUFFIX} kind,
+     * or -1 if it needs the glob automaton
+     */
+    static int kindOf(String glob) {
+        int start = 0;
+        int end = glob.length();
+        while (start < end && glob.charAt(start) == '*') {
+            start++;
+        }
+        while (end > start && glob.charAt(end - 1) == '*') {
+            end--;
+        }
+        if (start == end || start == 0 && end == glob.length()) {
+            return -1;
+        }
+        for (int i = start; i < end; i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                return -1;
+            }
+        }
+        return start > 0 && end < glob.length() ? SUBSTRING : start > 0 ? SUFFIX : PREFIX;
+    }
+
+    /**
+     * The glob without its leading and trailing stars
+     */
+    static String literalOf(String glob) {
+        int start = 0;
+        int end = glob.length();
+        while (start < end && glob.charAt(start) == '*') {
+            start++;
+        }
+        while (end > start && glob.charAt(end - 1) == '*') {
+            end--;
+        }
+        return glob.substring(start, end);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getNodeCount() {
+        return fail.length;
+    }
+
+    /**
+     * Heap used by the arrays
+     */
+    long getFootprintBytes() {
+        return (long) edgeChars.length * 6 + (long) fail.length * 20 + ASCII * 4
+            + (long) substringBits.length * 24;
+    }
+}
@@ -0,0 +1,148 @@
+package com.inventoryhighlighter.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Standardized, lower-case item names keyed by item id, and the reverse index from each distinct
+ * name to the ids that carry it. Names never change within a session, so unlike verdicts the table
+ * is never invalidated: once an item has been looked up, every later pattern set matches it straight
+ * from memory, and matches each distinct name only once however many variants share it.
+ * <p>
+ * Names are interned, so an item, its noted variant and its placeholder hold one shared string.
+ * Pages are allocated on first use like the {@link VerdictTable}'s, and each entry goes from empty
+ * to its name with a compare-and-set, so an id is indexed under its name exactly once. Ids past
+ * {@link VerdictTable#MAX_CAPACITY} are never stored.
+ */
+public final class NameTable {
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    // Rough heap cost of one distinct name beyond its chars: String, id list and index entry
+    private static final int NAME_OVERHEAD = 120;
+
+    private static final VarHandle ENTRY = MethodHandles.arrayElementVarHandle(String[].class);
+
+    /**
+     * Receives each distinct name with the first {@code count} entries of {@code itemIds} carrying it
+     */
+    public interface Visitor {
+        void visit(String name, int[] itemIds, int count);
+    }
+
+    /**
+     * The ids carrying one name
+     */
+    private static final class Ids {
+        private final String name;
+        private int[] itemIds = new int[2];
+        private int count = 0;
+
+        Ids(String name) {
+            this.name = name;
+        }
+
+        synchronized void add(int itemId) {
+            if (count == itemIds.length) {
+                itemIds = Arrays.copyOf(itemIds, count * 2);
+            }
+            itemIds[count++] = itemId;
+        }
+    }
+
+    private final AtomicReferenceArray<String[]> pages = new AtomicReferenceArray<>(VerdictTable.MAX_CAPACITY >> PAGE_BITS);
+    private final ConcurrentHashMap<String, Ids> byName = new ConcurrentHashMap<>();
+    private final AtomicInteger pageCount = new AtomicInteger();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong chars = new AtomicLong();
+
+    /**
+     * The item's standardized name, empty if it has none, or null if it hasn't been looked up
+     */
+    public String get(int itemId) {
+        if (itemId < 0 || itemId >= VerdictTable.MAX_CAPACITY) {
+            return null;
+        }
+        String[] page = pages.get(itemId >>> PAGE_BITS);
+        return page == null ? null : page[itemId & PAGE_MASK];
+    }
+
+    /**
+     * Record the item's standardized name, unless one is already recorded. Returns the interned name.
+     */
+    public String put(int itemId, String name) {
+        if (itemId < 0 || itemId >= VerdictTable.MAX_CAPACITY) {
+            // Not stored, so not indexed either
+            Ids ids = byName.get(name);
+            return ids != null ? ids.name : name;
+        }
+        String known = get(itemId);
+        if (known != null) {
+            return known;
+        }
+
+        Ids ids = byName.computeIfAbsent(name, n -> {
+            chars.addAndGet(n.length());
+            return new Ids(n);
+        });
+
+        int index = itemId >>> PAGE_BITS;
+        String[] page = pages.get(index);
+        if (page == null) {
+            if (pages.compareAndSet(index, null, new String[PAGE_SIZE])) {
+                pageCount.incrementAndGet();
+            }
+            page = pages.get(index);
+        }
+        if (ENTRY.compareAndSet(page, itemId & PAGE_MASK, (String) null, ids.name)) {
+            ids.add(itemId);
+            size.incrementAndGet();
+        }
+        return ids.name;
+    }
+
+    /**
+     * Visit every distinct name with the ids carrying it
+     */
+    public void forEachName(Visitor visitor) {
+        for (Ids ids : byName.values()) {
+            int[] itemIds;
+            int count;
+            synchronized (ids) {
+                itemIds = ids.itemIds;
+                count = ids.count;
+            }
+            if (count > 0) {
+                visitor.visit(ids.name, itemIds, count);
+            }
+        }
+    }
+
+    /**
+     * Number of ids with a known name
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Number of distinct names
+     */
+    public int getDistinctCount() {
+        return byName.size();
+    }
+
+    /**
+     * Estimated heap used by the pages, the names and the reverse index
+     */
+    public long getFootprintBytes() {
+        return (long) pageCount.get() * PAGE_SIZE * 4 + chars.get() + (long) size.get() * 4
+            + (long) byName.size() * NAME_OVERHEAD;
+    }
+}
@@ -0,0 +1,157 @@
+package com.inventoryhighlighter.engine;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * The entries of an item list kept outside the config, such as a file of thousands of names. The
+ * text is parsed as a stream, so the whole list is never held as one string, and each reload
+ * reports which entries were added and removed, so a few edits to a long list only touch the items
+ * those entries can hit.
+ * <p>
+ * Not thread safe; owned by whichever thread reloads the list.
+ */
+public final class PatternList {
+    private static final int BUFFER_CHARS = 8192;
+
+    private final UnaryOperator<String> standardizer;
+    private Set<String> entries = Collections.emptySet();
+
+    /**
+     * The entries added and removed by a reload, along with every current entry
+     */
+    public static final class Delta {
+        private final List<String> entries;
+        private final List<String> added;
+        private final List<String> removed;
+
+        Delta(List<String> entries, List<String> added, List<String> removed) {
+            this.entries = entries;
+            this.added = added;
+            this.removed = removed;
+        }
+
+        public List<String> getEntries() {
+            return entries;
+        }
+
+        public List<String> getAdded() {
+            return added;
+        }
+
+        public List<String> getRemoved() {
+            return removed;
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    /**
+     * @param standardizer applied to every entry, the way the config's own patterns are standardized;
+     *                     entries it leaves empty are skipped
+     */
+    public PatternList(UnaryOperator<String> standardizer) {
+        this.standardizer = standardizer;
+    }
+
+    /**
+     * Split the text into entries as it is read: one per line or comma, trimmed, blank ones skipped.
+     * Commas inside double quotes don't split, so an exact {@code "name, with comma"} survives; the
+     * quotes are kept for the matcher.
+     */
+    public static void parse(Reader reader, Consumer<String> entry) throws IOException {
+        char[] buffer = new char[BUFFER_CHARS];
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean first = true;
+        int read;
+        while ((read = reader.read(buffer)) > 0) {
+            int start = 0;
+            // A byte order mark would otherwise stick to the first entry
+            if (first && buffer[0] == '\uFEFF') {
+                start = 1;
+            }
+            first = false;
+
+            for (int i = start; i < read; i++) {
+                char c = buffer[i];
+                if (c == '\n' || c == '\r') {
+                    // An unclosed quote ends with its line rather than swallowing the file
+                    quoted = false;
+                    emit(current, entry);
+                } else if (c == ',' && !quoted) {
+                    emit(current, entry);
+                } else {
+                    if (c == '"') {
+                        quoted = !quoted;
+                    }
+                    current.append(c);
+                }
+            }
+        }
+        emit(current, entry);
+    }
+
+    private static void emit(StringBuilder current, Consumer<String> entry) {
+        if (current.length() == 0) {
+            return;
+        }
+        String text = current.toString().trim();
+        current.setLength(0);
+        if (!text.isEmpty()) {
+            entry.accept(text);
+        }
+    }
+
+    /**
+     * Replace the entries with those read from the text, returning what changed. Duplicates count
+     * once.
+     */
+    public Delta load(Reader reader) throws IOException {
+        Set<String> loaded = new LinkedHashSet<>();
+        parse(reader, text -> {
+            String standardized = standardizer.apply(text);
+            if (!standardized.isEmpty()) {
+                loaded.add(standardized);
+            }
+        });
+        return replace(loaded);
+    }
+
+    /**
+     * Drop every entry, returning them as removed
+     */
+    public Delta clear() {
+        return replace(Collections.emptySet());
+    }
+
+    private Delta replace(Set<String> loaded) {
+        List<String> added = new ArrayList<>();
+        for (String text : loaded) {
+            if (!entries.contains(text)) {
+                added.add(text);
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        for (String text : entries) {
+            if (!loaded.contains(text)) {
+                removed.add(text);
+            }
+        }
+        entries = loaded;
+        return new Delta(Collections.unmodifiableList(new ArrayList<>(loaded)), added, removed);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,171 @@
+package com.inventoryhighlighter.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import javax.inject.Singleton;
+
+/**
+ * Keeps the overlays within a per-frame time budget by stepping the highlight style down a level
+ * at a time: sprite fill and outline, outline-only sprites, plain clickboxes, and finally only the
+ * hovered item. The overlays report how long each item took; the cost is summed per frame and
+ * smoothed, so a single slow frame (a sprite being built, a bank opening) doesn't count.
+ * <p>
+ * Hysteresis keeps the level from flapping: it drops after a sustained run of frames over the budget
+ * but only comes back up after a much longer run below half of it. If frames get expensive again
+ * shortly after recovering, the next recovery waits twice as long.
+ * <p>
+ * Client thread only, like the overlays.
+ */
+@Slf4j
+@Singleton
+public class QualityController {
+    public enum Level {
+        FULL("sprite fill and outline"),
+        SPRITE_OUTLINE("sprite outline"),
+        CLICKBOX("clickbox outline"),
+        HOVER_ONLY("hovered item only");
+
+        private final String description;
+
+        Level(String description) {
+            this.description = description;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    // Frames over the budget before stepping down, about half a second
+    static final int DEGRADE_FRAMES = 25;
+    // Frames below half the budget before stepping back up, about five seconds
+    static final int RECOVER_FRAMES = 250;
+    private static final int MAX_BACKOFF = 16;
+
+    // Frame cost smoothing, as a shift: each frame moves the average 1/8 of the way
+    private static final int SMOOTHING_SHIFT = 3;
+
+    private boolean enabled = false;
+    private long budgetNanos = 1_000_000;
+
+    private volatile Level level = Level.FULL;
+    private long frameNanos = 0;
+    private long averageNanos = 0;
+    private int overBudgetFrames = 0;
+    private int underBudgetFrames = 0;
+    private int backoff = 1;
+    private long frame = 0;
+    private long lastRecoveryFrame = Long.MIN_VALUE / 2;
+
+    private volatile long degrades = 0;
+    private volatile long recoveries = 0;
+
+    /**
+     * Set by the plugin from the config; disabling returns to full quality
+     */
+    public void configure(boolean enabled, int budgetMicros) {
+        this.enabled = enabled;
+        this.budgetNanos = Math.max(1, budgetMicros) * 1000L;
+        if (!enabled && level != Level.FULL) {
+            log.debug("Adaptive quality off, back to {}", Level.FULL);
+            reset();
+        }
+    }
+
+    /**
+     * Whether the level adapts; while it doesn't, the overlays needn't time their items
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Add the time spent highlighting one item to the current frame
+     */
+    public void record(long nanos) {
+        frameNanos += nanos;
+    }
+
+    /**
+     * Close the current frame and adjust the level. Call once per frame, before rendering.
+     */
+    public void endFrame() {
+        long cost = frameNanos;
+        frameNanos = 0;
+        frame++;
+        if (!enabled) {
+            return;
+        }
+
+        averageNanos += (cost - averageNanos) >> SMOOTHING_SHIFT;
+
+        if (averageNanos > budgetNanos) {
+            underBudgetFrames = 0;
+            if (++overBudgetFrames >= DEGRADE_FRAMES && level != Level.HOVER_ONLY) {
+                // Frames got expensive again soon after a recovery; be slower to try next time
+                if (frame - lastRecoveryFrame < (long) RECOVER_FRAMES * backoff * 2) {
+                    backoff = Math.min(MAX_BACKOFF, backoff * 2);
+                }
+                step(Level.values()[level.ordinal() + 1]);
+                degrades++;
+            }
+        } else if (averageNanos < budgetNanos / 2) {
+            overBudgetFrames = 0;
+            if (++underBudgetFrames >= RECOVER_FRAMES * backoff && level != Level.FULL) {
+                step(Level.values()[level.ordinal() - 1]);
+                lastRecoveryFrame = frame;
+                recoveries++;
+            }
+        } else {
+            overBudgetFrames = 0;
+            underBudgetFrames = 0;
+        }
+
+        // Long stable stretches at full quality earn the backoff back
+        if (level == Level.FULL && underBudgetFrames >= RECOVER_FRAMES * MAX_BACKOFF) {
+            backoff = 1;
+        }
+    }
+
+    private void step(Level next) {
+        log.debug("Highlight quality {} -> {} ({} us/frame, budget {} us)", level, next,
+            averageNanos / 1000, budgetNanos / 1000);
+        level = next;
+        overBudgetFrames = 0;
+        underBudgetFrames = 0;
+    }
+
+    private void reset() {
+        level = Level.FULL;
+        averageNanos = 0;
+        overBudgetFrames = 0;
+        underBudgetFrames = 0;
+        backoff = 1;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Whether only the hovered item should be highlighted
+     */
+    public boolean isHoverOnly() {
+        return level == Level.HOVER_ONLY;
+    }
+
+    /**
+     * Smoothed highlighting cost per frame
+     */
+    public long getAverageFrameNanos() {
+        return averageNanos;
+    }
+
+    public long getDegrades() {
+        return degrades;
+    }
+
+    public long getRecoveries() {
+        return recoveries;
+    }
+}
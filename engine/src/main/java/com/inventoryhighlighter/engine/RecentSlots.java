@@ -0,0 +1,78 @@
+package com.inventoryhighlighter.engine;
+
+import java.util.Arrays;
+
+/**
+ * Slots of one container that recently gained items, each fading out over a number of game ticks.
+ * Arrivals are read straight from a {@link ContainerSlots} diff, and both recording and ticking visit
+ * only the slots involved: the ones that just changed, and the few still fading. The arrays only
+ * grow, so once they fit the container neither allocates.
+ * <p>
+ * Not thread safe; owned by the thread that delivers container changes.
+ */
+public final class RecentSlots {
+    // Per slot, the game ticks left in its fade, 0 if it isn't fading
+    private int[] remaining = new int[0];
+    // The fading slots, in no particular order
+    private int[] fading = new int[16];
+    private int fadingCount = 0;
+
+    /**
+     * Start a fade of {@code ticks} game ticks on every slot the last update of the container gave
+     * an item the container now holds more of. A slot already fading starts over; items that were
+     * only swapped or moved between slots don't count.
+     */
+    public void record(ContainerSlots slots, int ticks) {
+        if (remaining.length < slots.getSize()) {
+            remaining = Arrays.copyOf(remaining, slots.getSize());
+        }
+
+        for (int i = 0; i < slots.getChangedCount(); i++) {
+            int slot = slots.getChangedSlot(i);
+            if (slots.getItemId(slot) <= 0 || slots.getChangedGain(i) <= 0) {
+                continue;
+            }
+            if (remaining[slot] == 0) {
+                if (fadingCount == fading.length) {
+                    fading = Arrays.copyOf(fading, fadingCount * 2);
+                }
+                fading[fadingCount++] = slot;
+            }
+            remaining[slot] = ticks;
+        }
+    }
+
+    /**
+     * Advance every fade by a game tick, dropping the slots that faded out
+     */
+    public void tick() {
+        for (int i = 0; i < fadingCount; i++) {
+            int slot = fading[i];
+            if (--remaining[slot] <= 0) {
+                remaining[slot] = 0;
+                fading[i--] = fading[--fadingCount];
+            }
+        }
+    }
+
+    /**
+     * Game ticks left in the slot's fade, 0 if it isn't fading
+     */
+    public int getRemaining(int slot) {
+        return slot >= 0 && slot < remaining.length ? remaining[slot] : 0;
+    }
+
+    /**
+     * Number of slots still fading
+     */
+    public int getFadingCount() {
+        return fadingCount;
+    }
+
+    public void clear() {
+        for (int i = 0; i < fadingCount; i++) {
+            remaining[fading[i]] = 0;
+        }
+        fadingCount = 0;
+    }
+}
@@ -0,0 +1,281 @@
+package com.inventoryhighlighter.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import javax.inject.Singleton;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Error handling for the render path. A highlight that throws does so on every frame, so failures
+ * are aggregated per item and cause instead of logged as they happen: the first of each cause is
+ * logged with its stack trace, the rest are counted and summarized once per {@link #LOG_INTERVAL_MS}.
+ * <p>
+ * Each failing item also gets a circuit breaker. After {@link #TRIP_FAILURES} failures in a row the
+ * item is skipped for a cooldown, then tried once more; a success closes the breaker, another failure
+ * skips it again for twice as long.
+ * <p>
+ * Client thread only, like the overlays. Items that never fail cost one emptiness check. Each
+ * summary forgets the items that haven't failed since the last one and aren't being skipped, so
+ * items that failed once and were never drawn again don't stay tracked.
+ */
+@Slf4j
+@Singleton
+public class RenderErrors {
+    static final long LOG_INTERVAL_MS = 10_000;
+    static final int TRIP_FAILURES = 3;
+    static final long COOLDOWN_MS = 5_000;
+    private static final long MAX_COOLDOWN_MS = 300_000;
+
+    // Failing items tracked at once; failures beyond are only counted
+    private static final int MAX_ITEMS = 256;
+
+    // Open addressed by item id, a null breaker marking a free entry; at most half full
+    private final int[] itemIds = new int[MAX_ITEMS * 2];
+    private final Breaker[] breakers = new Breaker[MAX_ITEMS * 2];
+    private int size = 0;
+    private int open = 0;
+    private long lastLog = 0;
+
+    private long failures = 0;
+    private long suppressed = 0;
+    private long skipped = 0;
+    private long trips = 0;
+
+    private static final class Breaker {
+        private final int itemId;
+        // Failures since the last summary, per cause
+        private final Map<String, Failure> causes = new LinkedHashMap<>();
+        private int consecutive = 0;
+        // Failures since the last summary, of any cause
+        private int recent = 0;
+        private long cooldown = COOLDOWN_MS;
+        private long openUntil = 0;
+        private boolean retrying = false;
+
+        Breaker(int itemId) {
+            this.itemId = itemId;
+        }
+    }
+
+    private static final class Failure {
+        private final String message;
+        private int count = 0;
+
+        Failure(String message) {
+            this.message = message;
+        }
+    }
+
+    /**
+     * Whether the item's breaker is open, so it shouldn't be highlighted this frame
+     */
+    public boolean isTripped(int itemId) {
+        return open > 0 && isTripped(itemId, System.currentTimeMillis());
+    }
+
+    boolean isTripped(int itemId, long now) {
+        Breaker breaker = get(itemId);
+        if (breaker == null || breaker.openUntil == 0) {
+            return false;
+        }
+        if (now < breaker.openUntil) {
+            skipped++;
+            return true;
+        }
+
+        // Cooldown over; let one attempt through
+        breaker.openUntil = 0;
+        breaker.retrying = true;
+        open--;
+        return false;
+    }
+
+    /**
+     * Record a highlight drawn without error, closing the item's breaker
+     */
+    public void succeeded(int itemId) {
+        if (size == 0) {
+            return;
+        }
+        Breaker breaker = get(itemId);
+        if (breaker != null) {
+            breaker.consecutive = 0;
+            if (breaker.retrying) {
+                breaker.retrying = false;
+                breaker.cooldown = COOLDOWN_MS;
+                log.debug("Highlighting item {} works again", itemId);
+            }
+        }
+    }
+
+    /**
+     * Record a failed highlight
+     */
+    public void failed(int itemId, Exception e) {
+        failed(itemId, e, System.currentTimeMillis());
+    }
+
+    void failed(int itemId, Exception e, long now) {
+        failures++;
+        Breaker breaker = get(itemId);
+        if (breaker == null) {
+            if (size >= MAX_ITEMS) {
+                suppressed++;
+                return;
+            }
+            breaker = new Breaker(itemId);
+            put(breaker);
+        }
+        breaker.recent++;
+
+        String cause = causeOf(e);
+        Failure failure = breaker.causes.get(cause);
+        if (failure == null) {
+            breaker.causes.put(cause, new Failure(e.getMessage()));
+            log.warn("Error highlighting item {}: {}", itemId, e.getMessage(), e);
+        } else {
+            failure.count++;
+            suppressed++;
+        }
+
+        breaker.consecutive++;
+        if (breaker.retrying || breaker.consecutive >= TRIP_FAILURES) {
+            if (breaker.retrying) {
+                breaker.cooldown = Math.min(MAX_COOLDOWN_MS, breaker.cooldown * 2);
+            }
+            breaker.retrying = false;
+            breaker.consecutive = 0;
+            if (breaker.openUntil == 0) {
+                open++;
+            }
+            breaker.openUntil = now + breaker.cooldown;
+            trips++;
+        }
+
+        flush(now);
+    }
+
+    /**
+     * Log the failures counted since the last summary, once the interval has passed
+     */
+    public void flush() {
+        flush(System.currentTimeMillis());
+    }
+
+    void flush(long now) {
+        if (size == 0 || now - lastLog < LOG_INTERVAL_MS) {
+            return;
+        }
+        lastLog = now;
+
+        Breaker[] tracked = new Breaker[size];
+        int count = 0;
+        for (Breaker breaker : breakers) {
+            if (breaker != null) {
+                tracked[count++] = breaker;
+            }
+        }
+        Arrays.fill(breakers, null);
+        size = 0;
+        open = 0;
+
+        for (Breaker breaker : tracked) {
+            for (Map.Entry<String, Failure> entry : breaker.causes.entrySet()) {
+                Failure failure = entry.getValue();
+                if (failure.count > 0) {
+                    log.warn("Error highlighting item {} {} more times in the last {}s: {} ({}){}", breaker.itemId,
+                        failure.count, LOG_INTERVAL_MS / 1000, entry.getKey(), failure.message,
+                        breaker.openUntil > now ? ", skipped for " + (breaker.openUntil - now) / 1000 + "s" : "");
+                    failure.count = 0;
+                }
+            }
+
+            // A cooldown that ran out while the item wasn't drawn lets the next attempt through
+            if (breaker.openUntil != 0 && now >= breaker.openUntil) {
+                breaker.openUntil = 0;
+                breaker.retrying = true;
+            }
+
+            // Items that recovered, or stopped failing because they aren't drawn any more, are
+            // forgotten, so a new failure is logged in full again
+            if (breaker.openUntil == 0 && breaker.recent == 0) {
+                continue;
+            }
+            breaker.recent = 0;
+            if (breaker.openUntil != 0) {
+                open++;
+            }
+            put(breaker);
+        }
+    }
+
+    private Breaker get(int itemId) {
+        for (int index = indexOf(itemId); ; index = (index + 1) & (breakers.length - 1)) {
+            Breaker breaker = breakers[index];
+            if (breaker == null || itemIds[index] == itemId) {
+                return breaker;
+            }
+        }
+    }
+
+    private void put(Breaker breaker) {
+        int index = indexOf(breaker.itemId);
+        while (breakers[index] != null) {
+            index = (index + 1) & (breakers.length - 1);
+        }
+        itemIds[index] = breaker.itemId;
+        breakers[index] = breaker;
+        size++;
+    }
+
+    private int indexOf(int itemId) {
+        return (itemId * 0x9E3779B9) >>> 16 & (breakers.length - 1);
+    }
+
+    /**
+     * Exception type and where it was thrown, so the same bug on different frames counts as one cause
+     */
+    private static String causeOf(Exception e) {
+        StackTraceElement[] trace = e.getStackTrace();
+        String cause = e.getClass().getSimpleName();
+        return trace.length == 0 ? cause
+            : cause + " at " + trace[0].getClassName() + "." + trace[0].getMethodName() + ":" + trace[0].getLineNumber();
+    }
+
+    /**
+     * Items with a breaker, failing or skipped
+     */
+    int getTrackedCount() {
+        return size;
+    }
+
+    /**
+     * Items currently skipped
+     */
+    public int getOpenCount() {
+        return open;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Failures counted into a summary rather than logged with a stack trace
+     */
+    public long getSuppressed() {
+        return suppressed;
+    }
+
+    /**
+     * Highlights skipped because the item's breaker was open
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getTrips() {
+        return trips;
+    }
+}
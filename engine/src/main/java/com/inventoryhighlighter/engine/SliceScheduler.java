@@ -0,0 +1,15 @@
+package com.inventoryhighlighter.engine;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs work in slices on the thread that owns the engine's state, once per tick of that thread,
+ * so long jobs never stall a single frame. In the client this is the client thread.
+ */
+@FunctionalInterface
+public interface SliceScheduler {
+    /**
+     * Run the slice on a later tick, and again on each tick after until it returns true
+     */
+    void schedule(BooleanSupplier slice);
+}
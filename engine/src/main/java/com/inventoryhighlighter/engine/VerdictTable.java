@@ -0,0 +1,82 @@
+package com.inventoryhighlighter.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Match verdicts keyed directly by item id. Each entry is one byte: 0 for unknown, 1 for no match,
+ * and 2 + group index for a match, so {@code value - 2} decodes straight to the verdict.
+ * <p>
+ * Entries are written once and never change, so the table needs no locks: pages are allocated on
+ * first use and installed with a compare-and-set, and each entry goes from unknown to its verdict
+ * with a compare-and-set as well. A reader may briefly see a stale unknown and classify again, which
+ * yields the same verdict. Invalidation never clears a table in place; the owner swaps in a new one.
+ * <p>
+ * The table covers ids up to {@link #MAX_CAPACITY}, which is every item id in the game; ids past
+ * that are never cached and get classified each time instead.
+ */
+public final class VerdictTable {
+    public static final int UNKNOWN = -2;
+
+    public static final int MAX_CAPACITY = 1 << 17;
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final VarHandle ENTRY = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final AtomicReferenceArray<byte[]> pages = new AtomicReferenceArray<>(MAX_CAPACITY >> PAGE_BITS);
+    private final AtomicInteger pageCount = new AtomicInteger();
+    private final AtomicInteger matched = new AtomicInteger();
+    private final AtomicInteger known = new AtomicInteger();
+
+    /**
+     * The cached verdict: a group index, {@link ItemMatcher#NO_MATCH} or {@link #UNKNOWN}
+     */
+    public int get(int itemId) {
+        if (itemId < 0 || itemId >= MAX_CAPACITY) {
+            return UNKNOWN;
+        }
+        byte[] page = pages.get(itemId >>> PAGE_BITS);
+        return page == null ? UNKNOWN : page[itemId & PAGE_MASK] - 2;
+    }
+
+    /**
+     * Record the verdict for an item, unless one is already recorded
+     */
+    public void put(int itemId, int group) {
+        if (itemId < 0 || itemId >= MAX_CAPACITY) {
+            return;
+        }
+
+        int index = itemId >>> PAGE_BITS;
+        byte[] page = pages.get(index);
+        if (page == null) {
+            if (pages.compareAndSet(index, null, new byte[PAGE_SIZE])) {
+                pageCount.incrementAndGet();
+            }
+            page = pages.get(index);
+        }
+
+        if (ENTRY.compareAndSet(page, itemId & PAGE_MASK, (byte) 0, (byte) (group + 2))) {
+            known.incrementAndGet();
+            if (group >= 0) {
+                matched.incrementAndGet();
+            }
+        }
+    }
+
+    public int getMatchedCount() {
+        return matched.get();
+    }
+
+    public int getKnownCount() {
+        return known.get();
+    }
+
+    public int getFootprintBytes() {
+        return pageCount.get() * PAGE_SIZE;
+    }
+}
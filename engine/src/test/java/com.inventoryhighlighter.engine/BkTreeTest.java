@@ -0,0 +1,60 @@
+package com.inventoryhighlighter.engine;
+
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+
+public class BkTreeTest {
+    @Test
+    public void editDistance() {
+        assertEquals(0, BkTree.distance("lobster", "lobster"));
+        assertEquals(1, BkTree.distance("lobstr", "lobster"));
+        assertEquals(1, BkTree.distance("lobster", "lobstar"));
+        assertEquals(2, BkTree.distance("shark", "shakr"));
+        assertEquals(3, BkTree.distance("", "tea"));
+        assertEquals(3, BkTree.distance("kitten", "sitting"));
+    }
+
+    @Test
+    public void searchFindsWhatAScanFinds() {
+        NamedItems items = new NamedItems(3000);
+        BkTree tree = new BkTree();
+        List<String> names = new ArrayList<>();
+        for (int id = 1; id <= items.size(); id++) {
+            tree.add(items.nameOf(id));
+            names.add(items.nameOf(id));
+        }
+        // Adding a name twice keeps one
+        tree.add(items.nameOf(1));
+        assertEquals(names.stream().distinct().count(), tree.size());
+
+        Random random = new Random(48);
+        for (int i = 0; i < 200; i++) {
+            // A name with a typo or two
+            StringBuilder term = new StringBuilder(names.get(random.nextInt(names.size())));
+            for (int typo = random.nextInt(3); typo > 0 && term.length() > 1; typo--) {
+                int at = random.nextInt(term.length());
+                if (random.nextBoolean()) {
+                    term.deleteCharAt(at);
+                } else {
+                    term.setCharAt(at, (char) ('a' + random.nextInt(26)));
+                }
+            }
+            int maxDistance = 1 + random.nextInt(2);
+
+            List<String> expected = new ArrayList<>();
+            for (String name : names) {
+                if (BkTree.distance(term.toString(), name) <= maxDistance && !expected.contains(name)) {
+                    expected.add(name);
+                }
+            }
+            List<String> found = tree.search(term.toString(), maxDistance);
+            Collections.sort(expected);
+            Collections.sort(found);
+            assertEquals(term.toString(), expected, found);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.inventoryhighlighter.engine;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClassificationJobTest {
+    @Test
+    public void fullBankIsClassifiedAcrossTicks() {
+        NamedItems items = new NamedItems(1000);
+        items.setPatterns("rune*, *potion*, shark");
+        TickScheduler scheduler = new TickScheduler();
+        ClassificationJob job = new ClassificationJob(scheduler, items);
+
+        int[] bank = new int[1000];
+        for (int slot = 0; slot < bank.length; slot++) {
+            bank[slot] = slot + 1;
+        }
+        job.enqueue(bank, bank.length);
+        assertTrue(job.isPending());
+
+        int ticks = 0;
+        while (scheduler.hasPending()) {
+            scheduler.tick();
+            ticks++;
+        }
+
+        assertFalse(job.isPending());
+        assertEquals(ticks, job.getSlices());
+        for (int itemId : bank) {
+            assertTrue(items.getCachedVerdict(itemId) != VerdictTable.UNKNOWN);
+        }
+        assertEquals(0, items.getCachedVerdict(items.idOf("rune sword")));
+        assertEquals(ItemMatcher.NO_MATCH, items.getCachedVerdict(items.idOf("lobster")));
+    }
+
+    @Test
+    public void knownItemsAreNotQueued() {
+        NamedItems items = new NamedItems(200);
+        items.setPatterns("lobster");
+        TickScheduler scheduler = new TickScheduler();
+        ClassificationJob job = new ClassificationJob(scheduler, items);
+
+        int lobster = items.idOf("lobster");
+        items.classify(lobster);
+        job.enqueue(new int[]{lobster, -1}, 2);
+
+        assertFalse(job.isPending());
+        assertFalse(scheduler.hasPending());
+    }
+}
@@ -0,0 +1,103 @@
+package com.inventoryhighlighter.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * The shared matching structures used from several threads at once. Each has to give the answers it
+ * would give on one thread.
+ */
+public class ConcurrencyStressTest {
+    private static final int READERS = 4;
+
+    @Test
+    public void automatonBuiltConcurrentlyMatchesSequentialResults() throws Exception {
+        NamedItems items = new NamedItems(500);
+        List<String> globs = new ArrayList<>();
+        for (String glob : new String[]{"*potion*", "*(4)", "rune*", "*bones", "*o*a*", "dragon ?a*", "*logs*"}) {
+            globs.add(glob);
+        }
+        long[] bits = new long[globs.size()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = 1L << i;
+        }
+
+        List<String> names = new ArrayList<>();
+        for (int id = 1; id <= items.size(); id++) {
+            names.add(items.nameOf(id));
+        }
+        GlobAutomaton sequential = new GlobAutomaton(globs, bits);
+        long[] expected = new long[names.size()];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = sequential.match(names.get(i));
+        }
+
+        for (int round = 0; round < 20; round++) {
+            GlobAutomaton shared = new GlobAutomaton(globs, bits);
+            AtomicReference<String> failure = new AtomicReference<>();
+            CountDownLatch go = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < READERS; t++) {
+                int offset = t * 37;
+                Thread thread = new Thread(() -> {
+                    try {
+                        go.await();
+                        for (int i = 0; i < names.size(); i++) {
+                            int index = (i + offset) % names.size();
+                            if (shared.match(names.get(index)) != expected[index]) {
+                                failure.compareAndSet(null, names.get(index));
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            go.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertNull(failure.get());
+        }
+    }
+
+    @Test
+    public void verdictTableCountsEachItemOnce() throws Exception {
+        VerdictTable verdicts = new VerdictTable();
+        int ids = 20000;
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch go = new CountDownLatch(1);
+        for (int t = 0; t < READERS; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int id = 0; id < ids; id++) {
+                    verdicts.put(id, id % 3 == 0 ? 0 : ItemMatcher.NO_MATCH);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        go.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(ids, verdicts.getKnownCount());
+        assertEquals((ids + 2) / 3, verdicts.getMatchedCount());
+        for (int id = 0; id < ids; id++) {
+            assertEquals(id % 3 == 0 ? 0 : ItemMatcher.NO_MATCH, verdicts.get(id));
+        }
+    }
+}
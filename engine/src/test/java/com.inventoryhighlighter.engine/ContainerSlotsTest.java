@@ -0,0 +1,89 @@
+package com.inventoryhighlighter.engine;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ContainerSlotsTest {
+    private static int update(ContainerSlots slots, int... idsAndQuantities) {
+        int length = idsAndQuantities.length / 2;
+        int[] ids = new int[length];
+        int[] quantities = new int[length];
+        for (int slot = 0; slot < length; slot++) {
+            ids[slot] = idsAndQuantities[slot * 2];
+            quantities[slot] = idsAndQuantities[slot * 2 + 1];
+        }
+        return slots.update(ids, quantities, length);
+    }
+
+    @Test
+    public void onlyChangedSlotsAreReported() {
+        ContainerSlots slots = new ContainerSlots();
+        assertEquals(3, update(slots, 379, 1, 385, 1, -1, 0));
+        assertEquals(0, update(slots, 379, 1, 385, 1, -1, 0));
+
+        // A new id is passed on for classification; a new quantity is not
+        assertEquals(2, update(slots, 379, 4, 995, 1, -1, 0));
+        assertEquals(0, slots.getChangedSlot(0));
+        assertEquals(0, slots.getChangedIds()[0]);
+        assertEquals(1, slots.getChangedSlot(1));
+        assertEquals(995, slots.getChangedIds()[1]);
+        assertEquals(4, slots.getQuantity(0));
+        // Each change carries what the container gained of the slot's item
+        assertEquals(3, slots.getChangedGain(0));
+        assertEquals(1, slots.getChangedGain(1));
+
+        update(slots, 379, 2, 995, 1);
+        assertEquals(-2, slots.getChangedGain(0));
+    }
+
+    @Test
+    public void swapsAndMovesGainNothing() {
+        ContainerSlots slots = new ContainerSlots();
+        update(slots, 379, 1, 385, 5, -1, 0);
+
+        assertEquals(2, update(slots, 385, 5, 379, 1, -1, 0));
+        assertEquals(0, slots.getChangedGain(0));
+        assertEquals(0, slots.getChangedGain(1));
+
+        assertEquals(2, update(slots, -1, 0, 379, 1, 385, 5));
+        assertEquals(0, slots.getChangedGain(0));
+        assertEquals(0, slots.getChangedGain(1));
+
+        // Moved and topped up: the item gained, wherever it went
+        assertEquals(2, update(slots, 385, 7, 379, 1, -1, 0));
+        assertEquals(2, slots.getChangedGain(0));
+        assertEquals(2, slots.getChangedSlot(1));
+        assertEquals(2, slots.getChangedGain(1));
+    }
+
+    @Test
+    public void shrinkingEmptiesTrailingSlots() {
+        ContainerSlots slots = new ContainerSlots();
+        update(slots, 379, 1, 385, 1, 995, 100);
+        assertEquals(2, update(slots, 379, 1));
+
+        assertEquals(1, slots.getSize());
+        assertEquals(1, slots.getChangedSlot(0));
+        assertEquals(2, slots.getChangedSlot(1));
+        assertEquals(-1, slots.getItemId(1));
+        assertEquals(0, slots.getQuantity(2));
+    }
+
+    @Test
+    public void steadyUpdatesReuseTheirArrays() {
+        ContainerSlots slots = new ContainerSlots();
+        int[] ids = new int[800];
+        int[] quantities = new int[800];
+        slots.update(ids, quantities, ids.length);
+        int[] itemIds = slots.getItemIds();
+        int[] changedIds = slots.getChangedIds();
+
+        for (int round = 1; round <= 10; round++) {
+            ids[round] = round;
+            assertEquals(1, slots.update(ids, quantities, ids.length));
+        }
+        assertSame(itemIds, slots.getItemIds());
+        assertSame(changedIds, slots.getChangedIds());
+    }
+}
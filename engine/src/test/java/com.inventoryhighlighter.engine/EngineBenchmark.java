@@ -0,0 +1,153 @@
+package com.inventoryhighlighter.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Throughput of the engine without the client: compiling pattern sets, matching names against them
+ * cold and warm, and diffing bank-sized containers. Every pass runs once unmeasured to warm up.
+ *
+ * <pre>
+ * ./gradlew :engine:benchmark
+ * ./gradlew :engine:benchmark -PbenchmarkArgs="--patterns 5000 --items 20000 --rounds 50"
+ * </pre>
+ */
+public class EngineBenchmark {
+    private static final int BANK_SLOTS = 1200;
+
+    public static void main(String[] args) {
+        int patterns = 1000;
+        int itemCount = 10000;
+        int rounds = 20;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--patterns":
+                    patterns = Integer.parseInt(args[++i]);
+                    break;
+                case "--items":
+                    itemCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--rounds":
+                    rounds = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        NamedItems items = new NamedItems(itemCount);
+        List<List<String>> groups = patternGroups(patterns, new Random(46));
+        String[] names = new String[itemCount];
+        for (int id = 1; id <= itemCount; id++) {
+            names[id - 1] = items.nameOf(id);
+        }
+
+        System.out.println(String.format("%-8s %10s %12s %10s", "pass", "ops", "ns/op", "states"));
+        compile(null, groups, rounds);
+        compile("compile", groups, rounds);
+        match(null, groups, names, rounds);
+        match("match", groups, names, rounds);
+        diff(null, rounds * 100);
+        diff("diff", rounds * 100);
+    }
+
+    /**
+     * Patterns of every kind, spread over a few groups: substrings, globs, exact names and ids
+     */
+    private static List<List<String>> patternGroups(int count, Random random) {
+        List<List<String>> groups = new ArrayList<>();
+        for (int group = 0; group < 8; group++) {
+            groups.add(new ArrayList<>());
+        }
+        for (int i = 0; i < count; i++) {
+            List<String> group = groups.get(random.nextInt(groups.size()));
+            switch (i % 4) {
+                case 0:
+                    group.add("item " + i);
+                    break;
+                case 1:
+                    group.add("*item " + i + "?");
+                    break;
+                case 2:
+                    group.add("=filler item " + i);
+                    break;
+                default:
+                    group.add("#" + i);
+                    break;
+            }
+        }
+        groups.get(0).add("rune*");
+        groups.get(1).add("*potion(?)");
+        return groups;
+    }
+
+    private static void compile(String label, List<List<String>> groups, int rounds) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            sink += ItemMatcher.compile(groups).size();
+        }
+        report(label, rounds, System.nanoTime() - start, 0, sink);
+    }
+
+    /**
+     * Each round matches every name with a fresh matcher, so the automaton is built as it goes,
+     * then again with the built one
+     */
+    private static void match(String label, List<List<String>> groups, String[] names, int rounds) {
+        long sink = 0;
+        long cold = 0;
+        long warm = 0;
+        ItemMatcher matcher = null;
+        for (int round = 0; round < rounds; round++) {
+            matcher = ItemMatcher.compile(groups);
+            long start = System.nanoTime();
+            for (int i = 0; i < names.length; i++) {
+                sink += matcher.match(i + 1, names[i]);
+            }
+            cold += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < names.length; i++) {
+                sink += matcher.match(i + 1, names[i]);
+            }
+            warm += System.nanoTime() - start;
+        }
+        report(label == null ? null : label + "-c", (long) rounds * names.length, cold, matcher.getStateCount(), sink);
+        report(label == null ? null : label + "-w", (long) rounds * names.length, warm, matcher.getStateCount(), sink);
+    }
+
+    /**
+     * A full bank where a few slots change between updates, as when withdrawing and depositing
+     */
+    private static void diff(String label, int updates) {
+        ContainerSlots slots = new ContainerSlots();
+        Random random = new Random(46);
+        int[] ids = new int[BANK_SLOTS];
+        int[] quantities = new int[BANK_SLOTS];
+        for (int slot = 0; slot < BANK_SLOTS; slot++) {
+            ids[slot] = 1 + random.nextInt(20000);
+            quantities[slot] = 1 + random.nextInt(100);
+        }
+        slots.update(ids, quantities, BANK_SLOTS);
+
+        long changed = 0;
+        long start = System.nanoTime();
+        for (int update = 0; update < updates; update++) {
+            quantities[random.nextInt(BANK_SLOTS)]++;
+            ids[random.nextInt(BANK_SLOTS)] = 1 + random.nextInt(20000);
+            changed += slots.update(ids, quantities, BANK_SLOTS);
+        }
+        report(label, (long) updates * BANK_SLOTS, System.nanoTime() - start, 0, changed);
+    }
+
+    private static void report(String label, long ops, long nanos, int states, long sink) {
+        if (label != null) {
+            System.out.println(String.format("%-8s %10d %12.1f %10d", label, ops, (double) nanos / ops, states));
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.inventoryhighlighter.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ItemMatcherTest {
+    /**
+     * Compile the main list and one group per line of {@code name: patterns}, standardized the way
+     * the plugin's config parsing leaves them
+     */
+    private static ItemMatcher compile(String itemList, String groupConfig) {
+        List<List<String>> groups = new ArrayList<>();
+        groups.add(patterns(itemList));
+        for (String line : groupConfig.split("\n")) {
+            if (!line.isEmpty()) {
+                groups.add(patterns(line.substring(line.indexOf(':') + 1)));
+            }
+        }
+        return ItemMatcher.compile(groups);
+    }
+
+    private static List<String> patterns(String list) {
+        List<String> patterns = new ArrayList<>();
+        for (String pattern : list.split(",")) {
+            pattern = pattern.toLowerCase().trim();
+            if (!pattern.isEmpty()) {
+                patterns.add(pattern);
+            }
+        }
+        return patterns;
+    }
+
+    @Test
+    public void substringAndPrefixPatterns() {
+        ItemMatcher matcher = compile("Coins, rune*", "");
+        assertEquals(0, matcher.match("coins"));
+        assertEquals(0, matcher.match("rune scimitar"));
+        assertEquals(ItemMatcher.NO_MATCH, matcher.match("dragon rune"));
+    }
+
+    @Test
+    public void exactNamesAndIds() {
+        ItemMatcher matcher = compile("=lobster, \"Shark\", #995", "Fish: *fish");
+        assertEquals(0, matcher.match("lobster"));
+        assertEquals(0, matcher.match("shark"));
+        assertEquals(ItemMatcher.NO_MATCH, matcher.match("lobster pot"));
+        assertEquals(ItemMatcher.NO_MATCH, matcher.match("coins"));
+        assertEquals(1, matcher.match("swordfish"));
+
+        assertEquals(ItemMatcher.NEEDS_NAME, matcher.matchId(996));
+        assertEquals(0, matcher.matchId(995));
+        assertEquals(0, matcher.match(995, "coins"));
+    }
+
+    @Test
+    public void idVerdictWaitsForEarlierNamePatterns() {
+        ItemMatcher matcher = compile("lobster", "Exact: =lobster\nCoins: #995");
+        assertEquals(0, matcher.match("lobster"));
+        assertEquals(ItemMatcher.NEEDS_NAME, matcher.matchId(995));
+        assertEquals(2, matcher.match(995, "coins"));
+
+        assertEquals(0, compile("#995", "").matchId(995));
+        assertEquals(ItemMatcher.NO_MATCH, compile("#995", "").matchId(996));
+    }
+
+    @Test
+    public void globs() {
+        ItemMatcher matcher = compile("*potion*, *(4), rune * bolts, d?agon dagger", "");
+        assertEquals(0, matcher.match("prayer potion(2)"));
+        assertEquals(0, matcher.match("super restore(4)"));
+        assertEquals(ItemMatcher.NO_MATCH, matcher.match("super restore(3)"));
+        assertEquals(0, matcher.match("rune broad bolts"));
+        assertEquals(ItemMatcher.NO_MATCH, matcher.match("rune bolts (e)"));
+        assertEquals(0, matcher.match("dragon dagger"));
+        assertEquals(ItemMatcher.NO_MATCH, matcher.match("dragon dagger(p++)"));
+    }
+
+    @Test
+    public void exclusionsFallThroughToLaterGroups() {
+        ItemMatcher matcher = compile("*potion*, !*(1), !=antifire potion(4)", "Doses: *(1)\nAll: *");
+        assertEquals(0, matcher.match("prayer potion(4)"));
+        assertEquals(1, matcher.match("prayer potion(1)"));
+        assertEquals(2, matcher.match("antifire potion(4)"));
+        assertEquals(2, matcher.match("lobster"));
+
+        // An id match can still be excluded by name
+        ItemMatcher ids = compile("#995, !coins", "");
+        assertEquals(ItemMatcher.NEEDS_NAME, ids.matchId(995));
+        assertEquals(ItemMatcher.NO_MATCH, ids.match(995, "coins"));
+    }
+
+    @Test
+    public void manyGlobsShareOneAutomaton() {
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            list.append("*item ").append(i).append("*, ");
+        }
+        list.append("*potion*");
+        ItemMatcher matcher = compile(list.toString(), "");
+        assertEquals(501, matcher.size());
+        assertEquals(0, matcher.match("filler item 123"));
+        assertEquals(0, matcher.match("magic potion(1)"));
+        assertEquals(ItemMatcher.NO_MATCH, matcher.match("lobster"));
+        assertTrue(matcher.getStateCount() < 200);
+    }
+
+    @Test
+    public void literalsFindOverlappingAndAnchoredMatches() {
+        // Each match sits inside a longer partial match, so only the failure links find it
+        ItemMatcher matcher = compile("shex", "Her: hers\nHe: he\nPrefix: rune*, ru*\nSuffix: *(4), *)");
+        assertEquals(1, matcher.match("ushers"));
+        assertEquals(2, matcher.match("shell"));
+        assertEquals(0, matcher.match("ashexa"));
+
+        assertEquals(3, matcher.match("rune arrow"));
+        assertEquals(3, matcher.match("ruby bolts"));
+        assertEquals(ItemMatcher.NO_MATCH, matcher.match("adamant arrow"));
+        assertEquals(ItemMatcher.NO_MATCH, matcher.match("crude"));
+        assertEquals(4, matcher.match("super strength(4)"));
+        assertEquals(4, matcher.match("trout (cooked)"));
+        assertEquals(ItemMatcher.NO_MATCH, matcher.match("super strength(4) note"));
+
+        assertEquals(3, matcher.match(1, "rune(4)", 0));
+        assertEquals(4, matcher.match(1, "rune(4)", 4));
+    }
+
+    @Test
+    public void literalExclusions() {
+        ItemMatcher matcher = compile("rune*, !*(noted)", "All: *");
+        assertEquals(0, matcher.match("rune platebody"));
+        assertEquals(1, matcher.match("rune platebody(noted)"));
+        assertTrue(matcher.matchesAny(1, matcher.nameBits("rune(noted) sword")));
+        assertTrue(matcher.matchesAny(1, matcher.nameBits("lobster")));
+
+        ItemMatcher ids = compile("#995, rune*", "");
+        assertTrue(ids.matchesAny(995, ids.nameBits("coins")));
+        assertFalse(ids.matchesAny(996, ids.nameBits("coins")));
+    }
+
+    @Test
+    public void largeListsStayLinear() {
+        StringBuilder list = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            list.append("item ").append(i).append(", ");
+        }
+        ItemMatcher matcher = compile(list.toString(), "");
+        assertEquals(10000, matcher.size());
+        assertEquals(0, matcher.match("filler item 9999"));
+        assertEquals(ItemMatcher.NO_MATCH, matcher.match("filler itme 1"));
+        assertTrue(matcher.getStateCount() <= 1);
+        // One trie node per distinct prefix: the root, "item ", then one per number below 10000
+        assertEquals(1 + 5 + 10000, matcher.getLiteralNodeCount());
+    }
+
+    @Test
+    public void groupsResolveInOrder() {
+        ItemMatcher matcher = compile("shark", "Food #00FF00: lobster, shark\nRunes: rune*");
+        assertEquals(0, matcher.match("shark"));
+        assertEquals(1, matcher.match("lobster"));
+        assertEquals(2, matcher.match("rune platebody"));
+        assertEquals(ItemMatcher.NO_MATCH, matcher.match("bronze sword"));
+    }
+}
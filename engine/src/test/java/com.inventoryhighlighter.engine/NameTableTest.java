@@ -0,0 +1,32 @@
+package com.inventoryhighlighter.engine;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class NameTableTest {
+    @Test
+    public void variantsShareOneName() {
+        NameTable names = new NameTable();
+        String lobster = names.put(379, "lobster");
+        assertSame(lobster, names.put(380, new String("lobster")));
+        // Recorded once
+        names.put(379, "shark");
+        assertEquals("lobster", names.get(379));
+        assertEquals(2, names.size());
+        assertEquals(1, names.getDistinctCount());
+    }
+
+    @Test
+    public void idsOutOfRangeAreNotIndexed() {
+        NameTable names = new NameTable();
+        names.put(379, "lobster");
+        assertSame(names.get(379), names.put(VerdictTable.MAX_CAPACITY, new String("lobster")));
+        assertEquals("dragon bones", names.put(-1, "dragon bones"));
+
+        assertNull(names.get(VerdictTable.MAX_CAPACITY));
+        assertEquals(1, names.size());
+        assertEquals(1, names.getDistinctCount());
+    }
+}
@@ -0,0 +1,98 @@
+package com.inventoryhighlighter.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link Classifier} over a generated catalog of item names, matched with an {@link ItemMatcher}
+ * and cached in a {@link VerdictTable} the way the plugin's classifier does, but without item lookups.
+ */
+class NamedItems implements Classifier {
+    private static final String[] MATERIALS = {"bronze", "iron", "steel", "mithril", "adamant", "rune", "dragon"};
+    private static final String[] ITEMS = {"sword", "dagger", "platebody", "full helm", "arrows", "bolts", "pickaxe"};
+    private static final String[] SUPPLIES = {"lobster", "shark", "swordfish", "prayer potion(4)", "prayer potion(1)",
+        "super restore(4)", "coins", "nature rune", "law rune", "big bones", "yew logs", "magic logs"};
+
+    private final String[] names;
+    private ItemMatcher matcher = ItemMatcher.EMPTY;
+    private VerdictTable verdicts = new VerdictTable();
+    private int classified = 0;
+
+    /**
+     * Ids 1 to count, named from a fixed list of materials, items and supplies, then numbered filler
+     */
+    NamedItems(int count) {
+        names = new String[count + 1];
+        int id = 1;
+        for (String material : MATERIALS) {
+            for (String item : ITEMS) {
+                if (id <= count) {
+                    names[id++] = material + " " + item;
+                }
+            }
+        }
+        for (String supply : SUPPLIES) {
+            if (id <= count) {
+                names[id++] = supply;
+            }
+        }
+        while (id <= count) {
+            names[id] = "filler item " + id;
+            id++;
+        }
+    }
+
+    /**
+     * Compile comma-separated, lower-case item lists, one per group, and drop every verdict
+     */
+    void setPatterns(String... groupLists) {
+        List<List<String>> groups = new ArrayList<>();
+        for (String list : groupLists) {
+            List<String> patterns = new ArrayList<>();
+            for (String pattern : list.split(",")) {
+                if (!pattern.trim().isEmpty()) {
+                    patterns.add(pattern.trim());
+                }
+            }
+            groups.add(patterns);
+        }
+        matcher = ItemMatcher.compile(groups);
+        verdicts = new VerdictTable();
+    }
+
+    String nameOf(int itemId) {
+        return names[itemId];
+    }
+
+    int idOf(String name) {
+        return Arrays.asList(names).indexOf(name);
+    }
+
+    int size() {
+        return names.length - 1;
+    }
+
+    @Override
+    public int classify(int itemId) {
+        int verdict = verdicts.get(itemId);
+        if (verdict == VerdictTable.UNKNOWN) {
+            classified++;
+            verdict = itemId > 0 && itemId < names.length ? matcher.match(itemId, names[itemId]) : ItemMatcher.NO_MATCH;
+            verdicts.put(itemId, verdict);
+        }
+        return verdict;
+    }
+
+    @Override
+    public int getCachedVerdict(int itemId) {
+        return verdicts.get(itemId);
+    }
+
+    /**
+     * Items matched against the patterns rather than read from the cache
+     */
+    int getClassified() {
+        return classified;
+    }
+}
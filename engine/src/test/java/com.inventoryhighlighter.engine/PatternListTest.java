@@ -0,0 +1,80 @@
+package com.inventoryhighlighter.engine;
+
+import org.junit.Test;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PatternListTest {
+    private static List<String> parse(String text) throws IOException {
+        List<String> entries = new ArrayList<>();
+        PatternList.parse(new StringReader(text), entries::add);
+        return entries;
+    }
+
+    @Test
+    public void splitsLinesAndCommas() throws IOException {
+        assertEquals(Arrays.asList("Lobster", "Shark", "rune*", "#995", "!*(1)"),
+            parse("\uFEFFLobster, Shark\r\n\n  rune*  \n#995,,!*(1)"));
+    }
+
+    @Test
+    public void quotesKeepCommas() throws IOException {
+        assertEquals(Arrays.asList("\"Tome of fire, empty\"", "=coins"),
+            parse("\"Tome of fire, empty\", =coins"));
+        // An unclosed quote stops at the end of its line
+        assertEquals(Arrays.asList("\"broken, line", "shark"), parse("\"broken, line\nshark"));
+    }
+
+    @Test
+    public void entriesSpanningReads() throws IOException {
+        // Hand out the text a few characters at a time, so entries straddle reads
+        String text = "dragon bones, big bones\nsuper restore(4)";
+        Reader trickle = new Reader() {
+            private int position = 0;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                if (position == text.length()) {
+                    return -1;
+                }
+                int count = Math.min(3, Math.min(length, text.length() - position));
+                text.getChars(position, position + count, buffer, offset);
+                position += count;
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        List<String> entries = new ArrayList<>();
+        PatternList.parse(trickle, entries::add);
+        assertEquals(Arrays.asList("dragon bones", "big bones", "super restore(4)"), entries);
+    }
+
+    @Test
+    public void reloadsReportAddedAndRemoved() throws IOException {
+        PatternList list = new PatternList(text -> text.toLowerCase().trim());
+        PatternList.Delta delta = list.load(new StringReader("Lobster\nShark\nshark"));
+        assertEquals(Arrays.asList("lobster", "shark"), delta.getAdded());
+        assertTrue(delta.getRemoved().isEmpty());
+        assertEquals(2, list.size());
+
+        delta = list.load(new StringReader("shark\nmanta ray"));
+        assertEquals(Arrays.asList("manta ray"), delta.getAdded());
+        assertEquals(Arrays.asList("lobster"), delta.getRemoved());
+        assertEquals(Arrays.asList("shark", "manta ray"), delta.getEntries());
+
+        assertTrue(list.load(new StringReader("manta ray, shark")).isEmpty());
+
+        delta = list.clear();
+        assertEquals(Arrays.asList("manta ray", "shark"), delta.getRemoved());
+        assertEquals(0, list.size());
+    }
+}
@@ -0,0 +1,68 @@
+package com.inventoryhighlighter.engine;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QualityControllerTest {
+    private static final int BUDGET_MICROS = 1000;
+
+    private static void frames(QualityController quality, int count, long nanos) {
+        for (int i = 0; i < count; i++) {
+            quality.record(nanos);
+            quality.endFrame();
+        }
+    }
+
+    @Test
+    public void stepsDownOneLevelPerSustainedOverBudgetRun() {
+        QualityController quality = new QualityController();
+        quality.configure(true, BUDGET_MICROS);
+
+        // A single slow frame is smoothed away
+        frames(quality, 1, 20_000_000);
+        frames(quality, 100, 0);
+        assertEquals(QualityController.Level.FULL, quality.getLevel());
+
+        // The average crosses the budget within a few frames, then has to stay over it
+        frames(quality, QualityController.DEGRADE_FRAMES, 5_000_000);
+        assertEquals(QualityController.Level.FULL, quality.getLevel());
+        frames(quality, 5, 5_000_000);
+        assertEquals(QualityController.Level.SPRITE_OUTLINE, quality.getLevel());
+
+        frames(quality, QualityController.DEGRADE_FRAMES * 4, 5_000_000);
+        assertEquals(QualityController.Level.HOVER_ONLY, quality.getLevel());
+        assertTrue(quality.isHoverOnly());
+        assertEquals(3, quality.getDegrades());
+    }
+
+    @Test
+    public void recoversOnlyAfterLongRunUnderHalfTheBudget() {
+        QualityController quality = new QualityController();
+        quality.configure(true, BUDGET_MICROS);
+        frames(quality, 200, 5_000_000);
+        QualityController.Level degraded = quality.getLevel();
+        assertTrue(degraded != QualityController.Level.FULL);
+
+        // Just under the budget holds the level
+        frames(quality, QualityController.RECOVER_FRAMES * 4, 900_000);
+        assertEquals(degraded, quality.getLevel());
+
+        frames(quality, QualityController.RECOVER_FRAMES + 50, 100_000);
+        assertEquals(degraded.ordinal() - 1, quality.getLevel().ordinal());
+        assertEquals(1, quality.getRecoveries());
+    }
+
+    @Test
+    public void disablingReturnsToFullQuality() {
+        QualityController quality = new QualityController();
+        quality.configure(true, BUDGET_MICROS);
+        frames(quality, 500, 5_000_000);
+        assertTrue(quality.isHoverOnly());
+
+        quality.configure(false, BUDGET_MICROS);
+        assertEquals(QualityController.Level.FULL, quality.getLevel());
+        frames(quality, 500, 5_000_000);
+        assertEquals(QualityController.Level.FULL, quality.getLevel());
+    }
+}
@@ -0,0 +1,104 @@
+package com.inventoryhighlighter.engine;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class RecentSlotsTest {
+    private static void update(ContainerSlots slots, int... idsAndQuantities) {
+        int length = idsAndQuantities.length / 2;
+        int[] ids = new int[length];
+        int[] quantities = new int[length];
+        for (int slot = 0; slot < length; slot++) {
+            ids[slot] = idsAndQuantities[slot * 2];
+            quantities[slot] = idsAndQuantities[slot * 2 + 1];
+        }
+        slots.update(ids, quantities, length);
+    }
+
+    @Test
+    public void onlyGainsAreRecorded() {
+        ContainerSlots slots = new ContainerSlots();
+        RecentSlots recent = new RecentSlots();
+        update(slots, 379, 1, 995, 100, -1, 0);
+
+        // A bigger stack and a new item count; a smaller stack and an emptied slot don't
+        update(slots, 379, 3, 995, 50, 385, 1);
+        recent.record(slots, 5);
+        assertEquals(5, recent.getRemaining(0));
+        assertEquals(0, recent.getRemaining(1));
+        assertEquals(5, recent.getRemaining(2));
+
+        update(slots, -1, 0, 995, 50, 385, 1);
+        recent.record(slots, 5);
+        assertEquals(2, recent.getFadingCount());
+        assertEquals(0, recent.getRemaining(99));
+    }
+
+    @Test
+    public void swapsAndMovesAreNotRecorded() {
+        ContainerSlots slots = new ContainerSlots();
+        RecentSlots recent = new RecentSlots();
+        update(slots, 379, 1, 385, 5, -1, 0);
+
+        update(slots, 385, 5, 379, 1, -1, 0);
+        recent.record(slots, 5);
+        update(slots, 385, 5, -1, 0, 379, 1);
+        recent.record(slots, 5);
+        assertEquals(0, recent.getFadingCount());
+
+        // Moved along with a withdrawal of more of it
+        update(slots, 385, 5, 379, 2, -1, 0);
+        recent.record(slots, 5);
+        assertEquals(1, recent.getFadingCount());
+        assertEquals(5, recent.getRemaining(1));
+    }
+
+    @Test
+    public void slotsFadeOutAfterTheirTicks() {
+        ContainerSlots slots = new ContainerSlots();
+        RecentSlots recent = new RecentSlots();
+        update(slots, -1, 0, -1, 0);
+        update(slots, 379, 1, -1, 0);
+        recent.record(slots, 3);
+        recent.tick();
+        update(slots, 379, 1, 385, 1);
+        recent.record(slots, 3);
+
+        recent.tick();
+        assertEquals(1, recent.getRemaining(0));
+        assertEquals(2, recent.getRemaining(1));
+        recent.tick();
+        assertEquals(0, recent.getRemaining(0));
+        assertEquals(1, recent.getFadingCount());
+
+        // A slot that gains again starts over
+        update(slots, 379, 1, 385, 2);
+        recent.record(slots, 3);
+        assertEquals(3, recent.getRemaining(1));
+        for (int tick = 0; tick < 3; tick++) {
+            recent.tick();
+        }
+        assertEquals(0, recent.getFadingCount());
+        assertEquals(0, recent.getRemaining(1));
+    }
+
+    @Test
+    public void clearStopsEveryFade() {
+        ContainerSlots slots = new ContainerSlots();
+        RecentSlots recent = new RecentSlots();
+        update(slots, new int[56]);
+        int[] ids = new int[28];
+        int[] quantities = new int[28];
+        for (int slot = 0; slot < ids.length; slot++) {
+            ids[slot] = 1000 + slot;
+            quantities[slot] = 1;
+        }
+        slots.update(ids, quantities, ids.length);
+        recent.record(slots, 10);
+        assertEquals(28, recent.getFadingCount());
+
+        recent.clear();
+        assertEquals(0, recent.getFadingCount());
+        assertEquals(0, recent.getRemaining(27));
+    }
+}
@@ -0,0 +1,113 @@
+package com.inventoryhighlighter.engine;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RenderErrorsTest {
+    private static final int ITEM = 4151;
+
+    @Test
+    public void repeatedFailuresAreSummarizedAndTripTheBreaker() {
+        RenderErrors errors = new RenderErrors();
+        long now = 1_000_000;
+        IllegalStateException failure = new IllegalStateException("bad sprite");
+
+        for (int i = 0; i < RenderErrors.TRIP_FAILURES; i++) {
+            assertFalse(errors.isTripped(ITEM, now));
+            errors.failed(ITEM, failure, now);
+        }
+
+        // Only the first was logged in full
+        assertEquals(RenderErrors.TRIP_FAILURES, errors.getFailures());
+        assertEquals(RenderErrors.TRIP_FAILURES - 1, errors.getSuppressed());
+        assertEquals(1, errors.getTrips());
+        assertEquals(1, errors.getOpenCount());
+        assertTrue(errors.isTripped(ITEM, now + 1));
+        assertFalse(errors.isTripped(ITEM + 1, now + 1));
+    }
+
+    @Test
+    public void successAfterCooldownClosesTheBreaker() {
+        RenderErrors errors = new RenderErrors();
+        long now = 1_000_000;
+        for (int i = 0; i < RenderErrors.TRIP_FAILURES; i++) {
+            errors.failed(ITEM, new IllegalStateException(), now);
+        }
+
+        now += RenderErrors.COOLDOWN_MS;
+        assertFalse(errors.isTripped(ITEM, now));
+        assertEquals(0, errors.getOpenCount());
+        errors.succeeded(ITEM);
+
+        // A single new failure doesn't trip it again
+        errors.failed(ITEM, new IllegalStateException(), now);
+        assertFalse(errors.isTripped(ITEM, now + 1));
+    }
+
+    @Test
+    public void failedRetryDoublesTheCooldown() {
+        RenderErrors errors = new RenderErrors();
+        long now = 1_000_000;
+        for (int i = 0; i < RenderErrors.TRIP_FAILURES; i++) {
+            errors.failed(ITEM, new IllegalStateException(), now);
+        }
+
+        now += RenderErrors.COOLDOWN_MS;
+        assertFalse(errors.isTripped(ITEM, now));
+        errors.failed(ITEM, new IllegalStateException(), now);
+        assertEquals(2, errors.getTrips());
+
+        assertTrue(errors.isTripped(ITEM, now + RenderErrors.COOLDOWN_MS));
+        assertFalse(errors.isTripped(ITEM, now + RenderErrors.COOLDOWN_MS * 2));
+    }
+
+    @Test
+    public void itemsNoLongerDrawnAreForgotten() {
+        RenderErrors errors = new RenderErrors();
+        long now = 1_000_000;
+        for (int i = 0; i < RenderErrors.TRIP_FAILURES; i++) {
+            errors.failed(ITEM, new IllegalStateException(), now);
+        }
+        // Failed once, not enough to trip
+        errors.failed(ITEM + 1, new IllegalStateException(), now);
+        assertEquals(2, errors.getTrackedCount());
+        assertEquals(1, errors.getOpenCount());
+
+        // Neither is drawn again; the first summary still reports them, the next one forgets them
+        now += RenderErrors.LOG_INTERVAL_MS;
+        errors.flush(now);
+        assertEquals(0, errors.getOpenCount());
+        assertEquals(2, errors.getTrackedCount());
+        now += RenderErrors.LOG_INTERVAL_MS;
+        errors.flush(now);
+        assertEquals(0, errors.getTrackedCount());
+        assertFalse(errors.isTripped(ITEM, now));
+    }
+
+    @Test
+    public void forgottenItemsMakeRoomForNewFailures() {
+        RenderErrors errors = new RenderErrors();
+        long now = 1_000_000;
+        for (int item = 0; item < 300; item++) {
+            for (int i = 0; i < RenderErrors.TRIP_FAILURES; i++) {
+                errors.failed(item, new IllegalStateException(), now);
+            }
+        }
+        assertEquals(256, errors.getOpenCount());
+
+        now += RenderErrors.LOG_INTERVAL_MS;
+        errors.flush(now);
+        now += RenderErrors.LOG_INTERVAL_MS;
+        errors.flush(now);
+        assertEquals(0, errors.getTrackedCount());
+
+        // A new failing item is tracked and tripped again
+        for (int i = 0; i < RenderErrors.TRIP_FAILURES; i++) {
+            errors.failed(ITEM, new IllegalStateException(), now);
+        }
+        assertTrue(errors.isTripped(ITEM, now + 1));
+        assertEquals(1, errors.getOpenCount());
+    }
+}
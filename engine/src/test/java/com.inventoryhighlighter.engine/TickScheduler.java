@@ -0,0 +1,32 @@
+package com.inventoryhighlighter.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A scheduler ticked by hand. Each {@link #tick()} runs every queued slice once and keeps those
+ * that are not done yet, as the client thread does once per client tick.
+ */
+class TickScheduler implements SliceScheduler {
+    private final List<BooleanSupplier> pending = new ArrayList<>();
+
+    @Override
+    public void schedule(BooleanSupplier slice) {
+        pending.add(slice);
+    }
+
+    void tick() {
+        List<BooleanSupplier> slices = new ArrayList<>(pending);
+        pending.clear();
+        for (BooleanSupplier slice : slices) {
+            if (!slice.getAsBoolean()) {
+                pending.add(slice);
+            }
+        }
+    }
+
+    boolean hasPending() {
+        return !pending.isEmpty();
+    }
+}
@@ -0,0 +1,68 @@
+package com.inventoryhighlighter;
+
+import net.runelite.api.Client;
+import net.runelite.api.widgets.ComponentID;
+import net.runelite.api.widgets.Widget;
+import net.runelite.api.widgets.WidgetItem;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.awt.Rectangle;
+
+/**
+ * Culls bank slots scrolled out of the visible bank item container. The overlays are handed every
+ * slot of the bank, but only about one screen of them can be seen; the rest are skipped before any
+ * throttling or cache work.
+ * <p>
+ * The container's bounds are read once per client cycle. Slot canvas bounds already include the
+ * container's scroll offset, so a slot is visible exactly when its bounds meet the container's.
+ */
+@Singleton
+public class BankViewport {
+    private final Client client;
+
+    private int lastCycle = -1;
+    private Rectangle viewport;
+
+    private long skippedSlots = 0;
+
+    @Inject
+    BankViewport(Client client) {
+        this.client = client;
+    }
+
+    /**
+     * Whether the slot is a bank slot outside the visible part of the bank
+     */
+    public boolean isCulled(WidgetItem item) {
+        Widget widget = item.getWidget();
+        if (widget == null || widget.getId() != ComponentID.BANK_ITEM_CONTAINER) {
+            return false;
+        }
+
+        Rectangle visible = viewport();
+        Rectangle bounds = item.getCanvasBounds();
+        if (visible == null || bounds == null || visible.intersects(bounds)) {
+            return false;
+        }
+
+        skippedSlots++;
+        return true;
+    }
+
+    private Rectangle viewport() {
+        int cycle = client.getGameCycle();
+        if (cycle != lastCycle) {
+            lastCycle = cycle;
+            Widget container = client.getWidget(ComponentID.BANK_ITEM_CONTAINER);
+            viewport = container == null || container.isHidden() ? null : container.getBounds();
+        }
+        return viewport;
+    }
+
+    /**
+     * Bank slots skipped because they were scrolled out of view
+     */
+    public long getSkippedSlots() {
+        return skippedSlots;
+    }
+}
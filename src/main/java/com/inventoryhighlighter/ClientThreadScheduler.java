@@ -0,0 +1,25 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.SliceScheduler;
+import net.runelite.client.callback.ClientThread;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs the engine's slices on the client thread, one call per client tick until a slice is done
+ */
+@Singleton
+class ClientThreadScheduler implements SliceScheduler {
+    private final ClientThread clientThread;
+
+    @Inject
+    ClientThreadScheduler(ClientThread clientThread) {
+        this.clientThread = clientThread;
+    }
+
+    @Override
+    public void schedule(BooleanSupplier slice) {
+        clientThread.invokeLater(slice);
+    }
+}
@@ -0,0 +1,513 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.ClassificationJob;
+import com.inventoryhighlighter.engine.ContainerSlots;
+import com.inventoryhighlighter.engine.RecentSlots;
+import com.inventoryhighlighter.engine.VerdictTable;
+import net.runelite.api.GrandExchangeOffer;
+import net.runelite.api.Item;
+import net.runelite.api.InventoryID;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.widgets.InterfaceID;
+import net.runelite.api.widgets.Widget;
+import net.runelite.api.widgets.WidgetItem;
+import net.runelite.api.widgets.WidgetUtil;
+import net.runelite.client.callback.ClientThread;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Slot state for every item container the plugin has seen: inventory, bank, equipment, shops and
+ * so on. Each change is diffed against the container's previous contents by its {@link ContainerSlots},
+ * and only the ids in changed slots go to the {@link ClassificationJob}. Verdicts are keyed by item id alone, so every container
+ * shares the classifier's one verdict table and an item seen in the bank is already settled when it
+ * shows up in a shop.
+ * <p>
+ * When groups have quantity or value conditions, the diff also settles each changed slot's group,
+ * so the overlays look the result up instead of checking conditions per frame; slots without a
+ * settled group are skipped. Slots whose ids are
+ * still being classified are settled once the job is done, and value conditions are rechecked when
+ * a price moves, at most once per game tick.
+ * <p>
+ * The inventory's diff also tells which slots just gained items. Those are highlighted for a few
+ * game ticks, fading out, and only they are visited as the fade advances.
+ * <p>
+ * Inventory and bank interfaces show slots by index. The equipment tab and Grand Exchange offers
+ * don't, so a drawn item is placed by looking it up among their few slots. Grand Exchange offers
+ * aren't an item container; they are kept as one under {@link #GRAND_EXCHANGE_OFFERS}. Every shop has
+ * its own container id, so the shop interface is tied to the tracked container holding the drawn
+ * item in that slot, and stays tied to it while its slots keep matching. Only the most recently
+ * changed containers are kept.
+ * <p>
+ * Client thread only.
+ */
+@Singleton
+public class ContainerRegistry {
+    private static final int MAX_CONTAINERS = 16;
+
+    // Container id the Grand Exchange offer slots are kept under; real container ids are never negative
+    static final int GRAND_EXCHANGE_OFFERS = -2;
+
+    // Slot group not settled yet
+    private static final HighlightGroup PENDING = new HighlightGroup("", null, null, Collections.emptyList());
+
+    private final ClientThread clientThread;
+    private final ClassificationJob classificationJob;
+    private final ItemClassifier classifier;
+    private final PriceSnapshot prices;
+    private final InventoryHighlighterConfig config;
+
+    // Least recently changed or drawn first
+    private final Map<Integer, ContainerState> containers =
+        new LinkedHashMap<Integer, ContainerState>(MAX_CONTAINERS + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ContainerState> eldest) {
+                return size() > MAX_CONTAINERS;
+            }
+        };
+
+    // The ids and quantities of the container being updated; reused between updates
+    private int[] newIds = new int[64];
+    private int[] newQuantities = new int[64];
+
+    private boolean settleScheduled = false;
+
+    // The container the open shop's stock was last found in, or -1
+    private int shopContainerId = -1;
+    // The container the last call to slotOf placed its slot in
+    private ContainerState placed;
+
+    // Inventory slots that just gained items, and the faded style for each game tick left; none when off
+    private final RecentSlots recentSlots = new RecentSlots();
+    private HighlightGroup[] recentGroups = new HighlightGroup[0];
+    private int recentTicks = 0;
+    private Color recentColor;
+
+    private long diffedSlots = 0;
+    private long changedSlots = 0;
+    private long settledSlots = 0;
+
+    /**
+     * The last seen contents of one container
+     */
+    static final class ContainerState {
+        private final int containerId;
+        private final ContainerSlots slots = new ContainerSlots();
+        // Settled group per slot (null for none) and the price it was settled with
+        private HighlightGroup[] groups = new HighlightGroup[0];
+        private int[] prices = new int[0];
+
+        ContainerState(int containerId) {
+            this.containerId = containerId;
+        }
+
+        int getContainerId() {
+            return containerId;
+        }
+
+        int getSize() {
+            return slots.getSize();
+        }
+
+        int getItemId(int slot) {
+            return slots.getItemId(slot);
+        }
+
+        int getQuantity(int slot) {
+            return slots.getQuantity(slot);
+        }
+
+        /**
+         * The slot's settled group, null for none or while it is pending
+         */
+        HighlightGroup getGroup(int slot) {
+            HighlightGroup group = slot < slots.getSize() ? groups[slot] : null;
+            return group == PENDING ? null : group;
+        }
+    }
+
+    @Inject
+    ContainerRegistry(ClientThread clientThread, ClassificationJob classificationJob, ItemClassifier classifier,
+            PriceSnapshot prices, InventoryHighlighterConfig config) {
+        this.clientThread = clientThread;
+        this.classificationJob = classificationJob;
+        this.classifier = classifier;
+        this.prices = prices;
+        this.config = config;
+    }
+
+    /**
+     * Record a container's new contents. Returns the number of slots that changed.
+     */
+    public int update(int containerId, ItemContainer container) {
+        return container == null ? 0 : update(containerId, container.getItems());
+    }
+
+    int update(int containerId, Item[] items) {
+        if (items == null) {
+            return 0;
+        }
+
+        reserve(items.length);
+        for (int slot = 0; slot < items.length; slot++) {
+            newIds[slot] = items[slot].getId();
+            newQuantities[slot] = items[slot].getQuantity();
+        }
+        return update(containerId, items.length);
+    }
+
+    /**
+     * Record the Grand Exchange offers as the slots of one container. Empty offers are empty slots.
+     * Returns the number of slots that changed.
+     */
+    public int updateOffers(GrandExchangeOffer[] offers) {
+        if (offers == null) {
+            return 0;
+        }
+
+        reserve(offers.length);
+        for (int slot = 0; slot < offers.length; slot++) {
+            GrandExchangeOffer offer = offers[slot];
+            boolean empty = offer == null || offer.getItemId() <= 0;
+            newIds[slot] = empty ? -1 : offer.getItemId();
+            newQuantities[slot] = empty ? 0 : offer.getTotalQuantity();
+        }
+        return update(GRAND_EXCHANGE_OFFERS, offers.length);
+    }
+
+    private void reserve(int length) {
+        if (newIds.length < length) {
+            newIds = new int[length];
+            newQuantities = new int[length];
+        }
+    }
+
+    /**
+     * Diff the first {@code length} entries of {@link #newIds} and {@link #newQuantities} into a container
+     */
+    private int update(int containerId, int length) {
+
+        // The first contents seen are not news
+        boolean tracked = containers.containsKey(containerId);
+        ContainerState state = containers.computeIfAbsent(containerId, ContainerState::new);
+        ContainerSlots slots = state.slots;
+        int oldSize = slots.getSize();
+        int changed = slots.update(newIds, newQuantities, length);
+        if (tracked && changed > 0 && recentTicks > 0 && containerId == InventoryID.INVENTORY.getId()) {
+            recentSlots.record(slots, recentTicks);
+        }
+        if (state.groups.length < length) {
+            state.groups = Arrays.copyOf(state.groups, length);
+            state.prices = Arrays.copyOf(state.prices, length);
+        }
+
+        boolean conditions = classifier.hasConditions();
+        for (int i = 0; i < changed; i++) {
+            int slot = slots.getChangedSlot(i);
+            if (slot >= length) {
+                // Slots past the new end were emptied
+                state.groups[slot] = null;
+            } else if (conditions) {
+                settle(state, slot, false);
+            }
+        }
+
+        diffedSlots += Math.max(length, oldSize);
+        changedSlots += changed;
+        if (changed > 0) {
+            classificationJob.enqueue(slots.getChangedIds(), changed);
+        }
+        return changed;
+    }
+
+    /**
+     * Settle a slot's group from its verdict, quantity and price. A slot whose id has no verdict yet
+     * is left pending for the classification job, unless {@code classify} is set.
+     */
+    private void settle(ContainerState state, int slot, boolean classify) {
+        int itemId = state.slots.getItemId(slot);
+        if (itemId <= 0) {
+            state.groups[slot] = null;
+            return;
+        }
+        if (!classify && classifier.getCachedVerdict(itemId) == VerdictTable.UNKNOWN) {
+            state.groups[slot] = PENDING;
+            scheduleSettle();
+            return;
+        }
+
+        state.prices[slot] = classifier.hasValueConditions() ? prices.getPrice(itemId) : 0;
+        state.groups[slot] = classifier.getHighlight(itemId, state.slots.getQuantity(slot), prices);
+        settledSlots++;
+    }
+
+    private void scheduleSettle() {
+        if (!settleScheduled) {
+            settleScheduled = true;
+            clientThread.invokeLater(this::settlePending);
+        }
+    }
+
+    /**
+     * Settle every pending slot once the classification job has finished
+     */
+    private boolean settlePending() {
+        if (classificationJob.isPending()) {
+            return false;
+        }
+
+        settleScheduled = false;
+        for (ContainerState state : containers.values()) {
+            for (int slot = 0; slot < state.slots.getSize(); slot++) {
+                if (state.groups[slot] == PENDING) {
+                    settle(state, slot, true);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Recheck value conditions of slots whose price has moved. Call once per game tick, after the
+     * price snapshot has moved on to the tick.
+     */
+    public void refreshValues() {
+        if (!classifier.hasValueConditions()) {
+            return;
+        }
+
+        for (ContainerState state : containers.values()) {
+            for (int slot = 0; slot < state.slots.getSize(); slot++) {
+                int itemId = state.slots.getItemId(slot);
+                if (itemId > 0 && state.groups[slot] != PENDING && prices.getPrice(itemId) != state.prices[slot]) {
+                    settle(state, slot, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Highlight inventory slots that gain items for this many game ticks, fading out from the color;
+     * 0 ticks turns it off
+     */
+    public void setRecentHighlight(int ticks, Color color) {
+        ticks = Math.max(0, ticks);
+        if (ticks == recentTicks && color.equals(recentColor)) {
+            return;
+        }
+        recentTicks = ticks;
+        recentColor = color;
+        recentSlots.clear();
+
+        // One style per game tick left, so the fade never builds a color while drawing
+        recentGroups = new HighlightGroup[ticks == 0 ? 0 : ticks + 1];
+        for (int left = 1; left <= ticks; left++) {
+            int alpha = color.getAlpha() * left / ticks;
+            Color outline = new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha);
+            Color fill = new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha / 4);
+            recentGroups[left] = new HighlightGroup("New", outline, fill, Collections.emptyList());
+        }
+    }
+
+    /**
+     * Advance the fade of recently changed slots. Call once per game tick.
+     */
+    public void tickRecent() {
+        recentSlots.tick();
+    }
+
+    /**
+     * The faded style of a drawn slot that just gained its item, or null. Costs nothing while no slot
+     * is fading.
+     */
+    public HighlightGroup getRecentHighlight(WidgetItem item, int itemId) {
+        if (recentSlots.getFadingCount() == 0 || item.getWidget() == null) {
+            return null;
+        }
+        Widget widget = item.getWidget();
+        if (containerOf(WidgetUtil.componentToInterface(widget.getId())) != InventoryID.INVENTORY.getId()) {
+            return null;
+        }
+        ContainerState state = containers.get(InventoryID.INVENTORY.getId());
+        int slot = widget.getIndex();
+        if (state == null || state.slots.getItemId(slot) != itemId) {
+            return null;
+        }
+        return recentGroups[recentSlots.getRemaining(slot)];
+    }
+
+    /**
+     * Number of inventory slots still fading after gaining items
+     */
+    public int getRecentCount() {
+        return recentSlots.getFadingCount();
+    }
+
+    /**
+     * Queue every tracked item again, after a new pattern set left them without verdicts
+     */
+    public void classifyAll() {
+        boolean conditions = classifier.hasConditions();
+        for (ContainerState state : containers.values()) {
+            classificationJob.enqueue(state.slots.getItemIds(), state.slots.getSize());
+            if (conditions) {
+                for (int slot = 0; slot < state.slots.getSize(); slot++) {
+                    settle(state, slot, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * The group a drawn slot is highlighted with, when groups have stack conditions. Slots come
+     * settled from the diff, so drawing never checks conditions or matches names; a slot the registry
+     * can't place, or one still pending, isn't highlighted.
+     */
+    public HighlightGroup getHighlight(WidgetItem item, int itemId) {
+        Widget widget = item.getWidget();
+        int slot = widget == null ? -1 : slotOf(widget.getId(), widget.getIndex(), itemId, item.getQuantity());
+        return slot >= 0 ? placed.getGroup(slot) : null;
+    }
+
+    /**
+     * The settled group of the slot shown at a widget, or null if the slot can't be placed or holds
+     * another item
+     */
+    public HighlightGroup getSettledHighlight(int widgetId, int slot, int itemId) {
+        slot = slotOf(widgetId, slot, itemId, -1);
+        return slot >= 0 ? placed.getGroup(slot) : null;
+    }
+
+    /**
+     * The slot holding the item shown at a widget, leaving its container in {@link #placed}, or -1
+     * if the registry can't place it
+     */
+    private int slotOf(int widgetId, int index, int itemId, int quantity) {
+        int interfaceId = WidgetUtil.componentToInterface(widgetId);
+        switch (interfaceId) {
+            case InterfaceID.EQUIPMENT:
+                placed = containers.get(InventoryID.EQUIPMENT.getId());
+                return placed == null ? -1 : placed.slots.indexOf(itemId, quantity);
+            case InterfaceID.GRAND_EXCHANGE:
+                placed = containers.get(GRAND_EXCHANGE_OFFERS);
+                return placed == null ? -1 : placed.slots.indexOf(itemId, quantity);
+            case InterfaceID.SHOP:
+                placed = shopState(index, itemId);
+                return placed == null ? -1 : index;
+            default:
+                int containerId = containerOf(interfaceId);
+                placed = containerId < 0 ? null : containers.get(containerId);
+                return placed != null && index >= 0 && placed.slots.getItemId(index) == itemId ? index : -1;
+        }
+    }
+
+    /**
+     * The tracked shop container holding the item in the slot, or null. The last one found is checked
+     * first, so the others are only searched when the shop changes.
+     */
+    private ContainerState shopState(int slot, int itemId) {
+        if (slot < 0 || itemId <= 0) {
+            return null;
+        }
+        ContainerState shop = shopContainerId == -1 ? null : containers.get(shopContainerId);
+        if (shop != null && shop.slots.getItemId(slot) == itemId) {
+            return shop;
+        }
+        for (ContainerState state : containers.values()) {
+            if (!isPlayerContainer(state.containerId) && state.slots.getItemId(slot) == itemId) {
+                shopContainerId = state.containerId;
+                return state;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isPlayerContainer(int containerId) {
+        return containerId == InventoryID.INVENTORY.getId() || containerId == InventoryID.EQUIPMENT.getId()
+            || containerId == InventoryID.BANK.getId() || containerId == InventoryID.GROUP_STORAGE.getId()
+            || containerId == GRAND_EXCHANGE_OFFERS;
+    }
+
+    /**
+     * The container whose slots an interface shows by slot index, or -1
+     */
+    private static int containerOf(int interfaceId) {
+        switch (interfaceId) {
+            case InterfaceID.INVENTORY:
+            case InterfaceID.BANK_INVENTORY:
+            case InterfaceID.DEPOSIT_BOX:
+            case InterfaceID.SHOP_INVENTORY:
+            case InterfaceID.GRAND_EXCHANGE_INVENTORY:
+                return InventoryID.INVENTORY.getId();
+            case InterfaceID.BANK:
+                return InventoryID.BANK.getId();
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * The tracked state of a container, or null if it hasn't changed since it was last dropped
+     */
+    ContainerState get(int containerId) {
+        return containers.get(containerId);
+    }
+
+    /**
+     * Whether items on the slot's interface should be highlighted. Inventory and bank views always are;
+     * equipment, shop stock and Grand Exchange offers each have their own setting.
+     */
+    public boolean isShown(WidgetItem item) {
+        if (item.getWidget() == null) {
+            return true;
+        }
+
+        switch (WidgetUtil.componentToInterface(item.getWidget().getId())) {
+            case InterfaceID.EQUIPMENT:
+                return config.showOnEquipment();
+            case InterfaceID.SHOP:
+                return config.showOnShops();
+            case InterfaceID.GRAND_EXCHANGE:
+                return config.showOnGrandExchange();
+            default:
+                return true;
+        }
+    }
+
+    public void clear() {
+        containers.clear();
+        shopContainerId = -1;
+        placed = null;
+        recentSlots.clear();
+    }
+
+    public int getContainerCount() {
+        return containers.size();
+    }
+
+    /**
+     * Slots compared across all updates
+     */
+    public long getDiffedSlots() {
+        return diffedSlots;
+    }
+
+    /**
+     * Slots found changed across all updates
+     */
+    public long getChangedSlots() {
+        return changedSlots;
+    }
+
+    /**
+     * Slot groups settled against stack conditions
+     */
+    public long getSettledSlots() {
+        return settledSlots;
+    }
+}
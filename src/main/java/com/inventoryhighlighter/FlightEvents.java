@@ -0,0 +1,165 @@
+package com.inventoryhighlighter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events for profiling the plugin in a real client session. Every event is
+ * disabled by default; enable them by name in a JFR settings file, or with
+ * {@code -XX:StartFlightRecording:settings=...}, to record them. While an event is disabled its
+ * method returns after one check, without creating the event.
+ * <p>
+ * Runtimes without the {@code jdk.jfr} module skip every event.
+ */
+final class FlightEvents {
+    static final String PREFIX = "com.inventoryhighlighter.";
+
+    private static final boolean AVAILABLE = isAvailable();
+
+    // Never committed; only asked whether their event type is enabled
+    private static final RenderFrame RENDER_FRAME = AVAILABLE ? new RenderFrame() : null;
+    private static final Classification CLASSIFICATION = AVAILABLE ? new Classification() : null;
+    private static final Invalidation INVALIDATION = AVAILABLE ? new Invalidation() : null;
+    private static final SpriteMiss SPRITE_MISS = AVAILABLE ? new SpriteMiss() : null;
+
+    private FlightEvents() {
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    @Name(PREFIX + "RenderFrame")
+    @Label("Overlay Frame")
+    @Description("Work one overlay did in a frame")
+    @Category("Inventory Highlighter")
+    @Enabled(false)
+    @StackTrace(false)
+    static class RenderFrame extends Event {
+        @Label("Overlay")
+        String overlay;
+
+        @Label("Slots Visited")
+        int slots;
+
+        @Label("Highlights Drawn")
+        int highlights;
+
+        @Label("Render Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long renderTime;
+    }
+
+    @Name(PREFIX + "Classification")
+    @Label("Item Classification")
+    @Description("A verdict read from the cache or matched")
+    @Category("Inventory Highlighter")
+    @Enabled(false)
+    @StackTrace(false)
+    static class Classification extends Event {
+        @Label("Item Id")
+        int itemId;
+
+        @Label("Cache Hit")
+        boolean cacheHit;
+
+        @Label("Verdict")
+        int verdict;
+
+        @Label("Match Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long matchTime;
+    }
+
+    @Name(PREFIX + "Invalidation")
+    @Label("Cache Invalidation")
+    @Description("Overlay processing state or verdicts dropped")
+    @Category("Inventory Highlighter")
+    @Enabled(false)
+    @StackTrace(false)
+    static class Invalidation extends Event {
+        @Label("Cause")
+        String cause;
+    }
+
+    @Name(PREFIX + "SpriteMiss")
+    @Label("Sprite Cache Miss")
+    @Description("A highlight sprite built and cached")
+    @Category("Inventory Highlighter")
+    @Enabled(false)
+    @StackTrace(false)
+    static class SpriteMiss extends Event {
+        @Label("Item Id")
+        int itemId;
+
+        @Label("Outline")
+        boolean outline;
+
+        @Label("Build Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long buildTime;
+    }
+
+    static void renderFrame(String overlay, int slots, int highlights, long renderNanos) {
+        if (!AVAILABLE || !RENDER_FRAME.isEnabled()) {
+            return;
+        }
+        RenderFrame event = new RenderFrame();
+        event.overlay = overlay;
+        event.slots = slots;
+        event.highlights = highlights;
+        event.renderTime = renderNanos;
+        event.commit();
+    }
+
+    static boolean isRenderFrameEnabled() {
+        return AVAILABLE && RENDER_FRAME.isEnabled();
+    }
+
+    static boolean isClassificationEnabled() {
+        return AVAILABLE && CLASSIFICATION.isEnabled();
+    }
+
+    static void classified(int itemId, boolean cacheHit, int verdict, long matchNanos) {
+        if (!isClassificationEnabled()) {
+            return;
+        }
+        Classification event = new Classification();
+        event.itemId = itemId;
+        event.cacheHit = cacheHit;
+        event.verdict = verdict;
+        event.matchTime = matchNanos;
+        event.commit();
+    }
+
+    static void invalidated(String cause) {
+        if (!AVAILABLE || !INVALIDATION.isEnabled()) {
+            return;
+        }
+        Invalidation event = new Invalidation();
+        event.cause = cause;
+        event.commit();
+    }
+
+    static void spriteMissed(int itemId, boolean outline, long buildNanos) {
+        if (!AVAILABLE || !SPRITE_MISS.isEnabled()) {
+            return;
+        }
+        SpriteMiss event = new SpriteMiss();
+        event.itemId = itemId;
+        event.outline = outline;
+        event.buildTime = buildNanos;
+        event.commit();
+    }
+}
@@ -0,0 +1,247 @@
+package com.inventoryhighlighter;
+
+import net.runelite.client.util.ColorUtil;
+import net.runelite.client.util.Text;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A named set of item patterns drawn with its own colors. Group 0 is always the main
+ * "Items to Highlight" list, whose colors come from the outline/fill config items.
+ * <p>
+ * Entries like {@code qty<100} or {@code value>1m} are stack conditions rather than patterns: the
+ * group only applies to stacks meeting all of them, and other stacks fall through to later groups.
+ * A group of conditions alone applies to every item.
+ */
+public final class HighlightGroup {
+    private final String name;
+    private final Color outlineColor;
+    private final Color fillColor;
+    private final List<String> patterns;
+    private final List<Condition> conditions;
+    private final boolean valueConditions;
+
+    HighlightGroup(String name, Color outlineColor, Color fillColor, List<String> patterns) {
+        this.name = name;
+        this.outlineColor = outlineColor;
+        this.fillColor = fillColor;
+
+        List<String> itemPatterns = new ArrayList<>();
+        List<Condition> stackConditions = new ArrayList<>();
+        for (String pattern : patterns) {
+            Condition condition = Condition.parse(pattern);
+            if (condition != null) {
+                stackConditions.add(condition);
+            } else {
+                itemPatterns.add(pattern);
+            }
+        }
+        if (itemPatterns.isEmpty() && !stackConditions.isEmpty()) {
+            itemPatterns.add("*");
+        }
+
+        boolean value = false;
+        for (Condition condition : stackConditions) {
+            value |= condition.value;
+        }
+        this.patterns = Collections.unmodifiableList(itemPatterns);
+        this.conditions = Collections.unmodifiableList(stackConditions);
+        this.valueConditions = value;
+    }
+
+    /**
+     * A quantity or stack value threshold
+     */
+    static final class Condition {
+        private static final Pattern SYNTAX = Pattern.compile("(qty|quantity|value)\\s*(<=|>=|<|>|=)\\s*(\\d+(?:\\.\\d+)?)\\s*([kmb]?)");
+
+        private final boolean value;
+        private final String operator;
+        private final long threshold;
+
+        private Condition(boolean value, String operator, long threshold) {
+            this.value = value;
+            this.operator = operator;
+            this.threshold = threshold;
+        }
+
+        /**
+         * The condition in a pattern like {@code qty<100} or {@code value>=1.5m}, or null
+         */
+        static Condition parse(String pattern) {
+            Matcher m = SYNTAX.matcher(pattern);
+            if (!m.matches()) {
+                return null;
+            }
+
+            double amount = Double.parseDouble(m.group(3));
+            switch (m.group(4)) {
+                case "k":
+                    amount *= 1_000;
+                    break;
+                case "m":
+                    amount *= 1_000_000;
+                    break;
+                case "b":
+                    amount *= 1_000_000_000;
+                    break;
+            }
+            return new Condition(m.group(1).equals("value"), m.group(2), (long) amount);
+        }
+
+        boolean test(int quantity, long stackValue) {
+            long actual = value ? stackValue : quantity;
+            switch (operator) {
+                case "<":
+                    return actual < threshold;
+                case "<=":
+                    return actual <= threshold;
+                case ">":
+                    return actual > threshold;
+                case ">=":
+                    return actual >= threshold;
+                default:
+                    return actual == threshold;
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Outline color, or null to use the configured outline color.
+     */
+    public Color getOutlineColor() {
+        return outlineColor;
+    }
+
+    /**
+     * Fill color, or null to use the configured fill color.
+     */
+    public Color getFillColor() {
+        return fillColor;
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    public boolean hasConditions() {
+        return !conditions.isEmpty();
+    }
+
+    /**
+     * Whether any condition depends on the item's price
+     */
+    public boolean hasValueConditions() {
+        return valueConditions;
+    }
+
+    /**
+     * Whether a stack meets every condition; the price is only read for value conditions
+     */
+    boolean matchesStack(int itemId, int quantity, PriceSnapshot prices) {
+        long stackValue = valueConditions ? (long) prices.getPrice(itemId) * quantity : 0;
+        for (Condition condition : conditions) {
+            if (!condition.test(quantity, stackValue)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Split a comma-separated item list into standardized, lower-case patterns
+     */
+    static List<String> splitPatterns(String list) {
+        List<String> patterns = new ArrayList<>();
+        if (list == null || list.isEmpty()) {
+            return patterns;
+        }
+
+        // Standardized per entry, since tag stripping would take "qty<100, value>1m" for a tag
+        for (String pattern : list.split(",")) {
+            pattern = standardizePattern(pattern);
+            if (!pattern.isEmpty()) {
+                patterns.add(pattern);
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * A single pattern standardized the way every list's patterns are
+     */
+    static String standardizePattern(String pattern) {
+        return Text.standardize(pattern).toLowerCase().trim();
+    }
+
+    /**
+     * Parse the group config, one group per line:
+     * <pre>Name #outline #fill: item, item*, ...</pre>
+     * Colors are optional (#RRGGBB or #AARRGGBB); a missing fill is derived from the outline.
+     * A line without a colon is an unnamed group that uses the default colors.
+     */
+    static List<HighlightGroup> parseGroups(String text) {
+        List<HighlightGroup> groups = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return groups;
+        }
+
+        for (String line : text.split("\n")) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            int colon = line.indexOf(':');
+            String header = colon < 0 ? "" : line.substring(0, colon).trim();
+            List<String> patterns = splitPatterns(colon < 0 ? line : line.substring(colon + 1));
+            if (patterns.isEmpty()) {
+                continue;
+            }
+
+            StringBuilder name = new StringBuilder();
+            Color outline = null;
+            Color fill = null;
+            for (String token : header.split("\\s+")) {
+                Color color = token.startsWith("#") ? parseColor(token) : null;
+                if (color == null) {
+                    if (!token.isEmpty()) {
+                        name.append(name.length() > 0 ? " " : "").append(token);
+                    }
+                } else if (outline == null) {
+                    outline = color;
+                } else if (fill == null) {
+                    fill = color;
+                }
+            }
+            if (outline != null && fill == null) {
+                fill = new Color(outline.getRed(), outline.getGreen(), outline.getBlue(), 50);
+            }
+
+            String groupName = name.length() > 0 ? name.toString() : "Group " + (groups.size() + 1);
+            groups.add(new HighlightGroup(groupName, outline, fill, patterns));
+        }
+        return groups;
+    }
+
+    private static Color parseColor(String hex) {
+        try {
+            return ColorUtil.fromHex(hex);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + patterns + (conditions.isEmpty() ? "" : " " + conditions.size() + " conditions");
+    }
+}
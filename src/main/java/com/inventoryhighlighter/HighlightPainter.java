@@ -0,0 +1,107 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.QualityController;
+import com.inventoryhighlighter.engine.RenderErrors;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Stroke;
+
+/**
+ * Draws a highlight in the configured style using a group's colors. Shared by both overlays.
+ * Under frame pressure the {@link QualityController} caps the style at a cheaper one; items whose
+ * highlight keeps failing are skipped for a while by {@link RenderErrors}.
+ */
+@Slf4j
+@Singleton
+public class HighlightPainter {
+    private final Client client;
+    private final InventoryHighlighterConfig config;
+    private final HighlightSpriteCache spriteCache;
+    private final QualityController quality;
+    private final RenderErrors errors;
+
+    private long highlightsDrawn = 0;
+
+    @Inject
+    HighlightPainter(Client client, InventoryHighlighterConfig config, HighlightSpriteCache spriteCache,
+            QualityController quality, RenderErrors errors) {
+        this.client = client;
+        this.config = config;
+        this.spriteCache = spriteCache;
+        this.quality = quality;
+        this.errors = errors;
+    }
+
+    /**
+     * Draw the highlight for an item; returns false if nothing could be drawn
+     */
+    public boolean draw(Graphics2D graphics, int itemId, HighlightGroup group, Rectangle bounds) {
+        if (bounds == null || bounds.width <= 0 || bounds.height <= 0 || errors.isTripped(itemId)) {
+            return false;
+        }
+
+        // Save original graphics state
+        Color originalColor = graphics.getColor();
+        Stroke originalStroke = graphics.getStroke();
+
+        try {
+            // Group colors, falling back to the configured ones
+            Color outlineColor = group.getOutlineColor() != null ? group.getOutlineColor() : config.outlineColor();
+            Color fillColor = group.getFillColor() != null ? group.getFillColor() : config.fillColor();
+            int thickness = config.outlineThickness();
+            QualityController.Level level = quality.getLevel();
+            boolean outlineOnly = config.outlineOnly() || level != QualityController.Level.FULL;
+
+            if (config.spriteOnly() && level.compareTo(QualityController.Level.CLICKBOX) < 0) {
+                // Fill first (if not outline only), using the cached tinted sprite
+                if (!outlineOnly && config.pulse()) {
+                    // The cached fill, faded by the client cycle's frame of the pulse
+                    int frame = HighlightSpriteCache.pulseFrame(client.getGameCycle());
+                    spriteCache.drawPulse(graphics, itemId, fillColor, frame, bounds.x, bounds.y);
+                } else if (!outlineOnly) {
+                    spriteCache.drawFill(graphics, itemId, fillColor, bounds.x, bounds.y);
+                }
+
+                // Then draw the outline
+                spriteCache.drawOutline(graphics, itemId, thickness, outlineColor, bounds.x, bounds.y);
+            } else {
+                // Standard clickbox highlight
+                if (!outlineOnly) {
+                    // Semi-transparent fill
+                    Color fillWithAlpha = new Color(
+                        fillColor.getRed(),
+                        fillColor.getGreen(),
+                        fillColor.getBlue(),
+                        Math.min(fillColor.getAlpha(), 130)
+                    );
+                    graphics.setColor(fillWithAlpha);
+                    graphics.fill(bounds);
+                }
+
+                graphics.setColor(outlineColor);
+                graphics.setStroke(new BasicStroke(thickness));
+                graphics.draw(bounds);
+            }
+            highlightsDrawn++;
+            errors.succeeded(itemId);
+            return true;
+        } catch (Exception e) {
+            errors.failed(itemId, e);
+            return false;
+        } finally {
+            // Restore original graphics state
+            graphics.setColor(originalColor);
+            graphics.setStroke(originalStroke);
+        }
+    }
+
+    public long getHighlightsDrawn() {
+        return highlightsDrawn;
+    }
+}
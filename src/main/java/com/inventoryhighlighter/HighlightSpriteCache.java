@@ -0,0 +1,309 @@
+package com.inventoryhighlighter;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.runelite.client.util.ImageUtil;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-tinted highlight sprites. Entries are keyed by item and color rather than by group, so
+ * groups that share colors share sprites and a group color change never needs an invalidation.
+ * The cache is bounded by the pixel memory of its sprites rather than by their count.
+ * <p>
+ * By default the sprites are packed into a {@link SpriteAtlas} and drawn as sub-regions of its
+ * pages; with the atlas off, each sprite is kept as its own image. The atlas is used from the client
+ * thread only.
+ * <p>
+ * A pulsing fill is the item's steady fill, blitted with an extra alpha that falls then rises over
+ * {@link #PULSE_FRAMES} frames. Pulsing costs no sprites beyond the steady fill, and a miss tints
+ * just that one.
+ * <p>
+ * Sprites are looked up with a reused key, so a hit allocates nothing; only a miss copies it to
+ * store the new sprite under.
+ */
+@Singleton
+public class HighlightSpriteCache {
+    // About 900 inventory sized ARGB sprites
+    static final long MAX_BYTES = 4L * 1024 * 1024;
+
+    // A pulse is 12 frames of 5 client cycles (20 ms each), so it repeats every 1.2 seconds
+    static final int PULSE_FRAMES = 12;
+    private static final int PULSE_CYCLES_PER_FRAME = 5;
+    // Per frame, the alpha the fill is drawn with: full, down to 30%, back up. The composites are
+    // for the usual opaque SrcOver; any other alpha composite is scaled per draw.
+    private static final float[] PULSE_ALPHA = new float[PULSE_FRAMES];
+    private static final AlphaComposite[] PULSE_COMPOSITES = new AlphaComposite[PULSE_FRAMES];
+
+    static {
+        for (int frame = 0; frame < PULSE_FRAMES; frame++) {
+            double wave = (1 + Math.cos(2 * Math.PI * frame / PULSE_FRAMES)) / 2;
+            PULSE_ALPHA[frame] = (float) (0.3 + 0.7 * wave);
+            PULSE_COMPOSITES[frame] = AlphaComposite.SrcOver.derive(PULSE_ALPHA[frame]);
+        }
+    }
+
+    private final ItemSource itemSource;
+    private final Cache<CacheKey, BufferedImage> imageCache;
+    private final SpriteAtlas<CacheKey> atlas = new SpriteAtlas<>(MAX_BYTES);
+    private boolean atlasEnabled = true;
+    // Reset for every lookup; sprites are only looked up from the client thread
+    private final CacheKey lookup = new CacheKey();
+
+    private long misses = 0;
+
+    /**
+     * Cache key for buffered images
+     */
+    private static class CacheKey {
+        private int itemId;
+        private boolean isOutline;
+        private int thickness;
+        private int argb;
+
+        CacheKey() {
+        }
+
+        /**
+         * Point the key at another sprite. Only for the lookup key; a stored key never changes.
+         */
+        CacheKey set(int itemId, boolean isOutline, int thickness, Color color) {
+            this.itemId = itemId;
+            this.isOutline = isOutline;
+            this.thickness = thickness;
+            this.argb = color.getRGB();
+            return this;
+        }
+
+        CacheKey copy() {
+            CacheKey key = new CacheKey();
+            key.itemId = itemId;
+            key.isOutline = isOutline;
+            key.thickness = thickness;
+            key.argb = argb;
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CacheKey)) return false;
+            CacheKey key = (CacheKey) o;
+            return itemId == key.itemId &&
+                   isOutline == key.isOutline &&
+                   thickness == key.thickness &&
+                   argb == key.argb;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = itemId;
+            result = 31 * result + (isOutline ? 1 : 0);
+            result = 31 * result + thickness;
+            result = 31 * result + argb;
+            return result;
+        }
+    }
+
+    @Inject
+    HighlightSpriteCache(ItemSource itemSource) {
+        this.itemSource = itemSource;
+        this.imageCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(5, TimeUnit.MINUTES)
+            .maximumWeight(MAX_BYTES)
+            .weigher((CacheKey key, BufferedImage image) -> weigh(image))
+            .build();
+    }
+
+    private static int weigh(BufferedImage image) {
+        return image.getWidth() * image.getHeight() * 4;
+    }
+
+    /**
+     * Pack sprites into the atlas, or keep one image per sprite. Switching drops every cached sprite.
+     */
+    public void setAtlasEnabled(boolean enabled) {
+        if (enabled != atlasEnabled) {
+            atlasEnabled = enabled;
+            clear();
+        }
+    }
+
+    /**
+     * Draw the item sprite filled with the given color at x, y. Returns false if there is no sprite.
+     */
+    public boolean drawFill(Graphics2D graphics, int itemId, Color fillColor, int x, int y) {
+        CacheKey key = lookup.set(itemId, false, 0, fillColor);
+        if (!atlasEnabled) {
+            return draw(graphics, getFill(key), x, y);
+        }
+
+        SpriteAtlas.Region region = atlas.get(key);
+        if (region == null) {
+            misses++;
+            long start = System.nanoTime();
+            BufferedImage sprite = itemSource.getImage(itemId);
+            if (sprite == null) {
+                return false;
+            }
+            BufferedImage fill = ImageUtil.fillImage(sprite, fillColor);
+            region = atlas.add(key.copy(), fill);
+            FlightEvents.spriteMissed(itemId, false, System.nanoTime() - start);
+            if (region == null) {
+                return draw(graphics, fill, x, y);
+            }
+        }
+        SpriteAtlas.draw(graphics, region, x, y);
+        return true;
+    }
+
+    /**
+     * Draw a frame of the item's pulsing fill at x, y: its steady fill, faded for the frame on top
+     * of any alpha the graphics already draws with. A composite other than an {@link AlphaComposite}
+     * is left as it is, without the fade. Returns false if there is no sprite.
+     */
+    public boolean drawPulse(Graphics2D graphics, int itemId, Color fillColor, int frame, int x, int y) {
+        Composite composite = graphics.getComposite();
+        frame = Math.floorMod(frame, PULSE_FRAMES);
+        if (composite == AlphaComposite.SrcOver) {
+            graphics.setComposite(PULSE_COMPOSITES[frame]);
+        } else if (composite instanceof AlphaComposite) {
+            AlphaComposite alpha = (AlphaComposite) composite;
+            graphics.setComposite(alpha.derive(alpha.getAlpha() * PULSE_ALPHA[frame]));
+        }
+        try {
+            return drawFill(graphics, itemId, fillColor, x, y);
+        } finally {
+            graphics.setComposite(composite);
+        }
+    }
+
+    /**
+     * The pulse frame to show at a client cycle
+     */
+    static int pulseFrame(int gameCycle) {
+        return Math.floorMod(Math.floorDiv(gameCycle, PULSE_CYCLES_PER_FRAME), PULSE_FRAMES);
+    }
+
+    /**
+     * Draw the item's outline at x, y. Returns false if there is no sprite.
+     */
+    public boolean drawOutline(Graphics2D graphics, int itemId, int thickness, Color outlineColor, int x, int y) {
+        CacheKey key = lookup.set(itemId, true, thickness, outlineColor);
+        if (!atlasEnabled) {
+            return draw(graphics, getOutline(key), x, y);
+        }
+
+        SpriteAtlas.Region region = atlas.get(key);
+        if (region == null) {
+            misses++;
+            long start = System.nanoTime();
+            BufferedImage outline = itemSource.getItemOutline(itemId, thickness, outlineColor);
+            if (outline == null) {
+                return false;
+            }
+            region = atlas.add(key.copy(), outline);
+            FlightEvents.spriteMissed(itemId, true, System.nanoTime() - start);
+            if (region == null) {
+                return draw(graphics, outline, x, y);
+            }
+        }
+        SpriteAtlas.draw(graphics, region, x, y);
+        return true;
+    }
+
+    private static boolean draw(Graphics2D graphics, BufferedImage image, int x, int y) {
+        if (image == null) {
+            return false;
+        }
+        graphics.drawImage(image, x, y, null);
+        return true;
+    }
+
+    /**
+     * The item sprite filled with the given color, preserving its shape
+     */
+    public BufferedImage getFill(int itemId, Color fillColor) {
+        return getFill(lookup.set(itemId, false, 0, fillColor));
+    }
+
+    private BufferedImage getFill(CacheKey key) {
+        BufferedImage image = imageCache.getIfPresent(key);
+        if (image == null) {
+            misses++;
+            long start = System.nanoTime();
+            BufferedImage sprite = itemSource.getImage(key.itemId);
+            if (sprite == null) {
+                return null;
+            }
+            image = ImageUtil.fillImage(sprite, new Color(key.argb, true));
+            imageCache.put(key.copy(), image);
+            FlightEvents.spriteMissed(key.itemId, false, System.nanoTime() - start);
+        }
+        return image;
+    }
+
+    public BufferedImage getOutline(int itemId, int thickness, Color outlineColor) {
+        return getOutline(lookup.set(itemId, true, thickness, outlineColor));
+    }
+
+    private BufferedImage getOutline(CacheKey key) {
+        BufferedImage image = imageCache.getIfPresent(key);
+        if (image == null) {
+            misses++;
+            long start = System.nanoTime();
+            image = itemSource.getItemOutline(key.itemId, key.thickness, new Color(key.argb, true));
+            if (image == null) {
+                return null;
+            }
+            imageCache.put(key.copy(), image);
+            FlightEvents.spriteMissed(key.itemId, true, System.nanoTime() - start);
+        }
+        return image;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getSize() {
+        return atlasEnabled ? atlas.size() : imageCache.size();
+    }
+
+    /**
+     * Pixel memory of the cached sprites, or of the atlas pages, in bytes
+     */
+    public long getFootprintBytes() {
+        if (atlasEnabled) {
+            return atlas.getFootprintBytes();
+        }
+        long total = 0;
+        for (BufferedImage image : imageCache.asMap().values()) {
+            total += weigh(image);
+        }
+        return total;
+    }
+
+    public int getAtlasPages() {
+        return atlas.getPageCount();
+    }
+
+    public long getAtlasEvictions() {
+        return atlas.getEvictions();
+    }
+
+    public long getAtlasCompactions() {
+        return atlas.getCompactions();
+    }
+
+    public void clear() {
+        imageCache.invalidateAll();
+        atlas.clear();
+    }
+}
@@ -1,24 +1,17 @@
 package com.inventoryhighlighter;
 
+import com.inventoryhighlighter.engine.QualityController;
+import com.inventoryhighlighter.engine.RenderErrors;
 import net.runelite.api.Client;
 import net.runelite.client.ui.overlay.WidgetItemOverlay;
-import net.runelite.client.game.ItemManager;
 import javax.inject.Inject;
 import java.awt.Graphics2D;
-import java.awt.Color;
 import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
+import net.runelite.api.widgets.InterfaceID;
 import net.runelite.api.widgets.WidgetItem;
 import net.runelite.api.Point;
 import net.runelite.client.ui.overlay.Overlay;
 import lombok.extern.slf4j.Slf4j;
-import net.runelite.api.ItemComposition;
-import java.awt.BasicStroke;
-import java.awt.Stroke;
-import net.runelite.client.util.Text;
-import java.util.HashSet;
-import java.util.Set;
-import net.runelite.client.util.ImageUtil;
 
 //commented out imports as they currently arent used, but may be used in the future
 //import java.util.Map;
@@ -31,32 +24,45 @@ import net.runelite.client.util.ImageUtil;
 public class HoverHighlightOverlay extends WidgetItemOverlay {
     private final Client client;
     private final InventoryHighlighterConfig config;
-    private final ItemManager itemManager;
     private final HoverState hoverState;
+    private final ItemClassifier classifier;
+    private final HighlightPainter painter;
+    private final BankViewport bankViewport;
+    private final ContainerRegistry containers;
+    private final QualityController quality;
+    private final RenderErrors errors;
+    private final TraceBuffer trace;
     
-    // Cache matched item IDs to avoid repeated checks
-    private final Set<Integer> knownMatchingItems = new HashSet<>();
-    private final Set<Integer> knownNonMatchingItems = new HashSet<>();
+    // Render call rate, traced once a second
+    private long lastRateTime = 0;
+    private static final int RATE_INTERVAL_MS = 1000;
+    private int renderCallCount = 0;
     
-    // Last checked item list from config
-    private String lastConfigList = "";
-    
-    // Logging control
-    private long lastLogTime = 0;
-    private static final int LOG_INTERVAL_MS = 60000; // Log every 60 seconds
-    private long renderCallCount = 0;
+    // This frame's work, for the flight recorder
+    private int frameSlots = 0;
+    private int frameHighlights = 0;
+    private long frameNanos = 0;
     
     @Inject
     private HoverHighlightOverlay(Client client, InventoryHighlighterConfig config, 
-            ItemManager itemManager, HoverState hoverState) {
+            HoverState hoverState, ItemClassifier classifier, HighlightPainter painter, BankViewport bankViewport,
+            ContainerRegistry containers, QualityController quality, RenderErrors errors, TraceBuffer trace) {
         this.client = client;
         this.config = config;
-        this.itemManager = itemManager;
         this.hoverState = hoverState;
+        this.classifier = classifier;
+        this.painter = painter;
+        this.bankViewport = bankViewport;
+        this.containers = containers;
+        this.quality = quality;
+        this.errors = errors;
+        this.trace = trace;
         
         // Configure the overlay for maximum visibility
         showOnInventory();
         showOnBank();
+        showOnEquipment();
+        showOnInterfaces(InterfaceID.SHOP, InterfaceID.GRAND_EXCHANGE);
         
         // Set absolute highest priority
         setPriority(Overlay.PRIORITY_HIGHEST);
@@ -64,86 +70,41 @@ public class HoverHighlightOverlay extends WidgetItemOverlay {
         log.debug("Hover overlay initialized");
     }
     
+    @Override
+    public void renderItemOverlay(Graphics2D graphics, int itemId, WidgetItem widgetItem) {
+        // Items are only timed while adaptive quality or a flight recording reads the time
+        if (!quality.isEnabled() && !FlightEvents.isRenderFrameEnabled()) {
+            renderItem(graphics, itemId, widgetItem);
+            return;
+        }
+        long start = System.nanoTime();
+        renderItem(graphics, itemId, widgetItem);
+        long elapsed = System.nanoTime() - start;
+        quality.record(elapsed);
+        frameSlots++;
+        frameNanos += elapsed;
+    }
+
     /**
-     * Check if an item should be highlighted based on its name and the configured patterns
+     * Report the frame's work to the flight recorder and start the next one
      */
-    private boolean shouldHighlight(int itemId) {
-        // First check our caches for quick response
-        if (knownMatchingItems.contains(itemId)) {
-            return true;
-        }
-        
-        if (knownNonMatchingItems.contains(itemId)) {
-            return false;
-        }
-        
-        // Get the item name
-        ItemComposition itemComp;
-        try {
-            itemComp = itemManager.getItemComposition(itemId);
-            if (itemComp == null) {
-                knownNonMatchingItems.add(itemId);
-                return false;
-            }
-        } catch (Exception e) {
-            log.debug("Error getting item composition for ID {}: {}", itemId, e.getMessage());
-            knownNonMatchingItems.add(itemId);
-            return false;
-        }
-        
-        // Standardize name for matching
-        String itemName = Text.standardize(itemComp.getName()).toLowerCase();
-        
-        // Get patterns from config
-        String configList = config.itemList();
-        if (configList == null || configList.isEmpty()) {
-            knownNonMatchingItems.add(itemId);
-            return false;
-        }
-        
-        // Only update our cache if config has changed
-        if (!configList.equals(lastConfigList)) {
-            knownMatchingItems.clear();
-            knownNonMatchingItems.clear();
-            lastConfigList = configList;
-        }
-        
-        // Check against all patterns
-        String[] patterns = Text.standardize(configList).toLowerCase().split(",");
-        for (String pattern : patterns) {
-            pattern = pattern.trim();
-            if (pattern.isEmpty()) {
-                continue;
-            }
-            
-            boolean isWildcard = pattern.endsWith("*");
-            if (isWildcard) {
-                String prefix = pattern.substring(0, pattern.length() - 1);
-                if (itemName.startsWith(prefix)) {
-                    knownMatchingItems.add(itemId);
-                    return true;
-                }
-            } else if (itemName.contains(pattern)) {
-                knownMatchingItems.add(itemId);
-                return true;
-            }
+    public void endFrame() {
+        if (frameSlots > 0) {
+            FlightEvents.renderFrame("hover", frameSlots, frameHighlights, frameNanos);
+            frameSlots = 0;
+            frameHighlights = 0;
+            frameNanos = 0;
         }
-        
-        // No match found
-        knownNonMatchingItems.add(itemId);
-        return false;
     }
-
-    @Override
-    public void renderItemOverlay(Graphics2D graphics, int itemId, WidgetItem widgetItem) {
+    
+    private void renderItem(Graphics2D graphics, int itemId, WidgetItem widgetItem) {
         renderCallCount++;
         
         long currentTime = System.currentTimeMillis();
-        if (currentTime - lastLogTime > LOG_INTERVAL_MS) {
-            log.debug("HOVER OVERLAY: processed {} render calls in the last {} seconds", 
-                renderCallCount, LOG_INTERVAL_MS / 1000);
+        if (currentTime - lastRateTime > RATE_INTERVAL_MS) {
+            trace.record(TraceBuffer.RENDER_RATE, -1, renderCallCount, System.nanoTime());
             renderCallCount = 0;
-            lastLogTime = currentTime;
+            lastRateTime = currentTime;
         }
         
         // Only process if hover-only mode is enabled
@@ -156,6 +117,15 @@ public class HoverHighlightOverlay extends WidgetItemOverlay {
             return;
         }
         
+        // A slot scrolled out of the bank can't be hovered
+        if (bankViewport.isCulled(widgetItem)) {
+            return;
+        }
+        
+        if (!containers.isShown(widgetItem) || errors.isTripped(itemId)) {
+            return;
+        }
+        
         try {
             // Get mouse position
             Point mousePos = client.getMouseCanvasPosition();
@@ -170,83 +140,25 @@ public class HoverHighlightOverlay extends WidgetItemOverlay {
             }
             
             // Check if this item should be highlighted based on its name
-            if (!shouldHighlight(itemId)) {
+            HighlightGroup group = classifier.hasConditions()
+                ? containers.getHighlight(widgetItem, itemId) : classifier.getHighlight(itemId);
+            if (group == null) {
                 return;
             }
             
-            // Update hover state when mouse is over a highlightable item
-            hoverState.setHoveredItem(widgetItem);
-            hoverState.setHoveredItemId(itemId);
-            hoverState.setHoveredBounds(bounds);
+            // Update hover state when mouse is over a highlightable item, as one change
+            hoverState.setHovered(widgetItem, itemId, bounds);
             
-            // Log a debug message to show which specific item is being highlighted
-            log.debug("Setting hover state for item: {} at position ({},{})", 
-                getItemName(itemId), (int)bounds.getX(), (int)bounds.getY());
+            int slot = TraceBuffer.slotOf(widgetItem);
+            trace.record(TraceBuffer.HOVER, itemId, slot, System.nanoTime());
             
-            // Get colors from config
-            Color outlineColor = config.outlineColor();
-            Color fillColor = config.fillColor();
-            int thickness = config.outlineThickness();
-            
-            // Save original graphics state
-            Color originalColor = graphics.getColor();
-            Stroke originalStroke = graphics.getStroke();
-            
-            try {
-                // Draw the highlight based on configuration
-                if (config.spriteOnly()) {
-                    // Fill first (if not outline only)
-                    if (!config.outlineOnly()) {
-                        BufferedImage image = itemManager.getImage(itemId);
-                        if (image != null) {
-                            // Use ImageUtil.fillImage to create a filled version that preserves the sprite shape
-                            BufferedImage filledImage = ImageUtil.fillImage(image, fillColor);
-                            graphics.drawImage(filledImage, (int)bounds.getX(), (int)bounds.getY(), null);
-                        }
-                    }
-                    
-                    // Then draw the outline
-                    BufferedImage outline = itemManager.getItemOutline(itemId, thickness, outlineColor);
-                    if (outline != null) {
-                        graphics.drawImage(outline, (int)bounds.getX(), (int)bounds.getY(), null);
-                    }
-                } else {
-                    // Standard clickbox highlight
-                    if (!config.outlineOnly()) {
-                        // Semi-transparent fill
-                        Color fillWithAlpha = new Color(
-                            fillColor.getRed(),
-                            fillColor.getGreen(),
-                            fillColor.getBlue(),
-                            Math.min(fillColor.getAlpha(), 130)
-                        );
-                        graphics.setColor(fillWithAlpha);
-                        graphics.fill(bounds);
-                    }
-                    
-                    // Draw the outline
-                    graphics.setColor(outlineColor);
-                    graphics.setStroke(new BasicStroke(thickness));
-                    graphics.draw(bounds);
-                }
-                
-                log.debug("Highlighted hover item: {} (ID: {})", getItemName(itemId), itemId);
-            } finally {
-                // Restore original graphics state
-                graphics.setColor(originalColor);
-                graphics.setStroke(originalStroke);
+            // Draw the highlight based on configuration and the item's group colors
+            if (painter.draw(graphics, itemId, group, bounds)) {
+                frameHighlights++;
+                trace.record(TraceBuffer.HIGHLIGHT, itemId, slot, System.nanoTime());
             }
         } catch (Exception e) {
-            log.error("Error highlighting hovered item: {}", e.getMessage(), e);
-        }
-    }
-    
-    private String getItemName(int itemId) {
-        try {
-            ItemComposition comp = itemManager.getItemComposition(itemId);
-            return comp != null ? comp.getName() : "Unknown";
-        } catch (Exception e) {
-            return "Unknown";
+            errors.failed(itemId, e);
         }
     }
     
@@ -254,19 +166,10 @@ public class HoverHighlightOverlay extends WidgetItemOverlay {
         hoverState.clear();
     }
     
-    /**
-     * Clear the item match cache when the config changes
-     */
-    public void clearItemCache() {
-        knownMatchingItems.clear();
-        knownNonMatchingItems.clear();
-        lastConfigList = "";
-    }
-    
     /**
      * Get the number of known matching items in cache 
      */
     public int getKnownMatchingItemCount() {
-        return knownMatchingItems.size();
+        return classifier.getMatchedCount();
     }
 } 
\ No newline at end of file
@@ -5,81 +5,108 @@ import javax.inject.Singleton;
 import java.awt.Rectangle;
 import java.awt.Point;
 
+/**
+ * The hovered item, shared between the overlays and the plugin's event handlers. Every change
+ * publishes a new immutable snapshot through a volatile reference, so a reader never sees an item
+ * paired with another item's bounds, or a half-cleared state.
+ */
 @Singleton
 public class HoverState {
-    private WidgetItem hoveredItem;
-    private int hoveredItemId;
-    private Rectangle hoveredBounds;
-    private Point hoveredPosition; // Store the widget position instead of an index
-    
+    private static final Snapshot EMPTY = new Snapshot(null, -1, null);
+
+    private volatile Snapshot current = EMPTY;
+
+    private static final class Snapshot {
+        private final WidgetItem item;
+        private final int itemId;
+        private final Rectangle bounds;
+        private final Point position; // Store the widget position instead of an index
+
+        Snapshot(WidgetItem item, int itemId, Rectangle bounds) {
+            this.item = item;
+            this.itemId = itemId;
+            // Copied, since Rectangle is mutable
+            this.bounds = bounds != null ? new Rectangle(bounds) : null;
+            this.position = bounds != null ? new Point((int) bounds.getX(), (int) bounds.getY()) : null;
+        }
+    }
+
     public WidgetItem getHoveredItem() {
-        return hoveredItem;
+        return current.item;
     }
-    
+
     public void setHoveredItem(WidgetItem hoveredItem) {
-        this.hoveredItem = hoveredItem;
-        if (hoveredItem != null) {
-            this.hoveredBounds = hoveredItem.getCanvasBounds();
-            if (hoveredBounds != null) {
-                // Store the top-left position of the widget item as its identifier
-                this.hoveredPosition = new Point((int)hoveredBounds.getX(), (int)hoveredBounds.getY());
-            }
-        } else {
-            this.hoveredBounds = null;
-            this.hoveredPosition = null;
-        }
+        Snapshot snapshot = current;
+        current = new Snapshot(hoveredItem, snapshot.itemId, hoveredItem != null ? hoveredItem.getCanvasBounds() : null);
     }
-    
+
     public int getHoveredItemId() {
-        return hoveredItemId;
+        return current.itemId;
     }
-    
+
     public void setHoveredItemId(int hoveredItemId) {
-        this.hoveredItemId = hoveredItemId;
+        Snapshot snapshot = current;
+        current = new Snapshot(snapshot.item, hoveredItemId, snapshot.bounds);
     }
 
     public Rectangle getHoveredBounds() {
-        return hoveredBounds;
+        Rectangle bounds = current.bounds;
+        return bounds != null ? new Rectangle(bounds) : null;
     }
 
     public void setHoveredBounds(Rectangle bounds) {
-        this.hoveredBounds = bounds;
-        if (bounds != null) {
-            this.hoveredPosition = new Point((int)bounds.getX(), (int)bounds.getY());
-        } else {
-            this.hoveredPosition = null;
+        Snapshot snapshot = current;
+        current = new Snapshot(snapshot.item, snapshot.itemId, bounds);
+    }
+
+    /**
+     * Set the hovered item, its id and bounds as one change. Hovering the same slot frame after frame
+     * keeps the published snapshot.
+     */
+    public void setHovered(WidgetItem item, int itemId, Rectangle bounds) {
+        Snapshot snapshot = current;
+        if (snapshot.item == item && snapshot.itemId == itemId
+            && (bounds == null ? snapshot.bounds == null : bounds.equals(snapshot.bounds))) {
+            return;
         }
+        current = new Snapshot(item, itemId, bounds);
     }
-    
+
     /**
      * Get the hovered item position
      */
     public Point getHoveredPosition() {
-        return hoveredPosition;
+        Point position = current.position;
+        return position != null ? new Point(position) : null;
     }
-    
+
+    /**
+     * Whether the mouse position lies within the hovered bounds
+     */
+    public boolean isHoveredAt(int x, int y) {
+        Rectangle bounds = current.bounds;
+        return bounds != null && bounds.contains(x, y);
+    }
+
     /**
      * Check if a specific widget item is being hovered
      */
     public boolean isItemHovered(WidgetItem item) {
-        if (hoveredItem == null || item == null || hoveredPosition == null) {
+        Snapshot snapshot = current;
+        if (snapshot.item == null || item == null || snapshot.position == null) {
             return false;
         }
-        
+
         // Compare the canvas bounds positions to identify the specific item
         Rectangle itemBounds = item.getCanvasBounds();
         if (itemBounds == null) {
             return false;
         }
-        
-        Point itemPosition = new Point((int)itemBounds.getX(), (int)itemBounds.getY());
-        return hoveredPosition.equals(itemPosition);
+
+        return snapshot.position.x == (int) itemBounds.getX() && snapshot.position.y == (int) itemBounds.getY();
     }
-    
+
     public void clear() {
-        hoveredItem = null;
-        hoveredItemId = -1;
-        hoveredBounds = null;
-        hoveredPosition = null;
+        current = EMPTY;
     }
-} 
\ No newline at end of file
+}
@@ -5,11 +5,15 @@ import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
 import net.runelite.client.config.ConfigSection;
 import net.runelite.client.config.Alpha;
+import net.runelite.client.config.Keybind;
+import net.runelite.client.config.Range;
 import java.awt.Color;
 
-@ConfigGroup("inventoryhighlighter")
+@ConfigGroup(InventoryHighlighterConfig.GROUP)
 public interface InventoryHighlighterConfig extends Config
 {
+    String GROUP = "inventoryhighlighter";
+
     @ConfigSection(
         name = "Experimental",
         description = "Experimental features that may affect performance",
@@ -17,17 +21,52 @@ public interface InventoryHighlighterConfig extends Config
         closedByDefault = true
     )
     String experimentalSection = "experimental";
+
+    @ConfigSection(
+        name = "Groups",
+        description = "Extra highlight groups, each with its own colors",
+        position = 50
+    )
+    String groupsSection = "groups";
+
+    @ConfigSection(
+        name = "Interfaces",
+        description = "Where items are highlighted besides the inventory and bank",
+        position = 60
+    )
+    String interfacesSection = "interfaces";
     
     @ConfigItem(
         keyName = "itemList",
         name = "Items to Highlight",
-        description = "List of items to highlight (comma-separated)"
+        description = "List of items to highlight (comma-separated). Use * and ? for wildcards, =name or \"name\" for an exact name, #id for an item id, and ! in front to exclude. Conditions like qty<100 or value>1m limit the list to matching stacks"
     )
     default String itemList()
     {
         return "";
     }
 
+    @ConfigItem(
+        keyName = "itemListFile",
+        name = "Item List File",
+        description = "A file of more items to highlight with the list above, one pattern per line or comma separated, for lists too long to edit here. Relative paths are in .runelite/inventory-highlighter. The file is reloaded whenever it changes"
+    )
+    default String itemListFile()
+    {
+        return "";
+    }
+
+    @Range(max = 3)
+    @ConfigItem(
+        keyName = "typoTolerance",
+        name = "Typo Tolerance",
+        description = "Also highlight items whose name is this many typos away from a plain name in the lists, like lobstr for lobster. Allows one typo per four letters; 0 turns it off"
+    )
+    default int typoTolerance()
+    {
+        return 0;
+    }
+
     @Alpha
     @ConfigItem(
         keyName = "outlineColor",
@@ -83,10 +122,102 @@ public interface InventoryHighlighterConfig extends Config
         return true;
     }
 
+    @ConfigItem(
+        keyName = "pulse",
+        name = "Pulse",
+        description = "Fade the sprite fill in and out so highlighted items stand out more. Only with Sprite Only"
+    )
+    default boolean pulse()
+    {
+        return false;
+    }
+
+    @Range(max = 50)
+    @ConfigItem(
+        keyName = "newItemTicks",
+        name = "New Item Flash (ticks)",
+        description = "Also highlight items that just entered the inventory, like loot, withdrawals or crafted items, fading out over this many game ticks. 0 turns it off"
+    )
+    default int newItemTicks()
+    {
+        return 0;
+    }
+
+    @Alpha
+    @ConfigItem(
+        keyName = "newItemColor",
+        name = "New Item Color",
+        description = "The color new items flash in"
+    )
+    default Color newItemColor()
+    {
+        return Color.WHITE;
+    }
+
+    @ConfigItem(
+        keyName = "highlightGroups",
+        name = "Highlight Groups",
+        description = "One group per line: 'Name #outline #fill: item, item*'. Colors are optional (#RRGGBB or #AARRGGBB). Earlier groups win, and the main list comes first. Add qty<N or value>N (k, m, b) to only match some stacks.",
+        section = "groups",
+        position = 51
+    )
+    default String highlightGroups()
+    {
+        return "";
+    }
+
+    @ConfigItem(
+        keyName = "showOnEquipment",
+        name = "Equipment",
+        description = "Highlight worn items in the equipment tab",
+        section = "interfaces",
+        position = 61
+    )
+    default boolean showOnEquipment()
+    {
+        return true;
+    }
+
+    @ConfigItem(
+        keyName = "showOnShops",
+        name = "Shops",
+        description = "Highlight items in a shop's stock",
+        section = "interfaces",
+        position = 62
+    )
+    default boolean showOnShops()
+    {
+        return true;
+    }
+
+    @ConfigItem(
+        keyName = "showOnGrandExchange",
+        name = "Grand Exchange",
+        description = "Highlight items in Grand Exchange offers",
+        section = "interfaces",
+        position = 63
+    )
+    default boolean showOnGrandExchange()
+    {
+        return true;
+    }
+
+    @ConfigItem(
+        keyName = "highlightMenus",
+        name = "Right-click Menus",
+        description = "Color highlighted item names in right-click menus, including Use targets",
+        section = "interfaces",
+        position = 64
+    )
+    default boolean highlightMenus()
+    {
+        return true;
+    }
+
     @ConfigItem(
         keyName = "presets",
         name = "Presets",
-        description = "Store preset strings here for easy swapping. Use comma to separate items. Add * for wildcards (e.g. 'angler*').",
+        description = "One preset per line: 'Name: item, item*'. The active preset replaces Items to Highlight. Switch with the hotkey or ::hlpreset <name|next|off>.",
         position = 99
     )
     default String presets()
@@ -94,6 +225,64 @@ public interface InventoryHighlighterConfig extends Config
         return "";
     }
 
+    @ConfigItem(
+        keyName = "presetHotkey",
+        name = "Next Preset Hotkey",
+        description = "Cycle through the presets, then back to Items to Highlight",
+        position = 100
+    )
+    default Keybind presetHotkey()
+    {
+        return Keybind.NOT_SET;
+    }
+
+    @ConfigItem(
+        keyName = "activePreset",
+        name = "",
+        description = "",
+        hidden = true
+    )
+    default String activePreset()
+    {
+        return "";
+    }
+
+    @ConfigItem(
+        keyName = "adaptiveQuality",
+        name = "Adaptive Quality",
+        description = "Step down to cheaper highlight styles, and finally to the hovered item only, while highlighting takes longer than the frame budget",
+        section = "experimental",
+        position = 101
+    )
+    default boolean adaptiveQuality()
+    {
+        return false;
+    }
+
+    @ConfigItem(
+        keyName = "frameBudget",
+        name = "Frame Budget (us)",
+        description = "Highlighting time per frame, in microseconds, that Adaptive Quality keeps to",
+        section = "experimental",
+        position = 102
+    )
+    default int frameBudget()
+    {
+        return 1000;
+    }
+
+    @ConfigItem(
+        keyName = "spriteAtlas",
+        name = "Sprite Atlas",
+        description = "Pack sprite highlights into a few large images instead of keeping one image per item and color",
+        section = "experimental",
+        position = 103
+    )
+    default boolean spriteAtlas()
+    {
+        return true;
+    }
+
     @ConfigItem(
         keyName = "hoverOnly",
         name = "Hover Only",
@@ -1,5 +1,12 @@
 package com.inventoryhighlighter;
 
+import com.inventoryhighlighter.engine.ClassificationJob;
+import com.inventoryhighlighter.engine.Classifier;
+import com.inventoryhighlighter.engine.PatternList;
+import com.inventoryhighlighter.engine.QualityController;
+import com.inventoryhighlighter.engine.RenderErrors;
+import com.inventoryhighlighter.engine.SliceScheduler;
+import com.google.inject.Binder;
 import com.google.inject.Provides;
 import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
@@ -9,23 +16,31 @@ import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.ui.overlay.OverlayManager;
+import net.runelite.client.input.KeyManager;
+import net.runelite.client.RuneLite;
+import net.runelite.client.util.HotkeyListener;
 import java.awt.Rectangle;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import net.runelite.api.ChatMessageType;
 import net.runelite.api.Point;
+import net.runelite.api.events.CommandExecuted;
 import net.runelite.api.events.GameTick;
+import net.runelite.api.events.GrandExchangeOfferChanged;
 import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.MenuEntryAdded;
+import net.runelite.api.events.BeforeRender;
 import net.runelite.api.events.ClientTick;
 import net.runelite.api.events.WidgetLoaded;
 import net.runelite.api.ItemComposition;
 import net.runelite.client.game.ItemManager;
-import net.runelite.api.InventoryID;
 import net.runelite.client.callback.ClientThread;
 
 //Commented out imports as they currently arent used, but may be used in the future
 //import net.runelite.api.widgets.WidgetItem;
 //import net.runelite.api.ItemContainer;
 //import net.runelite.api.widgets.WidgetInfo;
-//import net.runelite.api.MenuEntry;
-//import net.runelite.api.events.MenuEntryAdded;
 //import net.runelite.api.widgets.Widget;
 //import net.runelite.api.widgets.ComponentID;
 
@@ -40,7 +55,6 @@ public class InventoryHighlighterPlugin extends Plugin
 {
     @Inject
     private Client client;
-    //This was used for a feature that was removed but may be used in the future if i can get it to work
     @Inject
     private ClientThread clientThread;
     
@@ -56,15 +70,70 @@ public class InventoryHighlighterPlugin extends Plugin
     @Inject
     private HoverState hoverState;
     
+    @Inject
+    private ItemClassifier classifier;
+    
+    @Inject
+    private HighlightSpriteCache spriteCache;
+    
+    @Inject
+    private ClassificationJob classificationJob;
+    
+    @Inject
+    private ContainerRegistry containers;
+    
+    @Inject
+    private PriceSnapshot prices;
+    
+    @Inject
+    private MenuHighlighter menuHighlighter;
+    
+    @Inject
+    private QualityController quality;
+    
+    @Inject
+    private RenderErrors renderErrors;
+    
+    @Inject
+    private ItemIndex itemIndex;
+    
+    @Inject
+    private TraceBuffer trace;
+    
+    @Inject
+    private ItemListFile itemListFile;
+    
     @Inject
     private InventoryHighlighterConfig config;
     
     @Inject
     private ItemManager itemManager;
     
+    @Inject
+    private ConfigManager configManager;
+    
+    @Inject
+    private KeyManager keyManager;
+    
+    private static final String PRESET_COMMAND = "hlpreset";
+    private static final String TRACE_COMMAND = "hltrace";
+    private static final File TRACE_DIR = new File(RuneLite.RUNELITE_DIR, "inventory-highlighter");
+    
     // Track configuration to detect changes
     private boolean lastHoverOnlyValue = true;
     private String lastItemListValue = "";
+    private String lastGroupsValue = "";
+    private String lastItemListFileValue = "";
+    
+    private final HotkeyListener presetHotkeyListener = new HotkeyListener(() -> config.presetHotkey())
+    {
+        @Override
+        public void hotkeyPressed()
+        {
+            // Key events arrive on the AWT thread; switch on the client thread like the command does
+            clientThread.invoke(() -> selectPreset(nextPresetName()));
+        }
+    };
     
     // Last mouse position for optimization
     private int lastMouseX = -1;
@@ -82,11 +151,26 @@ public class InventoryHighlighterPlugin extends Plugin
         
         // Track initial config values
         lastHoverOnlyValue = config.hoverOnly();
-        lastItemListValue = config.itemList();
+        lastItemListValue = activeItemList();
+        lastGroupsValue = config.highlightGroups();
+        
+        // Compile the main list and every highlight group into the shared matcher
+        classifier.setFuzzyDistance(config.typoTolerance());
+        classifier.update(lastItemListValue, lastGroupsValue);
+        
+        // Entries from the item list file join the main list once read, and on every change after
+        lastItemListFileValue = config.itemListFile();
+        itemListFile.watch(lastItemListFileValue, this::applyFileEntries);
         
         // Clear hover state
         hoverState.clear();
         
+        menuHighlighter.setEnabled(config.highlightMenus());
+        menuHighlighter.setDefaultColor(config.outlineColor());
+        quality.configure(config.adaptiveQuality(), config.frameBudget());
+        spriteCache.setAtlasEnabled(config.spriteAtlas());
+        containers.setRecentHighlight(config.newItemTicks(), config.newItemColor());
+        
         // Always add main overlay
         overlayManager.add(overlay);
         
@@ -94,24 +178,49 @@ public class InventoryHighlighterPlugin extends Plugin
         if (config.hoverOnly()) {
             overlayManager.add(hoverOverlay);
         }
+        
+        keyManager.registerKeyListener(presetHotkeyListener);
     }
 
     @Override
     protected void shutDown()
     {
+        keyManager.unregisterKeyListener(presetHotkeyListener);
+        itemListFile.stop();
         overlayManager.remove(overlay);
         overlayManager.remove(hoverOverlay);
         hoverState.clear();
+        containers.clear();
         
         log.info("InventoryHighlighter stopped");
     }
 
+    @Override
+    public void configure(Binder binder)
+    {
+        // The engine's classes know nothing of the client; these adapt it
+        binder.bind(SliceScheduler.class).to(ClientThreadScheduler.class);
+        binder.bind(Classifier.class).to(ItemClassifier.class);
+    }
+    
     @Provides
     InventoryHighlighterConfig provideConfig(ConfigManager configManager)
     {
         return configManager.getConfig(InventoryHighlighterConfig.class);
     }
     
+    @Subscribe
+    public void onBeforeRender(BeforeRender event) {
+        // The overlays drew the previous frame; let the quality level follow its cost
+        quality.endFrame();
+        if (overlay != null) {
+            overlay.endFrame();
+        }
+        if (hoverOverlay != null) {
+            hoverOverlay.endFrame();
+        }
+    }
+    
     @Subscribe
     public void onClientTick(ClientTick event) {
         if (!config.hoverOnly()) {
@@ -151,24 +260,109 @@ public class InventoryHighlighterPlugin extends Plugin
     
     @Subscribe
     public void onItemContainerChanged(ItemContainerChanged event) {
-        // Only process relevant containers - I tried to use non deprecated containers but it wasnt working
-        if (event.getContainerId() != InventoryID.INVENTORY.getId() && 
-            event.getContainerId() != InventoryID.BANK.getId()) {
+        // Diff against the container's last contents; ids in changed slots are classified ahead of
+        // the overlays, a slice per client tick
+        if (containers.update(event.getContainerId(), event.getItemContainer()) == 0) {
             return;
         }
         
-        // Clear hover state when inventory or bank changes
+        // Clear hover state when a container changes
         hoverState.clear();
-        if (hoverOverlay != null) {
-            hoverOverlay.clearItemCache();
-        }
+        FlightEvents.invalidated("container");
             
-        // Clear main overlay cache for container changes
+        // Reset the main overlay's processing state for container changes. Verdicts are keyed
+        // by item id and stay valid, so they are not cleared here.
         if (overlay != null) {
             overlay.clearCache();
         }
     }
     
+    @Subscribe
+    public void onGrandExchangeOfferChanged(GrandExchangeOfferChanged event) {
+        // Offers aren't an item container; the registry keeps all of them as one
+        if (containers.updateOffers(client.getGrandExchangeOffers()) > 0) {
+            FlightEvents.invalidated("container");
+        }
+    }
+    
+    @Subscribe
+    public void onMenuEntryAdded(MenuEntryAdded event) {
+        menuHighlighter.onMenuEntryAdded(event.getMenuEntry());
+    }
+    
+    @Subscribe
+    public void onCommandExecuted(CommandExecuted event) {
+        if (TRACE_COMMAND.equalsIgnoreCase(event.getCommand())) {
+            dumpTrace();
+            return;
+        }
+        if (!PRESET_COMMAND.equalsIgnoreCase(event.getCommand())) {
+            return;
+        }
+        
+        String name = String.join(" ", event.getArguments()).trim();
+        if (name.isEmpty() || name.equalsIgnoreCase("next")) {
+            name = nextPresetName();
+        } else if (name.equalsIgnoreCase("off")) {
+            name = "";
+        } else {
+            Preset preset = Preset.find(Preset.parse(config.presets()), name);
+            if (preset == null) {
+                chatMessage("No highlight preset named '" + name + "'");
+                return;
+            }
+            name = preset.getName();
+        }
+        selectPreset(name);
+    }
+    
+    /**
+     * Write the render trace buffer to a file and say where
+     */
+    private void dumpTrace() {
+        File file = new File(TRACE_DIR, "trace-" + System.currentTimeMillis() + ".txt");
+        try {
+            trace.dump(file);
+            chatMessage("Highlight trace written to " + file.getAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Unable to write highlight trace to {}", file, e);
+            chatMessage("Unable to write highlight trace: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * The preset after the active one; after the last preset this goes back to the main list
+     */
+    private String nextPresetName() {
+        List<Preset> presets = Preset.parse(config.presets());
+        Preset active = Preset.find(presets, config.activePreset());
+        int next = active == null ? 0 : presets.indexOf(active) + 1;
+        return next < presets.size() ? presets.get(next).getName() : "";
+    }
+    
+    /**
+     * Activate a preset by name, or the main item list for an empty name. The switch is applied
+     * right away rather than on the next game tick; recently used presets are still compiled and
+     * keep their verdicts in the classifier, so switching back and forth is free.
+     */
+    private void selectPreset(String name) {
+        configManager.setConfiguration(InventoryHighlighterConfig.GROUP, "activePreset", name);
+        applyItemList(activeItemList(), config.highlightGroups());
+        chatMessage(name.isEmpty() ? "Highlighting Items to Highlight" : "Highlight preset: " + name);
+    }
+    
+    /**
+     * The item list of the active preset, or the main item list when no preset is active
+     */
+    private String activeItemList() {
+        Preset preset = Preset.find(Preset.parse(config.presets()), config.activePreset());
+        return preset != null ? preset.getItemList() : config.itemList();
+    }
+    
+    private void chatMessage(String message) {
+        client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", message, null);
+    }
+    
     @Subscribe
     public void onWidgetLoaded(WidgetLoaded event) {
         // Clear hover state when a widget loads (like opening bank or inventory)
@@ -178,6 +372,7 @@ public class InventoryHighlighterPlugin extends Plugin
         }
         
         // Clear cache when widgets change
+        FlightEvents.invalidated("widget");
         if (overlay != null) {
             overlay.clearCache();
         }
@@ -204,6 +399,28 @@ public class InventoryHighlighterPlugin extends Plugin
         // Check for config changes
         checkConfigChanges();
         
+        // Items can be looked up once logged in; name every item once so patterns resolve up front
+        itemIndex.start();
+        
+        // With every item named, typos can resolve to items never seen yet
+        if (itemIndex.isComplete() && classifier.refreshFuzzyMatches()) {
+            FlightEvents.invalidated("config");
+            if (overlay != null) {
+                overlay.clearCache();
+            }
+            containers.classifyAll();
+        }
+        
+        // Prices may have moved since the last tick; recheck value conditions
+        prices.nextTick();
+        containers.refreshValues();
+        
+        // New items fade by a step each tick; only the fading slots are visited
+        containers.tickRecent();
+        
+        // Summarize highlight errors that stopped recurring since the last one was logged
+        renderErrors.flush();
+        
         // Log performance statistics periodically
         tickCounter++;
         if (tickCounter % PERF_LOG_INTERVAL == 0) {
@@ -233,10 +450,43 @@ public class InventoryHighlighterPlugin extends Plugin
         // Add hover mode info to help understand performance characteristics
         stats.append(", Hover-only mode: ").append(config.hoverOnly());
         
+        // Every cache is bounded; report what they hold so long sessions show a predictable heap
+        stats.append(String.format(", Memory: %d verdicts in %d pattern sets, %d names (%d KB), %d sprites (%d of %d KB)",
+            classifier.getCachedVerdicts(), classifier.getCachedPatternSets(), classifier.getKnownNames(),
+            classifier.getFootprintBytes() / 1024,
+            spriteCache.getSize(), spriteCache.getFootprintBytes() / 1024, HighlightSpriteCache.MAX_BYTES / 1024));
+        if (config.spriteAtlas()) {
+            stats.append(String.format(" in %d atlas pages (%d evicted, %d compactions)", spriteCache.getAtlasPages(),
+                spriteCache.getAtlasEvictions(), spriteCache.getAtlasCompactions()));
+        }
+        stats.append(String.format(", Pre-classified: %d slices, last job %d us, last pattern change %d us",
+            classificationJob.getSlices(), classificationJob.getLastJobNanos() / 1000,
+            classifier.getLastBatchNanos() / 1000));
+        stats.append(itemIndex.isComplete()
+            ? String.format(", Item index: %d names (%d distinct) in %d ms", classifier.getKnownNames(),
+                classifier.getDistinctNames(), itemIndex.getScanNanos() / 1_000_000)
+            : String.format(", Item index: %d names so far", classifier.getKnownNames()));
+        stats.append(String.format(", Containers: %d tracked, %d of %d slots changed, %d settled, %d price lookups (%d KB)",
+            containers.getContainerCount(), containers.getChangedSlots(), containers.getDiffedSlots(),
+            containers.getSettledSlots(), prices.getPriceLookups(), prices.getFootprintBytes() / 1024));
+        stats.append(String.format(", Menu entries: %d recolored of %d",
+            menuHighlighter.getRecolored(), menuHighlighter.getEntries()));
+        stats.append(String.format(", Traced events: %d", trace.getRecorded()));
+        stats.append(String.format(", Render errors: %d (%d summarized), %d items skipped (%d skips, %d trips)",
+            renderErrors.getFailures(), renderErrors.getSuppressed(), renderErrors.getOpenCount(),
+            renderErrors.getSkipped(), renderErrors.getTrips()));
+        
         log.debug("PERFORMANCE: {}", stats.toString());
     }
     
     private void checkConfigChanges() {
+        // Menu entries are added too often to read the config for each one
+        menuHighlighter.setEnabled(config.highlightMenus());
+        menuHighlighter.setDefaultColor(config.outlineColor());
+        quality.configure(config.adaptiveQuality(), config.frameBudget());
+        spriteCache.setAtlasEnabled(config.spriteAtlas());
+        containers.setRecentHighlight(config.newItemTicks(), config.newItemColor());
+        
         // Handle hover-only mode changes
         boolean currentHoverOnly = config.hoverOnly();
         if (currentHoverOnly != lastHoverOnlyValue) {
@@ -252,6 +502,7 @@ public class InventoryHighlighterPlugin extends Plugin
             }
             
             // Clear caches on mode switch
+            FlightEvents.invalidated("config");
             if (overlay != null) {
                 overlay.clearCache();
             }
@@ -259,21 +510,55 @@ public class InventoryHighlighterPlugin extends Plugin
             lastHoverOnlyValue = currentHoverOnly;
         }
         
-        // Track item list changes
-        String currentItemList = config.itemList();
-        if (!currentItemList.equals(lastItemListValue)) {
+        // Track item list, preset and group changes
+        String currentItemList = activeItemList();
+        String currentGroups = config.highlightGroups();
+        boolean typosChanged = classifier.setFuzzyDistance(config.typoTolerance());
+        if (typosChanged || !currentItemList.equals(lastItemListValue) || !currentGroups.equals(lastGroupsValue)) {
             log.debug("Item list changed to: '{}'", currentItemList);
-            lastItemListValue = currentItemList;
-            
-            // Clear the hover overlay's item cache
-            if (hoverOverlay != null) {
-                hoverOverlay.clearItemCache();
+            applyItemList(currentItemList, currentGroups);
+        }
+        
+        String currentItemListFile = config.itemListFile();
+        if (!currentItemListFile.equals(lastItemListFileValue)) {
+            log.debug("Item list file changed to: '{}'", currentItemListFile);
+            lastItemListFileValue = currentItemListFile;
+            itemListFile.watch(currentItemListFile, this::applyFileEntries);
+        }
+    }
+    
+    private void applyItemList(String itemList, String groups) {
+        lastItemListValue = itemList;
+        lastGroupsValue = groups;
+        
+        // Switch the shared matcher, recompiling only if this pattern set isn't cached
+        classifier.update(itemList, groups);
+        
+        // Clear the main overlay's cache
+        FlightEvents.invalidated("config");
+        if (overlay != null) {
+            overlay.clearCache();
+        }
+        
+        // A new pattern set has no verdicts for what is already on screen
+        containers.classifyAll();
+    }
+    
+    /**
+     * Apply entries read by the item list file's watcher, on the client thread. Only items the
+     * added or removed entries can hit are matched again.
+     */
+    private void applyFileEntries(PatternList.Delta delta) {
+        clientThread.invokeLater(() -> {
+            if (!classifier.updateFileEntries(delta)) {
+                return;
             }
             
-            // Clear the main overlay's cache
+            FlightEvents.invalidated("config");
             if (overlay != null) {
                 overlay.clearCache();
             }
-        }
+            containers.classifyAll();
+        });
     }
 }
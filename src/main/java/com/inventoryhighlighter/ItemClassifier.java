@@ -0,0 +1,717 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.BkTree;
+import com.inventoryhighlighter.engine.Classifier;
+import com.inventoryhighlighter.engine.ItemMatcher;
+import com.inventoryhighlighter.engine.NameTable;
+import com.inventoryhighlighter.engine.PatternList;
+import com.inventoryhighlighter.engine.VerdictTable;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ItemComposition;
+import net.runelite.client.util.Text;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared item classification for both overlays. Every highlight group is compiled into a single
+ * {@link ItemMatcher}, and the resulting group index is cached per item id in a {@link VerdictTable},
+ * so adding groups (and colors) does not add matching passes.
+ * <p>
+ * The last few compiled pattern sets are kept together with their verdicts, so switching back to a
+ * recent preset (or undoing an edit) needs neither a recompile nor any item lookups. A new pattern
+ * set starts out with a verdict for every item looked up so far: their standardized names are kept
+ * in a {@link NameTable} that outlives every pattern change, and the new matcher runs over them in
+ * one batch before the set is published.
+ * <p>
+ * The active pattern set is an immutable snapshot published through a volatile reference. Renderers
+ * read it once per item and never lock; updates and invalidations from any thread swap in a new
+ * snapshot (with a fresh verdict table) instead of clearing the old one, so a renderer only ever
+ * sees a complete pattern set with its own verdicts.
+ * <p>
+ * Entries from an item list file join the main list. A change to them is applied incrementally:
+ * only items a changed pattern can hit are matched again, and every other verdict carries over.
+ * <p>
+ * With typo tolerance on, each plain pattern is looked up once per compile in a {@link BkTree} of
+ * the known names, and every name within reach joins its group as an exact name pattern. Typos cost
+ * nothing after that: the items they resolve to get verdicts like any other.
+ */
+@Slf4j
+@Singleton
+public class ItemClassifier implements Classifier {
+    // The matcher keeps one bit per group; verdicts are stored in a byte
+    static final int MAX_GROUPS = ItemMatcher.MAX_GROUPS;
+
+    // How many compiled pattern sets (and their verdicts) to keep around
+    private static final int RECENT_PATTERN_SETS = 4;
+
+    // Typo tolerance allows one edit per this many characters of a pattern, so short ones stay exact
+    static final int CHARS_PER_TYPO = 4;
+
+    private final ItemSource itemSource;
+
+    // Never invalidated: item names don't change within a session
+    private final NameTable names = new NameTable();
+
+    // Recently used pattern sets keyed by their sources, least recently used first; guarded by this
+    private final Map<String, CompiledPatterns> recentPatterns =
+        new LinkedHashMap<String, CompiledPatterns>(RECENT_PATTERN_SETS + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledPatterns> eldest) {
+                return size() > RECENT_PATTERN_SETS;
+            }
+        };
+
+    private volatile CompiledPatterns active = new CompiledPatterns(Collections.emptyList(), ItemMatcher.EMPTY);
+    private String activeKey;
+    private String activeItemList;
+
+    // Standardized entries of the item list file, appended to the main list; guarded by this
+    private List<String> fileEntries = Collections.emptyList();
+    private Set<String> fileEntrySet = Collections.emptySet();
+
+    // Edits a plain pattern tolerates, 0 when off, with the index of known names it searches and the
+    // names found per pattern; guarded by this
+    private int fuzzyDistance = 0;
+    private BkTree fuzzyIndex;
+    private int fuzzyIndexNames = -1;
+    private final Map<String, List<String>> fuzzyMatches = new HashMap<>();
+
+    // Written under the lock, read from anywhere
+    private volatile long invalidations = 0;
+    private volatile long recompiles = 0;
+    private volatile long reuses = 0;
+    private volatile long lastBatchNanos = 0;
+    private volatile int lastRematched = 0;
+
+    // Counted on the render path
+    private final AtomicLong compositionLookups = new AtomicLong();
+    private final AtomicLong sharedVerdicts = new AtomicLong();
+
+    /**
+     * A compiled pattern set and the verdicts produced with it
+     */
+    private static final class CompiledPatterns {
+        private final List<HighlightGroup> groups;
+        private final ItemMatcher matcher;
+        private final VerdictTable verdicts = new VerdictTable();
+        private final boolean conditions;
+        private final boolean valueConditions;
+        /** How many names were known when every known name was last classified into the verdicts */
+        private int classifiedNames;
+
+        CompiledPatterns(List<HighlightGroup> groups, ItemMatcher matcher) {
+            this.groups = groups;
+            this.matcher = matcher;
+
+            boolean any = false;
+            boolean value = false;
+            for (HighlightGroup group : groups) {
+                any |= group.hasConditions();
+                value |= group.hasValueConditions();
+            }
+            this.conditions = any;
+            this.valueConditions = value;
+        }
+    }
+
+    @Inject
+    ItemClassifier(ItemSource itemSource) {
+        this.itemSource = itemSource;
+    }
+
+    /**
+     * Switch to the pattern set for the main item list and group config, reusing a recently
+     * compiled one when possible. Returns true if the active pattern set changed.
+     */
+    public synchronized boolean update(String itemList, String groupConfig) {
+        String key = (itemList == null ? "" : itemList) + '\u0000' + (groupConfig == null ? "" : groupConfig);
+        if (key.equals(activeKey)) {
+            return false;
+        }
+        activeKey = key;
+        activeItemList = itemList;
+
+        CompiledPatterns recent = recentPatterns.get(key);
+        if (recent != null) {
+            reuses++;
+            if (recent.classifiedNames != names.size()) {
+                // names were learned while this set was not active, such as by the item index
+                classifyKnownNames(recent);
+            }
+            active = recent;
+            log.debug("Reusing compiled patterns ({} verdicts cached)", recent.verdicts.getMatchedCount());
+            return true;
+        }
+
+        List<HighlightGroup> compiled = new ArrayList<>();
+        compiled.add(mainGroup(itemList));
+        for (HighlightGroup group : HighlightGroup.parseGroups(groupConfig)) {
+            if (compiled.size() >= MAX_GROUPS) {
+                log.warn("Ignoring highlight groups beyond the first {}", MAX_GROUPS);
+                break;
+            }
+            compiled.add(group);
+        }
+
+        refreshFuzzyIndex();
+        CompiledPatterns patterns = new CompiledPatterns(Collections.unmodifiableList(compiled), compile(compiled));
+        classifyKnownNames(patterns);
+        active = patterns;
+        recentPatterns.put(key, active);
+        recompiles++;
+        invalidations++;
+
+        log.debug("Compiled {} patterns across {} groups, {} known items classified in {} us",
+            active.matcher.size(), active.groups.size(), names.size(), lastBatchNanos / 1000);
+        return true;
+    }
+
+    /**
+     * Replace the entries the item list file adds to the main list, working out which entries
+     * changed by comparing them with the current ones. See {@link #updateFileEntries(PatternList.Delta)}.
+     */
+    public synchronized boolean updateFileEntries(List<String> entries) {
+        if (entries.equals(fileEntries)) {
+            return false;
+        }
+        return replaceFileEntries(entries, null);
+    }
+
+    /**
+     * Apply a reload of the item list file, taking the added and removed entries from the delta.
+     * The whole matcher is still compiled again from every pattern; what is incremental is the
+     * verdicts: only items the added or removed entries can hit are matched again and every other
+     * verdict carries over, so editing a few lines of a long list costs little more than the
+     * compile. Returns true if the active pattern set changed.
+     */
+    public synchronized boolean updateFileEntries(PatternList.Delta delta) {
+        if (delta.isEmpty() && delta.getEntries().equals(fileEntries)) {
+            return false;
+        }
+        List<String> changed = new ArrayList<>(delta.getAdded().size() + delta.getRemoved().size());
+        changed.addAll(delta.getAdded());
+        changed.addAll(delta.getRemoved());
+        return replaceFileEntries(delta.getEntries(), changed);
+    }
+
+    /**
+     * @param changed the entries added or removed, or null to compare the main list's patterns
+     */
+    private boolean replaceFileEntries(List<String> entries, List<String> changed) {
+        fileEntries = entries;
+        fileEntrySet = new HashSet<>(entries);
+
+        // Kept pattern sets were compiled with the old entries
+        recentPatterns.clear();
+
+        // Names learned since the last compile can change what unchanged typos resolve to
+        boolean reindexed = refreshFuzzyIndex();
+
+        CompiledPatterns previous = active;
+        List<HighlightGroup> compiled = new ArrayList<>(previous.groups);
+        HighlightGroup main = mainGroup(activeItemList);
+        if (compiled.isEmpty()) {
+            compiled.add(main);
+            changed = main.getPatterns();
+        } else {
+            if (changed == null) {
+                changed = changedPatterns(compiled.get(0).getPatterns(), main.getPatterns());
+            }
+            compiled.set(0, main);
+        }
+
+        CompiledPatterns patterns = new CompiledPatterns(Collections.unmodifiableList(compiled), compile(compiled));
+        if (reindexed) {
+            classifyKnownNames(patterns);
+            lastRematched = names.size();
+        } else {
+            carryOverVerdicts(previous, patterns,
+                ItemMatcher.compile(Collections.singletonList(withFuzzyMatches(changed))));
+        }
+        active = patterns;
+        if (activeKey != null) {
+            recentPatterns.put(activeKey, active);
+        }
+        recompiles++;
+        invalidations++;
+
+        log.debug("Item list file now has {} entries; {} patterns changed, {} known items matched again in {} us",
+            entries.size(), changed.size(), lastRematched, lastBatchNanos / 1000);
+        return true;
+    }
+
+    /**
+     * The main list's group: the configured patterns followed by the file's entries
+     */
+    private HighlightGroup mainGroup(String itemList) {
+        List<String> patterns = HighlightGroup.splitPatterns(itemList);
+        patterns.addAll(fileEntries);
+        return new HighlightGroup("Items to Highlight", null, null, patterns);
+    }
+
+    /**
+     * Patterns in one list but not the other
+     */
+    private static List<String> changedPatterns(List<String> before, List<String> after) {
+        Set<String> beforeSet = new HashSet<>(before);
+        Set<String> afterSet = new HashSet<>(after);
+        List<String> changed = new ArrayList<>();
+        for (String pattern : afterSet) {
+            if (!beforeSet.contains(pattern)) {
+                changed.add(pattern);
+            }
+        }
+        for (String pattern : beforeSet) {
+            if (!afterSet.contains(pattern)) {
+                changed.add(pattern);
+            }
+        }
+        return changed;
+    }
+
+    private ItemMatcher compile(List<HighlightGroup> groups) {
+        List<List<String>> patterns = new ArrayList<>(groups.size());
+        for (HighlightGroup group : groups) {
+            patterns.add(withFuzzyMatches(group.getPatterns()));
+        }
+        return ItemMatcher.compile(patterns);
+    }
+
+    /**
+     * Set how many typos a plain pattern tolerates, 0 for none. Returns true if it changed, in which
+     * case the next {@link #update} recompiles.
+     */
+    public synchronized boolean setFuzzyDistance(int distance) {
+        distance = Math.max(0, distance);
+        if (distance == fuzzyDistance) {
+            return false;
+        }
+        fuzzyDistance = distance;
+        fuzzyMatches.clear();
+        recentPatterns.clear();
+        activeKey = null;
+        return true;
+    }
+
+    /**
+     * Resolve typos again if names were learned since they last were, such as once the
+     * {@link ItemIndex} has named every item. Returns true if the active pattern set changed.
+     */
+    public synchronized boolean refreshFuzzyMatches() {
+        if (fuzzyDistance == 0 || fuzzyIndexNames == names.getDistinctCount()) {
+            return false;
+        }
+
+        recentPatterns.clear();
+        refreshFuzzyIndex();
+        CompiledPatterns patterns = new CompiledPatterns(active.groups, compile(active.groups));
+        classifyKnownNames(patterns);
+        active = patterns;
+        if (activeKey != null) {
+            recentPatterns.put(activeKey, active);
+        }
+        recompiles++;
+        invalidations++;
+
+        log.debug("Resolved typos against {} known names, {} known items classified in {} us",
+            fuzzyIndex.size(), names.size(), lastBatchNanos / 1000);
+        return true;
+    }
+
+    /**
+     * The patterns followed by an exact name pattern for every known name within typo distance of a
+     * plain pattern from the config. Exclusions stay exclusions.
+     */
+    private List<String> withFuzzyMatches(List<String> patterns) {
+        if (fuzzyDistance == 0) {
+            return patterns;
+        }
+        if (fuzzyIndex == null) {
+            refreshFuzzyIndex();
+        }
+
+        List<String> expanded = new ArrayList<>(patterns);
+        for (String pattern : patterns) {
+            // The item list file's entries stay exact: a file of thousands would take as many searches
+            if (fileEntrySet.contains(pattern)) {
+                continue;
+            }
+            boolean exclude = pattern.startsWith("!");
+            String term = exclude ? pattern.substring(1).trim() : pattern;
+            int distance = Math.min(fuzzyDistance, term.length() / CHARS_PER_TYPO);
+            if (distance == 0 || !isPlainTerm(term)) {
+                continue;
+            }
+            for (String name : fuzzyMatches.computeIfAbsent(term, t -> fuzzyIndex.search(t, distance))) {
+                expanded.add((exclude ? "!=" : "=") + name);
+            }
+        }
+        return expanded;
+    }
+
+    /**
+     * Whether the pattern is plain text, without wildcards, an exact name or an id
+     */
+    private static boolean isPlainTerm(String pattern) {
+        if (pattern.startsWith("=") || pattern.startsWith("\"") || pattern.startsWith("#")) {
+            return false;
+        }
+        return pattern.indexOf('*') < 0 && pattern.indexOf('?') < 0;
+    }
+
+    /**
+     * Index the known names for typo lookups, unless no name was learned since the last time.
+     * Returns true if the index was rebuilt. Only done before compiling a pattern set, so each
+     * compile resolves its typos against one index.
+     */
+    private boolean refreshFuzzyIndex() {
+        int distinct = names.getDistinctCount();
+        if (fuzzyDistance == 0 || distinct == fuzzyIndexNames) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        BkTree index = new BkTree();
+        names.forEachName((itemName, itemIds, count) -> {
+            if (!itemName.isEmpty()) {
+                index.add(itemName);
+            }
+        });
+        fuzzyIndex = index;
+        fuzzyIndexNames = distinct;
+        fuzzyMatches.clear();
+        log.debug("Indexed {} names for typo tolerance in {} us", index.size(), (System.nanoTime() - start) / 1000);
+        return true;
+    }
+
+    /**
+     * Fill in the active pattern set's verdict for every item whose name is known, such as once the
+     * {@link ItemIndex} has read every item in the game
+     */
+    public synchronized void classifyKnownNames() {
+        classifyKnownNames(active);
+    }
+
+    /**
+     * Fill in the verdict of every item whose name is already known, without any item lookups. Each
+     * distinct name goes through the matcher once, for all the ids that carry it.
+     */
+    private void classifyKnownNames(CompiledPatterns patterns) {
+        long start = System.nanoTime();
+        ItemMatcher matcher = patterns.matcher;
+        VerdictTable verdicts = patterns.verdicts;
+        patterns.classifiedNames = names.size();
+        names.forEachName((itemName, itemIds, count) -> {
+            long nameBits = itemName.isEmpty() ? 0 : matcher.nameBits(itemName);
+            for (int i = 0; i < count; i++) {
+                verdicts.put(itemIds[i], matcher.match(itemIds[i], nameBits));
+            }
+        });
+        lastBatchNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Fill in the verdict of every item whose name is known, keeping the previous pattern set's
+     * verdict for items none of the changed patterns hit. Only those the changes hit, by name or id,
+     * go through the full matcher.
+     */
+    private void carryOverVerdicts(CompiledPatterns previous, CompiledPatterns patterns, ItemMatcher changes) {
+        long start = System.nanoTime();
+        ItemMatcher matcher = patterns.matcher;
+        VerdictTable verdicts = patterns.verdicts;
+        patterns.classifiedNames = names.size();
+        int[] rematched = new int[1];
+        names.forEachName((itemName, itemIds, count) -> {
+            long changedBits = itemName.isEmpty() ? 0 : changes.nameBits(itemName);
+            long nameBits = 0;
+            boolean matched = false;
+            for (int i = 0; i < count; i++) {
+                int itemId = itemIds[i];
+                int verdict = previous.verdicts.get(itemId);
+                if (verdict == VerdictTable.UNKNOWN || changes.matchesAny(itemId, changedBits)) {
+                    if (!matched && !itemName.isEmpty()) {
+                        nameBits = matcher.nameBits(itemName);
+                        matched = true;
+                    }
+                    verdict = matcher.match(itemId, nameBits);
+                    rematched[0]++;
+                }
+                verdicts.put(itemId, verdict);
+            }
+        });
+        lastRematched = rematched[0];
+        lastBatchNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Look the item up for the name table unless its name is already known, without classifying it.
+     * Returns whether it was looked up.
+     */
+    boolean learnName(int itemId) {
+        if (names.get(itemId) != null) {
+            return false;
+        }
+        lookUpName(itemId, null, null);
+        return true;
+    }
+
+    /**
+     * Group index for the item, matching and caching it on first sight, or {@link ItemMatcher#NO_MATCH}
+     */
+    @Override
+    public int classify(int itemId) {
+        return classify(active, itemId);
+    }
+
+    /**
+     * The group the item is highlighted with, or null. The verdict and the group come from the same
+     * snapshot, so a concurrent update can never pair a verdict with another pattern set's groups.
+     */
+    public HighlightGroup getHighlight(int itemId) {
+        CompiledPatterns patterns = active;
+        int group = classify(patterns, itemId);
+        return group == ItemMatcher.NO_MATCH ? null : patterns.groups.get(group);
+    }
+
+    /**
+     * The group a stack is highlighted with, or null. Groups whose quantity or value conditions the
+     * stack fails are skipped for the next matching group. Meant for slot evaluation rather than the
+     * draw loop: falling through costs a name match.
+     */
+    public HighlightGroup getHighlight(int itemId, int quantity, PriceSnapshot prices) {
+        CompiledPatterns patterns = active;
+        int group = classify(patterns, itemId);
+        while (group != ItemMatcher.NO_MATCH) {
+            HighlightGroup highlight = patterns.groups.get(group);
+            if (!highlight.hasConditions() || highlight.matchesStack(itemId, quantity, prices)) {
+                return highlight;
+            }
+            group = matchAfter(patterns.matcher, itemId, group);
+        }
+        return null;
+    }
+
+    private int matchAfter(ItemMatcher matcher, int itemId, int group) {
+        String itemName = names.get(itemId);
+        if (itemName == null) {
+            itemName = lookUpName(itemId, null, null);
+        }
+        return itemName == null ? ItemMatcher.NO_MATCH : matcher.match(itemId, itemName, group + 1);
+    }
+
+    private int classify(CompiledPatterns patterns, int itemId) {
+        int verdict = patterns.verdicts.get(itemId);
+        if (verdict != VerdictTable.UNKNOWN) {
+            FlightEvents.classified(itemId, true, verdict, 0);
+            return verdict;
+        }
+
+        long start = FlightEvents.isClassificationEnabled() ? System.nanoTime() : 0;
+
+        // Id patterns are answered without an item lookup unless a name pattern could change the verdict
+        ItemMatcher matcher = patterns.matcher;
+        verdict = matcher.matchId(itemId);
+        if (verdict == ItemMatcher.NEEDS_NAME) {
+            verdict = matchName(matcher, patterns.verdicts, itemId);
+        }
+        patterns.verdicts.put(itemId, verdict);
+
+        if (start != 0) {
+            FlightEvents.classified(itemId, false, verdict, System.nanoTime() - start);
+        }
+        return verdict;
+    }
+
+    private int matchName(ItemMatcher matcher, VerdictTable verdicts, int itemId) {
+        String itemName = names.get(itemId);
+        if (itemName == null) {
+            itemName = lookUpName(itemId, matcher, verdicts);
+        }
+        return itemName == null || itemName.isEmpty() ? ItemMatcher.NO_MATCH : matcher.match(itemId, itemName);
+    }
+
+    /**
+     * Look the item up and record its standardized name, empty if it has none. Given a matcher, the
+     * verdicts of the variants it links to are filled in as well. Returns null if the lookup failed.
+     */
+    private String lookUpName(int itemId, ItemMatcher matcher, VerdictTable verdicts) {
+        try {
+            compositionLookups.incrementAndGet();
+            ItemComposition itemDef = itemSource.getItemComposition(itemId);
+            if (itemDef == null || itemDef.getName() == null) {
+                return names.put(itemId, "");
+            }
+
+            String itemName = names.put(itemId, Text.standardize(itemDef.getName()).toLowerCase());
+
+            // Noted items and placeholders carry the name of their base item, so the one lookup
+            // settles every variant it links to
+            if (itemDef.getNote() != -1) {
+                shareVerdict(matcher, verdicts, itemDef.getLinkedNoteId(), itemName);
+            } else if (itemDef.getPlaceholderTemplateId() != -1) {
+                shareVerdict(matcher, verdicts, itemDef.getPlaceholderId(), itemName);
+            } else {
+                shareVerdict(matcher, verdicts, itemDef.getLinkedNoteId(), itemName);
+                shareVerdict(matcher, verdicts, itemDef.getPlaceholderId(), itemName);
+            }
+            return itemName;
+        } catch (Exception e) {
+            log.warn("Error matching item {}: {}", itemId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Record the name and verdict of a linked item id that has the given name. Id patterns still apply
+     * to the linked id itself, so a noted item can be singled out with its own #id.
+     */
+    private void shareVerdict(ItemMatcher matcher, VerdictTable verdicts, int linkedId, String itemName) {
+        if (linkedId < 0) {
+            return;
+        }
+        names.put(linkedId, itemName);
+        if (matcher == null || verdicts.get(linkedId) != VerdictTable.UNKNOWN) {
+            return;
+        }
+
+        int verdict = matcher.matchId(linkedId);
+        verdicts.put(linkedId, verdict == ItemMatcher.NEEDS_NAME ? matcher.match(linkedId, itemName) : verdict);
+        sharedVerdicts.incrementAndGet();
+    }
+
+    /**
+     * The group the item is highlighted with if its verdict is already known, else null. Never
+     * looks the item up.
+     */
+    public HighlightGroup getCachedHighlight(int itemId) {
+        CompiledPatterns patterns = active;
+        int group = patterns.verdicts.get(itemId);
+        return group >= 0 ? patterns.groups.get(group) : null;
+    }
+
+    /**
+     * The cached verdict without classifying: a group index, {@link ItemMatcher#NO_MATCH}
+     * or {@link VerdictTable#UNKNOWN}
+     */
+    @Override
+    public int getCachedVerdict(int itemId) {
+        return active.verdicts.get(itemId);
+    }
+
+    public boolean hasPatterns() {
+        return !active.matcher.isEmpty();
+    }
+
+    /**
+     * Whether any group has quantity or value conditions, so verdicts alone don't settle a stack
+     */
+    public boolean hasConditions() {
+        return active.conditions;
+    }
+
+    public boolean hasValueConditions() {
+        return active.valueConditions;
+    }
+
+    /**
+     * Drop every cached verdict of the active pattern set; the matcher itself is kept. Renderers still
+     * holding the old snapshot finish the frame with its verdicts.
+     */
+    public synchronized void invalidate() {
+        active = new CompiledPatterns(active.groups, active.matcher);
+        if (activeKey != null) {
+            recentPatterns.put(activeKey, active);
+        }
+        invalidations++;
+    }
+
+    public int getMatchedCount() {
+        return active.verdicts.getMatchedCount();
+    }
+
+    /**
+     * Verdicts filled in for noted and placeholder variants without looking them up
+     */
+    public long getSharedVerdicts() {
+        return sharedVerdicts.get();
+    }
+
+    /**
+     * Number of pattern sets kept, including the active one
+     */
+    public synchronized int getCachedPatternSets() {
+        return recentPatterns.size();
+    }
+
+    /**
+     * Verdicts cached across every kept pattern set
+     */
+    public synchronized long getCachedVerdicts() {
+        long total = 0;
+        for (CompiledPatterns patterns : recentPatterns.values()) {
+            total += patterns.verdicts.getKnownCount();
+        }
+        return total;
+    }
+
+    /**
+     * Estimated heap held by the kept pattern sets (verdict tables and automaton states) and the names
+     */
+    public synchronized long getFootprintBytes() {
+        long total = names.getFootprintBytes();
+        for (CompiledPatterns patterns : recentPatterns.values()) {
+            total += patterns.verdicts.getFootprintBytes() + patterns.matcher.getFootprintBytes();
+        }
+        return total;
+    }
+
+    /**
+     * Items whose standardized name is kept
+     */
+    public int getKnownNames() {
+        return names.size();
+    }
+
+    public int getDistinctNames() {
+        return names.getDistinctCount();
+    }
+
+    /**
+     * Time the last new pattern set took to classify the known names
+     */
+    public long getLastBatchNanos() {
+        return lastBatchNanos;
+    }
+
+    /**
+     * Known items the last item list file change matched again rather than carrying over
+     */
+    public int getLastRematched() {
+        return lastRematched;
+    }
+
+    public long getRecompiles() {
+        return recompiles;
+    }
+
+    public long getReuses() {
+        return reuses;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public long getCompositionLookups() {
+        return compositionLookups.get();
+    }
+}
@@ -0,0 +1,103 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.ClassificationJob;
+import com.inventoryhighlighter.engine.VerdictTable;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Reads the name of every item in the game into the classifier's name table, once per session.
+ * Until then items are classified as they are first seen; afterwards every pattern set, current
+ * and future, is resolved up front into verdicts for all existing items, so the overlays, menus and
+ * container diff never meet an unknown id.
+ * <p>
+ * Item lookups have to happen on the client thread, so the scan runs in slices of at most
+ * {@link #SLICE_BUDGET_NANOS} per client tick, like the {@link ClassificationJob}. Noted items and
+ * placeholders are named by their base item's lookup and skipped.
+ */
+@Slf4j
+@Singleton
+public class ItemIndex {
+    static final long SLICE_BUDGET_NANOS = 1_000_000;
+
+    private final ClientThread clientThread;
+    private final ItemSource itemSource;
+    private final ItemClassifier classifier;
+
+    private boolean started = false;
+    private volatile boolean complete = false;
+    private int nextId = 0;
+    private int itemCount = 0;
+
+    private long startedAt = 0;
+    private long scanNanos = 0;
+    private int lookups = 0;
+    private int slices = 0;
+
+    @Inject
+    ItemIndex(ClientThread clientThread, ItemSource itemSource, ItemClassifier classifier) {
+        this.clientThread = clientThread;
+        this.itemSource = itemSource;
+        this.classifier = classifier;
+    }
+
+    /**
+     * Start the scan unless it has already run. Call on the client thread once items can be looked up.
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        itemCount = Math.min(itemSource.getItemCount(), VerdictTable.MAX_CAPACITY);
+        if (itemCount <= 0) {
+            return;
+        }
+        started = true;
+        startedAt = System.nanoTime();
+        clientThread.invokeLater(this::runSlice);
+    }
+
+    /**
+     * Look items up until every id is named or the slice budget is spent. Returns true once done.
+     */
+    boolean runSlice() {
+        long deadline = System.nanoTime() + SLICE_BUDGET_NANOS;
+        slices++;
+
+        while (nextId < itemCount) {
+            if (classifier.learnName(nextId++)) {
+                lookups++;
+                if ((lookups & 7) == 0 && System.nanoTime() >= deadline) {
+                    return false;
+                }
+            }
+        }
+
+        classifier.classifyKnownNames();
+        complete = true;
+        scanNanos = System.nanoTime() - startedAt;
+        log.debug("Indexed {} item names ({} distinct) with {} lookups in {} slices, {} ms",
+            classifier.getKnownNames(), classifier.getDistinctNames(), lookups, slices, scanNanos / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Whether every item's name is known, so pattern sets are resolved in full up front
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Time from starting the scan to its end, once complete
+     */
+    public long getScanNanos() {
+        return scanNanos;
+    }
+
+    public int getLookups() {
+        return lookups;
+    }
+}
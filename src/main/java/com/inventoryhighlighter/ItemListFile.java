@@ -0,0 +1,172 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.PatternList;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * An item list kept in a file, for lists too long to edit in the config panel. The file is read as a
+ * stream on a watcher thread, at first and again whenever it changes, and each load that changes the
+ * entries is handed on with what was added and removed.
+ */
+@Slf4j
+@Singleton
+class ItemListFile {
+    // Relative paths are resolved here
+    static final File DIRECTORY = new File(RuneLite.RUNELITE_DIR, "inventory-highlighter");
+
+    // Editors save in several steps; wait for the file to settle before reading it
+    private static final long SETTLE_MILLIS = 200;
+
+    private final PatternList entries = new PatternList(HighlightGroup::standardizePattern);
+
+    // The watch of the current path, replaced on every change of path; guarded by this
+    private WatchService watchService;
+    private Consumer<PatternList.Delta> listener;
+
+    /**
+     * Read the file at the configured path and keep watching it, handing every change of its entries
+     * to the listener on the watcher thread. An empty path stops watching and removes every entry.
+     */
+    synchronized void watch(String configured, Consumer<PatternList.Delta> listener) {
+        stop();
+        this.listener = listener;
+
+        Path path = resolve(configured);
+        if (path == null) {
+            publish(entries.clear());
+            return;
+        }
+        Path directory = path.getParent();
+        if (directory == null) {
+            log.warn("Item list file {} is not a file", path);
+            publish(entries.clear());
+            return;
+        }
+
+        WatchService service;
+        try {
+            Files.createDirectories(directory);
+            service = path.getFileSystem().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            log.warn("Unable to watch item list file {}", path, e);
+            publish(entries.clear());
+            return;
+        }
+        watchService = service;
+
+        Thread thread = new Thread(() -> run(service, path), "inventory-highlighter-item-list");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop watching; the entries are kept until the next {@link #watch}
+     */
+    synchronized void stop() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.debug("Unable to close item list watch", e);
+        }
+        watchService = null;
+    }
+
+    /**
+     * The path of a configured file name, relative to {@link #DIRECTORY} unless absolute, or null
+     */
+    static Path resolve(String configured) {
+        if (configured == null || configured.trim().isEmpty()) {
+            return null;
+        }
+        File file = new File(configured.trim());
+        // Absolute, so a bare file name still has a parent directory to watch
+        return (file.isAbsolute() ? file : new File(DIRECTORY, file.getPath())).toPath().toAbsolutePath();
+    }
+
+    private void run(WatchService service, Path path) {
+        load(service, path);
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = touches(key, path);
+                key.reset();
+
+                if (changed) {
+                    // Swallow the rest of the save before reading
+                    while ((key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                        key.pollEvents();
+                        key.reset();
+                    }
+                    load(service, path);
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Stopped, or watching another path
+        }
+    }
+
+    private static boolean touches(WatchKey key, Path path) {
+        boolean touched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            touched |= path.getFileName().equals(event.context());
+        }
+        return touched;
+    }
+
+    /**
+     * Read the file, if this watch is still current, and publish what changed. A missing file has no
+     * entries.
+     */
+    private synchronized void load(WatchService service, Path path) {
+        if (service != watchService) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        PatternList.Delta delta;
+        if (!Files.isRegularFile(path)) {
+            delta = entries.clear();
+        } else {
+            try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+                delta = entries.load(reader);
+            } catch (IOException e) {
+                log.warn("Unable to read item list file {}", path, e);
+                return;
+            }
+        }
+        log.debug("Loaded {} entries from {} in {} us: {} added, {} removed", entries.size(), path,
+            (System.nanoTime() - start) / 1000, delta.getAdded().size(), delta.getRemoved().size());
+        publish(delta);
+    }
+
+    private void publish(PatternList.Delta delta) {
+        if (!delta.isEmpty() && listener != null) {
+            listener.accept(delta);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,49 @@
+package com.inventoryhighlighter;
+
+import net.runelite.api.Client;
+import net.runelite.api.ItemComposition;
+import net.runelite.client.game.ItemManager;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+/**
+ * {@link ItemSource} that delegates straight to the client's {@link ItemManager}.
+ */
+@Singleton
+public class ItemManagerSource implements ItemSource {
+    private final ItemManager itemManager;
+    private final Client client;
+
+    @Inject
+    ItemManagerSource(ItemManager itemManager, Client client) {
+        this.itemManager = itemManager;
+        this.client = client;
+    }
+
+    @Override
+    public ItemComposition getItemComposition(int itemId) {
+        return itemManager.getItemComposition(itemId);
+    }
+
+    @Override
+    public BufferedImage getImage(int itemId) {
+        return itemManager.getImage(itemId);
+    }
+
+    @Override
+    public BufferedImage getItemOutline(int itemId, int thickness, Color color) {
+        return itemManager.getItemOutline(itemId, thickness, color);
+    }
+
+    @Override
+    public int getItemPrice(int itemId) {
+        return itemManager.getItemPrice(itemId);
+    }
+
+    @Override
+    public int getItemCount() {
+        return client.getItemCount();
+    }
+}
@@ -0,0 +1,26 @@
+package com.inventoryhighlighter;
+
+import com.google.inject.ImplementedBy;
+import net.runelite.api.ItemComposition;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+
+/**
+ * The item lookups the overlays depend on. Backed by the {@link net.runelite.client.game.ItemManager}
+ * in the client; the headless replay harness swaps in synthetic items.
+ */
+@ImplementedBy(ItemManagerSource.class)
+public interface ItemSource {
+    ItemComposition getItemComposition(int itemId);
+
+    BufferedImage getImage(int itemId);
+
+    BufferedImage getItemOutline(int itemId, int thickness, Color color);
+
+    int getItemPrice(int itemId);
+
+    /**
+     * Upper bound of item ids in the game
+     */
+    int getItemCount();
+}
@@ -0,0 +1,146 @@
+package com.inventoryhighlighter;
+
+import net.runelite.api.Client;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.widgets.Widget;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.awt.Color;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Recolors highlighted item names in right-click menus, including both sides of "Use X -> Y".
+ * Menu entries are added many times per frame, so an entry costs a verdict table read per item id
+ * and nothing else: no name lookup, standardization or matching. Items without a verdict yet are
+ * left alone; the classification job settles them within a few ticks.
+ * <p>
+ * The client colors item names with a fixed tag, which is rewritten in place; config values are
+ * pushed in by the plugin rather than read per entry.
+ */
+@Singleton
+public class MenuHighlighter {
+    // The client's color for item names in menus
+    private static final String ITEM_TAG = "<col=ff9040>";
+    private static final int HEX_OFFSET = "<col=".length();
+    private static final int MAX_COLORS = 64;
+
+    private final Client client;
+    private final ItemClassifier classifier;
+    private final ContainerRegistry containers;
+
+    private volatile boolean enabled = true;
+    private volatile Color defaultColor = Color.RED;
+    private final Map<Color, String> hexColors = new HashMap<>();
+
+    private long entries = 0;
+    private long recolored = 0;
+
+    @Inject
+    MenuHighlighter(Client client, ItemClassifier classifier, ContainerRegistry containers) {
+        this.client = client;
+        this.classifier = classifier;
+        this.containers = containers;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Color for groups without their own outline color
+     */
+    public void setDefaultColor(Color defaultColor) {
+        this.defaultColor = defaultColor;
+    }
+
+    /**
+     * Recolor the entry's item names if they are highlighted. Call from MenuEntryAdded.
+     */
+    public void onMenuEntryAdded(MenuEntry entry) {
+        if (!enabled) {
+            return;
+        }
+
+        int selectedItemId = -1;
+        if (client.isWidgetSelected()) {
+            Widget selected = client.getSelectedWidget();
+            selectedItemId = selected != null ? selected.getItemId() : -1;
+        }
+
+        String target = highlight(entry.getTarget(), entry.getItemId(), entry.getParam1(), entry.getParam0(), selectedItemId);
+        if (target != null) {
+            entry.setTarget(target);
+        }
+    }
+
+    /**
+     * The target with highlighted item names recolored, or null if nothing changed. With an item
+     * selected, the first item name is the selected one and the last the entry's own item.
+     */
+    String highlight(String target, int itemId, int widgetId, int slot, int selectedItemId) {
+        entries++;
+        if (target == null || (itemId <= 0 && selectedItemId <= 0)) {
+            return null;
+        }
+
+        HighlightGroup targetGroup = itemId > 0 ? lookup(itemId, widgetId, slot) : null;
+        HighlightGroup selectedGroup = selectedItemId > 0 ? lookup(selectedItemId, -1, -1) : null;
+        if (targetGroup == null && selectedGroup == null) {
+            return null;
+        }
+
+        int last = targetGroup != null ? target.lastIndexOf(ITEM_TAG) : -1;
+        int first = selectedGroup != null ? target.indexOf(ITEM_TAG) : -1;
+        if (first == last) {
+            // One item name: it is the selected item's unless the entry is on an item
+            first = targetGroup != null ? -1 : first;
+        }
+        if (first < 0 && last < 0) {
+            return null;
+        }
+
+        char[] chars = target.toCharArray();
+        if (last >= 0) {
+            hexColor(targetGroup).getChars(0, 6, chars, last + HEX_OFFSET);
+        }
+        if (first >= 0) {
+            hexColor(selectedGroup).getChars(0, 6, chars, first + HEX_OFFSET);
+        }
+        recolored++;
+        return new String(chars);
+    }
+
+    /**
+     * The item's group from the verdict table alone. Groups with stack conditions are only taken
+     * from a slot the container registry has settled.
+     */
+    private HighlightGroup lookup(int itemId, int widgetId, int slot) {
+        HighlightGroup group = classifier.getCachedHighlight(itemId);
+        if (group != null && group.hasConditions()) {
+            return widgetId < 0 ? null : containers.getSettledHighlight(widgetId, slot, itemId);
+        }
+        return group;
+    }
+
+    private String hexColor(HighlightGroup group) {
+        Color color = group.getOutlineColor() != null ? group.getOutlineColor() : defaultColor;
+        String hex = hexColors.get(color);
+        if (hex == null) {
+            if (hexColors.size() >= MAX_COLORS) {
+                hexColors.clear();
+            }
+            hex = String.format("%06x", color.getRGB() & 0xFFFFFF);
+            hexColors.put(color, hex);
+        }
+        return hex;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public long getRecolored() {
+        return recolored;
+    }
+}
@@ -0,0 +1,64 @@
+package com.inventoryhighlighter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A named item list that can stand in for the main "Items to Highlight" list.
+ */
+public final class Preset {
+    private final String name;
+    private final String itemList;
+
+    Preset(String name, String itemList) {
+        this.name = name;
+        this.itemList = itemList;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getItemList() {
+        return itemList;
+    }
+
+    /**
+     * Parse the presets config, one preset per line: {@code Name: item, item*, ...}.
+     * Lines without a name are called "Preset N".
+     */
+    static List<Preset> parse(String text) {
+        List<Preset> presets = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return presets;
+        }
+
+        for (String line : text.split("\n")) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            int colon = line.indexOf(':');
+            String name = colon < 0 ? "" : line.substring(0, colon).trim();
+            String itemList = colon < 0 ? line : line.substring(colon + 1).trim();
+            presets.add(new Preset(name.isEmpty() ? "Preset " + (presets.size() + 1) : name, itemList));
+        }
+        return presets;
+    }
+
+    /**
+     * Find a preset by name, ignoring case
+     */
+    static Preset find(List<Preset> presets, String name) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        for (Preset preset : presets) {
+            if (preset.name.equalsIgnoreCase(name)) {
+                return preset;
+            }
+        }
+        return null;
+    }
+}
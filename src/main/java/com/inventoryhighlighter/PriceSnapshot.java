@@ -0,0 +1,71 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.VerdictTable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Item prices for value conditions, read at most once per item per game tick. Prices sit in a
+ * primitive array keyed by item id, next to the tick they were read on, so a stack value is an
+ * array read instead of a price lookup per slot per frame. The arrays grow to the highest id seen.
+ * <p>
+ * Client thread only; overlays render on it as well.
+ */
+@Singleton
+public class PriceSnapshot {
+    private final ItemSource itemSource;
+
+    private int[] prices = new int[0];
+    private int[] readOnTick = new int[0];
+    // Starts at 1, so the zeroed tick array reads as never read
+    private int tick = 1;
+
+    private long priceLookups = 0;
+
+    @Inject
+    PriceSnapshot(ItemSource itemSource) {
+        this.itemSource = itemSource;
+    }
+
+    /**
+     * Let every price be read again, once
+     */
+    public void nextTick() {
+        tick++;
+    }
+
+    /**
+     * The item's price as of this game tick
+     */
+    public int getPrice(int itemId) {
+        if (itemId < 0 || itemId >= VerdictTable.MAX_CAPACITY) {
+            priceLookups++;
+            return itemSource.getItemPrice(itemId);
+        }
+
+        if (itemId >= prices.length) {
+            int length = Math.min(VerdictTable.MAX_CAPACITY, Math.max(itemId + 1, prices.length * 2));
+            int[] grownPrices = new int[length];
+            int[] grownTicks = new int[length];
+            System.arraycopy(prices, 0, grownPrices, 0, prices.length);
+            System.arraycopy(readOnTick, 0, grownTicks, 0, readOnTick.length);
+            prices = grownPrices;
+            readOnTick = grownTicks;
+        }
+
+        if (readOnTick[itemId] != tick) {
+            readOnTick[itemId] = tick;
+            prices[itemId] = itemSource.getItemPrice(itemId);
+            priceLookups++;
+        }
+        return prices[itemId];
+    }
+
+    public long getPriceLookups() {
+        return priceLookups;
+    }
+
+    public long getFootprintBytes() {
+        return (long) prices.length * 8;
+    }
+}
@@ -0,0 +1,271 @@
+package com.inventoryhighlighter;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Highlight sprites packed into a few large pages instead of one small image each. Every draw
+ * blits a sub-region of a page, so the heap holds a handful of images however many sprites are
+ * cached, and consecutive draws mostly share a source image.
+ * <p>
+ * Each page is filled shelf by shelf: a sprite goes on the first shelf of about its height with room
+ * left, or opens a new shelf below. Item sprites are nearly all the same size, so shelves waste
+ * little. Once every page is full, the least recently drawn sprites are evicted until one page has a
+ * quarter of its area free, and that page is compacted: its live sprites are repacked into a fresh
+ * image, closing the holes eviction left.
+ * <p>
+ * Client thread only.
+ */
+final class SpriteAtlas<K> {
+    static final int PAGE_SIZE = 512;
+    private static final int PAGE_PIXELS = PAGE_SIZE * PAGE_SIZE;
+
+    private final int maxPages;
+    private final List<Page> pages = new ArrayList<>();
+
+    // Least recently drawn first
+    private final LinkedHashMap<K, Region> regions = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long evictions = 0;
+    private long compactions = 0;
+
+    /**
+     * Where one sprite lives
+     */
+    static final class Region {
+        private Page page;
+        private int x;
+        private int y;
+        private final int width;
+        private final int height;
+
+        Region(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private static final class Shelf {
+        private final int y;
+        private final int height;
+        private int x = 0;
+
+        Shelf(int y, int height) {
+            this.y = y;
+            this.height = height;
+        }
+    }
+
+    private static final class Page {
+        private BufferedImage image = new BufferedImage(PAGE_SIZE, PAGE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        private final List<Shelf> shelves = new ArrayList<>();
+        private int nextShelfY = 0;
+        // Pixels handed out, and those still holding a cached sprite
+        private int usedPixels = 0;
+        private int livePixels = 0;
+
+        /**
+         * Place a sprite on a shelf of about its height, then on a new shelf, then on any taller shelf
+         */
+        boolean place(Region region) {
+            int w = region.width;
+            int h = region.height;
+            for (Shelf shelf : shelves) {
+                if (h <= shelf.height && h * 4 >= shelf.height * 3 && shelf.x + w <= PAGE_SIZE) {
+                    return put(region, shelf);
+                }
+            }
+            if (nextShelfY + h <= PAGE_SIZE) {
+                Shelf shelf = new Shelf(nextShelfY, h);
+                shelves.add(shelf);
+                nextShelfY += h;
+                return put(region, shelf);
+            }
+            for (Shelf shelf : shelves) {
+                if (h <= shelf.height && shelf.x + w <= PAGE_SIZE) {
+                    return put(region, shelf);
+                }
+            }
+            return false;
+        }
+
+        private boolean put(Region region, Shelf shelf) {
+            region.page = this;
+            region.x = shelf.x;
+            region.y = shelf.y;
+            shelf.x += region.width;
+            usedPixels += region.width * shelf.height;
+            livePixels += region.width * region.height;
+            return true;
+        }
+
+        int deadPixels() {
+            return usedPixels - livePixels;
+        }
+    }
+
+    SpriteAtlas(long maxBytes) {
+        this.maxPages = (int) Math.max(1, maxBytes / ((long) PAGE_PIXELS * 4));
+    }
+
+    /**
+     * The region of a cached sprite, marking it as recently drawn, or null
+     */
+    Region get(K key) {
+        return regions.get(key);
+    }
+
+    /**
+     * Copy a sprite into the atlas. Returns its region, or null if it is larger than a page.
+     */
+    Region add(K key, BufferedImage sprite) {
+        int w = sprite.getWidth();
+        int h = sprite.getHeight();
+        if (w > PAGE_SIZE || h > PAGE_SIZE || w <= 0 || h <= 0) {
+            return null;
+        }
+
+        remove(key);
+        Region region = new Region(w, h);
+        if (!allocate(region)) {
+            return null;
+        }
+
+        Graphics2D graphics = region.page.image.createGraphics();
+        graphics.setComposite(AlphaComposite.Src);
+        graphics.drawImage(sprite, region.x, region.y, null);
+        graphics.dispose();
+        regions.put(key, region);
+        return region;
+    }
+
+    private boolean allocate(Region region) {
+        for (Page page : pages) {
+            if (page.place(region)) {
+                return true;
+            }
+        }
+        if (pages.size() < maxPages) {
+            Page page = new Page();
+            pages.add(page);
+            return page.place(region);
+        }
+
+        // Full: free a quarter of some page, least recently drawn first, then close the holes
+        while (!regions.isEmpty()) {
+            Page page = mostDead();
+            if (page.deadPixels() >= PAGE_PIXELS / 4) {
+                compact(page);
+                if (page.place(region)) {
+                    return true;
+                }
+            }
+            evictEldest();
+        }
+        Page page = mostDead();
+        compact(page);
+        return page.place(region);
+    }
+
+    private Page mostDead() {
+        Page most = pages.get(0);
+        for (Page page : pages) {
+            if (page.deadPixels() > most.deadPixels()) {
+                most = page;
+            }
+        }
+        return most;
+    }
+
+    private void evictEldest() {
+        Iterator<Region> it = regions.values().iterator();
+        Region eldest = it.next();
+        it.remove();
+        eldest.page.livePixels -= eldest.width * eldest.height;
+        evictions++;
+    }
+
+    private void remove(K key) {
+        Region region = regions.remove(key);
+        if (region != null) {
+            region.page.livePixels -= region.width * region.height;
+        }
+    }
+
+    /**
+     * Repack a page's live sprites into a fresh image, tallest first so shelves come out tight
+     */
+    private void compact(Page page) {
+        List<Region> live = new ArrayList<>();
+        for (Region region : regions.values()) {
+            if (region.page == page) {
+                live.add(region);
+            }
+        }
+        live.sort((a, b) -> b.height != a.height ? b.height - a.height : b.width - a.width);
+
+        BufferedImage old = page.image;
+        page.image = new BufferedImage(PAGE_SIZE, PAGE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        page.shelves.clear();
+        page.nextShelfY = 0;
+        page.usedPixels = 0;
+        page.livePixels = 0;
+
+        Graphics2D graphics = page.image.createGraphics();
+        graphics.setComposite(AlphaComposite.Src);
+        for (Region region : live) {
+            int oldX = region.x;
+            int oldY = region.y;
+            // Everything fit before, but may not in a different order; drop what doesn't
+            if (!page.place(region)) {
+                region.page = null;
+                evictions++;
+                continue;
+            }
+            graphics.drawImage(old, region.x, region.y, region.x + region.width, region.y + region.height,
+                oldX, oldY, oldX + region.width, oldY + region.height, null);
+        }
+        graphics.dispose();
+
+        regions.values().removeIf(region -> region.page == null);
+        compactions++;
+    }
+
+    /**
+     * Blit a cached sprite with its top left corner at x, y
+     */
+    static void draw(Graphics2D graphics, Region region, int x, int y) {
+        graphics.drawImage(region.page.image, x, y, x + region.width, y + region.height,
+            region.x, region.y, region.x + region.width, region.y + region.height, null);
+    }
+
+    void clear() {
+        regions.clear();
+        pages.clear();
+    }
+
+    int size() {
+        return regions.size();
+    }
+
+    int getPageCount() {
+        return pages.size();
+    }
+
+    long getFootprintBytes() {
+        return (long) pages.size() * PAGE_PIXELS * 4;
+    }
+
+    long getEvictions() {
+        return evictions;
+    }
+
+    long getCompactions() {
+        return compactions;
+    }
+}
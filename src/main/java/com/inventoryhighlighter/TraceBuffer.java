@@ -0,0 +1,90 @@
+package com.inventoryhighlighter;
+
+import net.runelite.api.widgets.Widget;
+import net.runelite.api.widgets.WidgetItem;
+import javax.inject.Singleton;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * The last {@link #CAPACITY} render path events, kept in preallocated primitive arrays instead of
+ * being logged. Recording an event is four array stores: no strings, no boxing, no varargs and no
+ * item lookups, so the overlays can trace every highlight they draw. {@code ::hltrace} writes the
+ * buffer to a file, oldest event first.
+ * <p>
+ * Client thread only, like the overlays that write to it.
+ */
+@Singleton
+public class TraceBuffer {
+    static final int CAPACITY = 1 << 13;
+    private static final int MASK = CAPACITY - 1;
+
+    // Event types
+    public static final byte HIGHLIGHT = 1;
+    public static final byte HOVER = 2;
+    public static final byte RENDER_RATE = 3;
+    public static final byte PENDING = 4;
+
+    private static final String[] TYPE_NAMES = {"?", "highlight", "hover", "render-rate", "pending"};
+
+    private final byte[] types = new byte[CAPACITY];
+    private final int[] itemIds = new int[CAPACITY];
+    private final int[] slots = new int[CAPACITY];
+    private final long[] nanos = new long[CAPACITY];
+    private long next = 0;
+
+    /**
+     * Record an event. {@code slot} is the widget slot, or a count for events without one.
+     */
+    public void record(byte type, int itemId, int slot, long nanoTime) {
+        int i = (int) (next++ & MASK);
+        types[i] = type;
+        itemIds[i] = itemId;
+        slots[i] = slot;
+        nanos[i] = nanoTime;
+    }
+
+    /**
+     * The slot index of a drawn item, or -1
+     */
+    static int slotOf(WidgetItem item) {
+        Widget widget = item.getWidget();
+        return widget == null ? -1 : widget.getIndex();
+    }
+
+    /**
+     * Events recorded since the start, including those overwritten since
+     */
+    public long getRecorded() {
+        return next;
+    }
+
+    /**
+     * Write the buffered events to a file, oldest first, with times relative to the oldest
+     */
+    public void dump(File file) throws IOException {
+        long end = next;
+        long start = Math.max(0, end - CAPACITY);
+        long origin = end > start ? nanos[(int) (start & MASK)] : 0;
+
+        File dir = file.getParentFile();
+        if (dir != null) {
+            dir.mkdirs();
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("# seq us type item slot");
+            writer.newLine();
+            for (long seq = start; seq < end; seq++) {
+                int i = (int) (seq & MASK);
+                int type = types[i];
+                writer.write(seq + " " + (nanos[i] - origin) / 1000 + " "
+                    + (type < TYPE_NAMES.length ? TYPE_NAMES[type] : String.valueOf(type)) + " "
+                    + itemIds[i] + " " + slots[i]);
+                writer.newLine();
+            }
+        }
+    }
+}
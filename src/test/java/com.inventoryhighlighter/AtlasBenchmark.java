@@ -0,0 +1,98 @@
+package com.inventoryhighlighter;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Heap and draw cost of highlight sprites kept as one image each against the same sprites packed
+ * into the {@link SpriteAtlas}. Fills a bank's worth of highlighted items (fill and outline sprite
+ * each), then draws them all into a client-sized canvas frame after frame.
+ * <p>
+ * Retained heap is measured around building the cache, so it includes each image's object overhead
+ * on top of its pixels; it is approximate and varies with the collector.
+ *
+ * <pre>
+ * ./gradlew atlasBenchmark
+ * ./gradlew atlasBenchmark -PatlasArgs="--items 300 --frames 500"
+ * </pre>
+ */
+public class AtlasBenchmark {
+    private static final int CANVAS_WIDTH = 765;
+    private static final int CANVAS_HEIGHT = 503;
+
+    public static void main(String[] args) {
+        int itemCount = 400;
+        int frames = 200;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--items":
+                    itemCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--frames":
+                    frames = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        SyntheticItemSource items = new SyntheticItemSource(2000);
+        int[] itemIds = new int[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            itemIds[i] = items.firstId() + i;
+        }
+
+        System.out.println(String.format("%-8s %8s %8s %10s %12s %10s", "sprites", "cached", "pages", "pixel KB",
+            "retained KB", "ns/draw"));
+        // Each pass runs once unmeasured to warm up
+        run(null, items, itemIds, false, frames);
+        run("images", items, itemIds, false, frames);
+        run(null, items, itemIds, true, frames);
+        run("atlas", items, itemIds, true, frames);
+    }
+
+    private static void run(String label, SyntheticItemSource items, int[] itemIds, boolean atlas, int frames) {
+        Color fill = new Color(255, 255, 0, 90);
+        Color outline = Color.YELLOW;
+
+        BufferedImage canvas = new BufferedImage(CANVAS_WIDTH, CANVAS_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = canvas.createGraphics();
+        long before = usedHeap();
+        HighlightSpriteCache cache = new HighlightSpriteCache(items);
+        cache.setAtlasEnabled(atlas);
+        draw(graphics, cache, itemIds, fill, outline);
+        long retained = usedHeap() - before;
+
+        long start = System.nanoTime();
+        for (int frame = 0; frame < frames; frame++) {
+            draw(graphics, cache, itemIds, fill, outline);
+        }
+        long nanos = System.nanoTime() - start;
+        graphics.dispose();
+
+        if (label != null) {
+            System.out.println(String.format("%-8s %8d %8d %10d %12d %10.1f", label, cache.getSize(),
+                cache.getAtlasPages(), cache.getFootprintBytes() / 1024, retained / 1024,
+                nanos / (double) frames / (itemIds.length * 2)));
+        }
+    }
+
+    private static void draw(Graphics2D graphics, HighlightSpriteCache cache, int[] itemIds, Color fill, Color outline) {
+        // Bank layout: 8 columns, rows wrapping down the canvas
+        for (int i = 0; i < itemIds.length; i++) {
+            int x = 73 + (i % 8) * 48;
+            int y = 83 + (i / 8) * 36 % (CANVAS_HEIGHT - 32);
+            cache.drawFill(graphics, itemIds[i], fill, x, y);
+            cache.drawOutline(graphics, itemIds[i], 1, outline, x, y);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,103 @@
+package com.inventoryhighlighter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Renderers classifying on several threads while settings change underneath them. Every answer has
+ * to come from one complete pattern set; a verdict from one set paired with another set's groups
+ * shows up as a wrong group name.
+ */
+public class ConcurrencyStressTest {
+    private static final int READERS = 4;
+    private static final int SWITCHES = 2000;
+
+    private static final String LIST_A = "lobster, rune*";
+    private static final String GROUPS_A = "Potions #FF00FF: *potion*";
+    private static final String LIST_B = "*potion*";
+    private static final String GROUPS_B = "Food #00FF00: lobster, shark";
+
+    private static String[] expectedGroups(SyntheticItemSource items, String itemList, String groups) {
+        ItemClassifier reference = new ItemClassifier(items);
+        reference.update(itemList, groups);
+        String[] names = new String[items.lastId() + 1];
+        for (int id = items.firstId(); id <= items.lastId(); id++) {
+            HighlightGroup group = reference.getHighlight(id);
+            names[id] = group == null ? null : group.getName();
+        }
+        return names;
+    }
+
+    @Test
+    public void classifierNeverMixesPatternSets() throws Exception {
+        SyntheticItemSource items = new SyntheticItemSource(500);
+        String[] expectedA = expectedGroups(items, LIST_A, GROUPS_A);
+        String[] expectedB = expectedGroups(items, LIST_B, GROUPS_B);
+
+        ItemClassifier classifier = new ItemClassifier(items);
+        classifier.update(LIST_A, GROUPS_A);
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(READERS);
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            long seed = r;
+            Thread reader = new Thread(() -> {
+                Random random = new Random(seed);
+                started.countDown();
+                try {
+                    while (!done.get()) {
+                        int id = items.firstId() + random.nextInt(items.lastId() - items.firstId() + 1);
+                        HighlightGroup group = classifier.getHighlight(id);
+                        String name = group == null ? null : group.getName();
+                        if (!equal(name, expectedA[id]) && !equal(name, expectedB[id])) {
+                            failure.compareAndSet(null, "item " + id + " got " + name
+                                + ", expected " + expectedA[id] + " or " + expectedB[id]);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e.toString());
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        started.await();
+        for (int i = 0; i < SWITCHES; i++) {
+            if (i % 3 == 2) {
+                classifier.invalidate();
+            } else if (i % 2 == 0) {
+                classifier.update(LIST_B, GROUPS_B);
+            } else {
+                classifier.update(LIST_A, GROUPS_A);
+            }
+            Thread.yield();
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+
+        // Once the writer stops, the active set answers on its own
+        classifier.update(LIST_B, GROUPS_B);
+        for (int id = items.firstId(); id <= items.lastId(); id++) {
+            HighlightGroup group = classifier.getHighlight(id);
+            assertEquals(expectedB[id], group == null ? null : group.getName());
+        }
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
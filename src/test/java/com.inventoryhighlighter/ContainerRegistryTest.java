@@ -0,0 +1,216 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.ClassificationJob;
+import com.inventoryhighlighter.engine.ItemMatcher;
+import net.runelite.api.GrandExchangeOffer;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.widgets.InterfaceID;
+import net.runelite.api.widgets.Widget;
+import net.runelite.api.widgets.WidgetItem;
+import org.junit.Test;
+import java.awt.Color;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ContainerRegistryTest {
+    private static final int SHOP = 51;
+
+    private final SyntheticItemSource items = new SyntheticItemSource(200);
+    private final ItemClassifier classifier = new ItemClassifier(items);
+    private final ReplayClientThread clientThread = new ReplayClientThread();
+    private final PriceSnapshot prices = new PriceSnapshot(items);
+    private final ContainerRegistry containers = new ContainerRegistry(clientThread,
+        new ClassificationJob(clientThread::invokeLater, classifier), classifier, prices, new InventoryHighlighterConfig() {});
+
+    private static Item[] contents(int... idsAndQuantities) {
+        Item[] contents = new Item[idsAndQuantities.length / 2];
+        for (int slot = 0; slot < contents.length; slot++) {
+            contents[slot] = new Item(idsAndQuantities[slot * 2], idsAndQuantities[slot * 2 + 1]);
+        }
+        return contents;
+    }
+
+    /**
+     * A slot as an overlay is handed it: its widget's id and index, and the item it shows
+     */
+    private static WidgetItem drawn(int interfaceId, int index, int itemId, int quantity) {
+        Widget widget = mock(Widget.class);
+        when(widget.getId()).thenReturn(interfaceId << 16);
+        when(widget.getIndex()).thenReturn(index);
+        WidgetItem item = mock(WidgetItem.class);
+        when(item.getWidget()).thenReturn(widget);
+        when(item.getId()).thenReturn(itemId);
+        when(item.getQuantity()).thenReturn(quantity);
+        return item;
+    }
+
+    private static GrandExchangeOffer offer(int itemId, int quantity) {
+        GrandExchangeOffer offer = mock(GrandExchangeOffer.class);
+        when(offer.getItemId()).thenReturn(itemId);
+        when(offer.getTotalQuantity()).thenReturn(quantity);
+        return offer;
+    }
+
+    private void runJobs() {
+        while (clientThread.hasPending()) {
+            clientThread.runPending();
+        }
+    }
+
+    @Test
+    public void onlyChangedSlotsAreCounted() {
+        int lobster = items.idOf("lobster");
+        int shark = items.idOf("shark");
+        int inventory = InventoryID.INVENTORY.getId();
+
+        assertEquals(3, containers.update(inventory, contents(lobster, 1, shark, 1, -1, 0)));
+        assertEquals(0, containers.update(inventory, contents(lobster, 1, shark, 1, -1, 0)));
+        assertEquals(1, containers.update(inventory, contents(lobster, 1, -1, 0, -1, 0)));
+        assertEquals(1, containers.update(inventory, contents(lobster, 5, -1, 0, -1, 0)));
+        // Shrinking empties the trailing slots
+        assertEquals(2, containers.update(inventory, contents(lobster, 5)));
+
+        ContainerRegistry.ContainerState state = containers.get(inventory);
+        assertEquals(1, state.getSize());
+        assertEquals(5, state.getQuantity(0));
+        assertEquals(-1, state.getItemId(1));
+    }
+
+    @Test
+    public void containersShareVerdicts() {
+        classifier.update("lobster, shark", "");
+        int lobster = items.idOf("lobster");
+        int shark = items.idOf("shark");
+
+        containers.update(InventoryID.BANK.getId(), contents(lobster, 10, shark, 4));
+        runJobs();
+        long lookups = items.getCompositionLookups();
+
+        // The same items in a shop and the equipment tab need no further matching
+        containers.update(SHOP, contents(shark, 3, lobster, 8));
+        containers.update(InventoryID.EQUIPMENT.getId(), contents(lobster, 1));
+        assertFalse(clientThread.hasPending());
+        assertEquals(lookups, items.getCompositionLookups());
+        assertEquals(3, containers.getContainerCount());
+    }
+
+    @Test
+    public void stackConditionsAreSettledInTheDiff() {
+        classifier.update("", "Low #FF0000: lobster, qty<5\nFood: lobster, shark");
+        int lobster = items.idOf("lobster");
+        int shark = items.idOf("shark");
+        int inventory = InventoryID.INVENTORY.getId();
+
+        // Unseen ids wait for the classification job
+        containers.update(inventory, contents(lobster, 2, lobster, 10, shark, 1));
+        ContainerRegistry.ContainerState state = containers.get(inventory);
+        assertNull(state.getGroup(0));
+        runJobs();
+        assertEquals("Low", state.getGroup(0).getName());
+        assertEquals("Food", state.getGroup(1).getName());
+        assertEquals("Food", state.getGroup(2).getName());
+
+        // Known ids settle right in the diff
+        containers.update(inventory, contents(lobster, 9, lobster, 3, shark, 1));
+        assertFalse(clientThread.hasPending());
+        assertEquals("Food", state.getGroup(0).getName());
+        assertEquals("Low", state.getGroup(1).getName());
+    }
+
+    @Test
+    public void equipmentShopAndOfferSlotsAreSettled() {
+        classifier.update("", "Low: lobster, qty<5\nFood: lobster, shark");
+        int lobster = items.idOf("lobster");
+        int shark = items.idOf("shark");
+
+        containers.update(InventoryID.EQUIPMENT.getId(), contents(-1, 0, lobster, 3));
+        containers.update(SHOP, contents(shark, 5, lobster, 50));
+        containers.updateOffers(new GrandExchangeOffer[]{offer(0, 0), offer(lobster, 1000), null});
+        assertEquals(3, containers.getContainerCount());
+        runJobs();
+        long settled = containers.getSettledSlots();
+
+        // The equipment tab and offers don't show slots by index, so the item places them
+        assertEquals("Low", containers.getHighlight(drawn(InterfaceID.EQUIPMENT, 1, lobster, 3), lobster).getName());
+        assertEquals("Food", containers.getHighlight(drawn(InterfaceID.GRAND_EXCHANGE, 1, lobster, 1000), lobster)
+            .getName());
+        assertEquals("Food", containers.getHighlight(drawn(InterfaceID.SHOP, 1, lobster, 50), lobster).getName());
+        assertEquals("Food", containers.getHighlight(drawn(InterfaceID.SHOP, 0, shark, 5), shark).getName());
+        // Drawing settles nothing more
+        assertEquals(settled, containers.getSettledSlots());
+
+        // Slots that can't be placed aren't evaluated as they are drawn
+        long lookups = items.getCompositionLookups();
+        assertNull(containers.getHighlight(drawn(InterfaceID.SHOP, 4, shark, 1), shark));
+        assertNull(containers.getHighlight(drawn(InterfaceID.EQUIPMENT, 0, shark, 1), shark));
+        assertNull(containers.getHighlight(drawn(InterfaceID.BANK, 0, lobster, 1), lobster));
+        assertEquals(lookups, items.getCompositionLookups());
+
+        // A shop with other stock is found once its slots match
+        int otherShop = SHOP + 1;
+        containers.update(otherShop, contents(lobster, 2));
+        assertEquals("Low", containers.getHighlight(drawn(InterfaceID.SHOP, 0, lobster, 2), lobster).getName());
+    }
+
+    @Test
+    public void unchangedPricesSettleNothing() {
+        classifier.update("", "Rich: value>=1m");
+        containers.update(InventoryID.INVENTORY.getId(), contents(SyntheticItemSource.COINS, 2_000_000));
+        runJobs();
+        assertEquals("Rich", containers.get(InventoryID.INVENTORY.getId()).getGroup(0).getName());
+
+        long settled = containers.getSettledSlots();
+        prices.nextTick();
+        containers.refreshValues();
+        assertEquals(settled, containers.getSettledSlots());
+        assertEquals(2, prices.getPriceLookups());
+    }
+
+    @Test
+    public void newPatternsReclassifyEveryContainer() {
+        classifier.update("lobster", "");
+        int lobster = items.idOf("lobster");
+        int shark = items.idOf("shark");
+        containers.update(InventoryID.INVENTORY.getId(), contents(lobster, 1));
+        containers.update(SHOP, contents(shark, 5));
+        runJobs();
+
+        classifier.update("shark", "");
+        containers.classifyAll();
+        runJobs();
+        assertEquals(ItemMatcher.NO_MATCH, classifier.getCachedVerdict(lobster));
+        assertEquals(0, classifier.getCachedVerdict(shark));
+    }
+
+    @Test
+    public void newInventoryItemsFade() {
+        containers.setRecentHighlight(2, Color.WHITE);
+        int lobster = items.idOf("lobster");
+        int shark = items.idOf("shark");
+        int inventory = InventoryID.INVENTORY.getId();
+
+        // What the inventory held when first seen isn't new
+        containers.update(inventory, contents(lobster, 1, -1, 0));
+        assertEquals(0, containers.getRecentCount());
+        containers.update(inventory, contents(lobster, 1, shark, 1));
+        assertEquals(1, containers.getRecentCount());
+        // Nor is anything in other containers
+        containers.update(SHOP, contents(shark, 5));
+        containers.update(SHOP, contents(shark, 5, lobster, 5));
+        assertEquals(1, containers.getRecentCount());
+
+        containers.tickRecent();
+        assertEquals(1, containers.getRecentCount());
+        containers.tickRecent();
+        assertEquals(0, containers.getRecentCount());
+
+        // Turned off, nothing is recorded
+        containers.setRecentHighlight(0, Color.WHITE);
+        containers.update(inventory, contents(lobster, 1, shark, 2));
+        assertEquals(0, containers.getRecentCount());
+    }
+}
@@ -0,0 +1,114 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.ItemMatcher;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FlightEventsTest {
+    private static final String[] EVENTS = {"RenderFrame", "Classification", "Invalidation", "SpriteMiss"};
+
+    /**
+     * Run a short session under a recording and read back what it wrote
+     */
+    private static List<RecordedEvent> record(boolean enable) throws IOException {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        ItemClassifier classifier = new ItemClassifier(items);
+        HighlightSpriteCache sprites = new HighlightSpriteCache(items);
+        int lobster = items.idOf("lobster");
+        int shark = items.idOf("shark");
+
+        File file = File.createTempFile("highlighter", ".jfr");
+        try (Recording recording = new Recording()) {
+            if (enable) {
+                for (String event : EVENTS) {
+                    recording.enable(FlightEvents.PREFIX + event).withThreshold(Duration.ZERO);
+                }
+            }
+            recording.start();
+
+            classifier.update("lobster", "");
+            classifier.classify(lobster);
+            classifier.classify(lobster);
+            classifier.classify(shark);
+
+            BufferedImage canvas = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = canvas.createGraphics();
+            sprites.drawOutline(graphics, lobster, 2, Color.RED, 0, 0);
+            sprites.drawOutline(graphics, lobster, 2, Color.RED, 0, 0);
+            graphics.dispose();
+
+            FlightEvents.invalidated("container");
+            FlightEvents.renderFrame("main", 28, 3, 120_000);
+
+            recording.stop();
+            recording.dump(file.toPath());
+        }
+
+        try {
+            List<RecordedEvent> events = new ArrayList<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file.toPath())) {
+                if (event.getEventType().getName().startsWith(FlightEvents.PREFIX)) {
+                    events.add(event);
+                }
+            }
+            return events;
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(FlightEvents.PREFIX + name)) {
+                matching.add(event);
+            }
+        }
+        return matching;
+    }
+
+    @Test
+    public void enabledEventsAreRecorded() throws IOException {
+        List<RecordedEvent> events = record(true);
+
+        List<RecordedEvent> classifications = named(events, "Classification");
+        assertEquals(3, classifications.size());
+        assertFalse(classifications.get(0).getBoolean("cacheHit"));
+        assertEquals(0, classifications.get(0).getInt("verdict"));
+        assertTrue(classifications.get(1).getBoolean("cacheHit"));
+        assertEquals(ItemMatcher.NO_MATCH, classifications.get(2).getInt("verdict"));
+
+        List<RecordedEvent> misses = named(events, "SpriteMiss");
+        assertEquals(1, misses.size());
+        assertTrue(misses.get(0).getBoolean("outline"));
+
+        List<RecordedEvent> invalidations = named(events, "Invalidation");
+        assertEquals(1, invalidations.size());
+        assertEquals("container", invalidations.get(0).getString("cause"));
+
+        List<RecordedEvent> frames = named(events, "RenderFrame");
+        assertEquals(1, frames.size());
+        assertEquals("main", frames.get(0).getString("overlay"));
+        assertEquals(28, frames.get(0).getInt("slots"));
+        assertEquals(3, frames.get(0).getInt("highlights"));
+        assertEquals(120, frames.get(0).getDuration("renderTime").toNanos() / 1000);
+    }
+
+    @Test
+    public void eventsAreOffByDefault() throws IOException {
+        assertTrue(record(false).isEmpty());
+    }
+}
@@ -0,0 +1,38 @@
+package com.inventoryhighlighter;
+
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HighlightGroupTest {
+    @Test
+    public void parseGroupHeaders() {
+        List<HighlightGroup> groups = HighlightGroup.parseGroups("Food #00FF00 #3300FF00: lobster\n\nswordfish, tuna");
+        assertEquals(2, groups.size());
+        assertEquals("Food", groups.get(0).getName());
+        assertEquals(0x00FF00, groups.get(0).getOutlineColor().getRGB() & 0xFFFFFF);
+        assertEquals(0x33, groups.get(0).getFillColor().getAlpha());
+        assertEquals("Group 2", groups.get(1).getName());
+        assertNull(groups.get(1).getOutlineColor());
+        assertEquals(2, groups.get(1).getPatterns().size());
+    }
+
+    @Test
+    public void parseStackConditions() {
+        List<HighlightGroup> groups = HighlightGroup.parseGroups("Low: rune*, qty<100\nValuable: value >= 1.5m, qty>0");
+        assertEquals(List.of("rune*"), groups.get(0).getPatterns());
+        assertTrue(groups.get(0).hasConditions());
+        assertFalse(groups.get(0).hasValueConditions());
+        // Conditions alone apply to every item
+        assertEquals(List.of("*"), groups.get(1).getPatterns());
+        assertTrue(groups.get(1).hasValueConditions());
+
+        HighlightGroup.Condition condition = HighlightGroup.Condition.parse("value>=1.5m");
+        assertTrue(condition.test(1, 1_500_000));
+        assertFalse(condition.test(1, 1_499_999));
+        assertNull(HighlightGroup.Condition.parse("quantity potion"));
+    }
+}
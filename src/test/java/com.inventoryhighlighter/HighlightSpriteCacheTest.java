@@ -0,0 +1,105 @@
+package com.inventoryhighlighter;
+
+import org.junit.Test;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HighlightSpriteCacheTest {
+    private final SyntheticItemSource items = new SyntheticItemSource(200);
+    private final Color fill = new Color(255, 0, 0, 200);
+
+    private static int maxAlpha(BufferedImage canvas) {
+        int alpha = 0;
+        for (int y = 0; y < canvas.getHeight(); y++) {
+            for (int x = 0; x < canvas.getWidth(); x++) {
+                alpha = Math.max(alpha, canvas.getRGB(x, y) >>> 24);
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * Alpha of the most opaque pixel a frame of the item's pulse draws
+     */
+    private int drawnAlpha(HighlightSpriteCache cache, int itemId, int frame) {
+        BufferedImage canvas = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = canvas.createGraphics();
+        assertTrue(cache.drawPulse(graphics, itemId, fill, frame, 0, 0));
+        graphics.dispose();
+        return maxAlpha(canvas);
+    }
+
+    private void pulseSharesTheSteadyFill(boolean atlas) {
+        HighlightSpriteCache cache = new HighlightSpriteCache(items);
+        cache.setAtlasEnabled(atlas);
+        int lobster = items.idOf("lobster");
+
+        int full = drawnAlpha(cache, lobster, 0);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getSize());
+
+        // Every later frame blits the same sprite, dimmest halfway round
+        int dimmest = full;
+        for (int frame = 1; frame < HighlightSpriteCache.PULSE_FRAMES * 2; frame++) {
+            dimmest = Math.min(dimmest, drawnAlpha(cache, lobster, frame));
+        }
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getSize());
+        assertEquals(200, full);
+        assertEquals(dimmest, drawnAlpha(cache, lobster, HighlightSpriteCache.PULSE_FRAMES / 2));
+        assertTrue(dimmest < full / 2);
+
+        // The steady fill is the same sprite, and the pulse leaves the composite as it was
+        BufferedImage canvas = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = canvas.createGraphics();
+        Composite composite = graphics.getComposite();
+        assertTrue(cache.drawPulse(graphics, lobster, fill, 3, 0, 0));
+        assertSame(composite, graphics.getComposite());
+        assertTrue(cache.drawFill(graphics, lobster, fill, 0, 0));
+        graphics.dispose();
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void pulseSharesTheSteadyFillInTheAtlas() {
+        pulseSharesTheSteadyFill(true);
+    }
+
+    @Test
+    public void pulseSharesTheSteadyFillAsImages() {
+        pulseSharesTheSteadyFill(false);
+    }
+
+    @Test
+    public void pulseKeepsTheOverlayOpacity() {
+        HighlightSpriteCache cache = new HighlightSpriteCache(items);
+        int lobster = items.idOf("lobster");
+        int opaque = drawnAlpha(cache, lobster, HighlightSpriteCache.PULSE_FRAMES / 2);
+
+        BufferedImage canvas = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = canvas.createGraphics();
+        AlphaComposite half = AlphaComposite.SrcOver.derive(0.5f);
+        graphics.setComposite(half);
+        assertTrue(cache.drawPulse(graphics, lobster, fill, HighlightSpriteCache.PULSE_FRAMES / 2, 0, 0));
+        assertSame(half, graphics.getComposite());
+        graphics.dispose();
+        assertEquals(opaque / 2.0, maxAlpha(canvas), 1.0);
+    }
+
+    @Test
+    public void pulseFramesFollowTheClientCycle() {
+        assertEquals(0, HighlightSpriteCache.pulseFrame(0));
+        assertEquals(0, HighlightSpriteCache.pulseFrame(4));
+        assertEquals(1, HighlightSpriteCache.pulseFrame(5));
+        // Round and round
+        int period = HighlightSpriteCache.PULSE_FRAMES * 5;
+        assertEquals(HighlightSpriteCache.pulseFrame(7), HighlightSpriteCache.pulseFrame(7 + period));
+        assertEquals(HighlightSpriteCache.PULSE_FRAMES - 1, HighlightSpriteCache.pulseFrame(-1));
+    }
+}
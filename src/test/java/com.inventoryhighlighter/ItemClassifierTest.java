@@ -0,0 +1,295 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.ItemMatcher;
+import com.inventoryhighlighter.engine.PatternList;
+import com.inventoryhighlighter.engine.VerdictTable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ItemClassifierTest {
+    @Test
+    public void switchingBackToARecentPresetNeedsNoLookups() {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        ItemClassifier classifier = new ItemClassifier(items);
+        int lobster = items.idOf("lobster");
+        int shark = items.idOf("shark");
+
+        classifier.update("lobster", "");
+        assertEquals(0, classifier.classify(lobster));
+        assertEquals(ItemMatcher.NO_MATCH, classifier.classify(shark));
+
+        classifier.update("shark", "");
+        assertEquals(ItemMatcher.NO_MATCH, classifier.classify(lobster));
+        assertEquals(0, classifier.classify(shark));
+
+        long lookups = items.getCompositionLookups();
+        classifier.update("lobster", "");
+        assertEquals(0, classifier.classify(lobster));
+        assertEquals(ItemMatcher.NO_MATCH, classifier.classify(shark));
+        assertEquals(lookups, items.getCompositionLookups());
+        assertEquals(2, classifier.getRecompiles());
+        assertEquals(1, classifier.getReuses());
+    }
+
+    @Test
+    public void reusedPresetsClassifyNamesLearnedSince() {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        ItemClassifier classifier = new ItemClassifier(items);
+        int shark = items.idOf("shark");
+
+        classifier.update("shark", "");
+        classifier.update("lobster", "");
+        // Named while the shark preset is not active, as the item index does
+        assertTrue(classifier.learnName(shark));
+
+        long lookups = items.getCompositionLookups();
+        classifier.update("shark", "");
+        assertEquals(0, classifier.getCachedVerdict(shark));
+        assertEquals(0, classifier.getCachedVerdict(items.notedId(shark)));
+        assertEquals(lookups, items.getCompositionLookups());
+        assertEquals(1, classifier.getReuses());
+    }
+
+    @Test
+    public void newPatternSetsReuseKnownNames() {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        ItemClassifier classifier = new ItemClassifier(items);
+        int lobster = items.idOf("lobster");
+        int shark = items.idOf("shark");
+
+        classifier.update("lobster", "");
+        classifier.classify(lobster);
+        classifier.classify(shark);
+        assertEquals(6, classifier.getKnownNames());
+
+        // Never seen before, yet classified up front from the names in memory
+        long lookups = items.getCompositionLookups();
+        classifier.update("shark", "Fish: *fish");
+        assertEquals(0, classifier.getCachedVerdict(shark));
+        assertEquals(0, classifier.getCachedVerdict(items.notedId(shark)));
+        assertEquals(ItemMatcher.NO_MATCH, classifier.getCachedVerdict(lobster));
+        assertEquals(lookups, items.getCompositionLookups());
+    }
+
+    @Test
+    public void fileEntriesRematchOnlyTheItemsTheyHit() {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        ItemClassifier classifier = new ItemClassifier(items);
+        int lobster = items.idOf("lobster");
+        int shark = items.idOf("shark");
+
+        classifier.update("lobster", "Fish: shark");
+        classifier.classify(lobster);
+        classifier.classify(shark);
+        assertEquals(1, classifier.getCachedVerdict(shark));
+
+        long lookups = items.getCompositionLookups();
+        assertTrue(classifier.updateFileEntries(Arrays.asList("shark")));
+        assertEquals(0, classifier.getCachedVerdict(shark));
+        assertEquals(0, classifier.getCachedVerdict(items.notedId(shark)));
+        assertEquals(0, classifier.getCachedVerdict(lobster));
+        // The shark and its variants; the lobster's verdicts carried over
+        assertEquals(3, classifier.getLastRematched());
+        assertEquals(lookups, items.getCompositionLookups());
+        assertFalse(classifier.updateFileEntries(Arrays.asList("shark")));
+
+        // The entries outlive config changes
+        classifier.update("", "Fish: shark");
+        assertEquals(0, classifier.classify(shark));
+        assertEquals(ItemMatcher.NO_MATCH, classifier.classify(lobster));
+
+        assertTrue(classifier.updateFileEntries(Collections.emptyList()));
+        assertEquals(1, classifier.getCachedVerdict(shark));
+        assertEquals(ItemMatcher.NO_MATCH, classifier.getCachedVerdict(lobster));
+    }
+
+    @Test
+    public void fileReloadsRematchOnlyTheirAddedAndRemovedEntries() throws IOException {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        ItemClassifier classifier = new ItemClassifier(items);
+        int lobster = items.idOf("lobster");
+        int shark = items.idOf("shark");
+        PatternList file = new PatternList(HighlightGroup::standardizePattern);
+
+        classifier.update("", "Fish: manta ray");
+        classifier.classify(lobster);
+        classifier.classify(shark);
+        assertTrue(classifier.updateFileEntries(file.load(new StringReader("lobster"))));
+        assertEquals(0, classifier.getCachedVerdict(lobster));
+
+        assertTrue(classifier.updateFileEntries(file.load(new StringReader("shark"))));
+        assertEquals(0, classifier.getCachedVerdict(shark));
+        assertEquals(ItemMatcher.NO_MATCH, classifier.getCachedVerdict(lobster));
+        // The shark, the lobster and their variants
+        assertEquals(6, classifier.getLastRematched());
+        assertFalse(classifier.updateFileEntries(file.load(new StringReader("shark"))));
+    }
+
+    @Test
+    public void typosResolveToKnownNamesUpFront() {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        ItemClassifier classifier = new ItemClassifier(items);
+        for (int id = items.firstId(); id <= items.lastId(); id++) {
+            classifier.learnName(id);
+        }
+        int lobster = items.idOf("lobster");
+        int scimitar = items.idOf("rune scimitar");
+
+        assertTrue(classifier.setFuzzyDistance(2));
+        classifier.update("lobstr, rune scimitr, *restore*, !super restroe(4)", "Fish: tna");
+        assertEquals(0, classifier.getCachedVerdict(lobster));
+        assertEquals(0, classifier.getCachedVerdict(items.notedId(lobster)));
+        assertEquals(0, classifier.getCachedVerdict(scimitar));
+        assertEquals(0, classifier.getCachedVerdict(items.idOf("super restore(3)")));
+        assertEquals(ItemMatcher.NO_MATCH, classifier.getCachedVerdict(items.idOf("super restore(4)")));
+        // Too short to guess at
+        assertEquals(ItemMatcher.NO_MATCH, classifier.getCachedVerdict(items.idOf("tuna")));
+
+        assertTrue(classifier.setFuzzyDistance(0));
+        classifier.update("lobstr, rune scimitr, *restore*, !super restroe(4)", "Fish: tna");
+        assertEquals(ItemMatcher.NO_MATCH, classifier.getCachedVerdict(lobster));
+    }
+
+    @Test
+    public void typosResolveAgainOnceMoreNamesAreKnown() {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        ItemClassifier classifier = new ItemClassifier(items);
+        int shark = items.idOf("shark");
+
+        classifier.setFuzzyDistance(1);
+        classifier.update("sharc", "");
+        assertEquals(ItemMatcher.NO_MATCH, classifier.classify(shark));
+
+        assertTrue(classifier.refreshFuzzyMatches());
+        assertEquals(0, classifier.getCachedVerdict(shark));
+        assertFalse(classifier.refreshFuzzyMatches());
+    }
+
+    @Test
+    public void idPatternsSkipTheItemLookup() {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        ItemClassifier classifier = new ItemClassifier(items);
+        classifier.update("#995, =lobster", "");
+
+        assertEquals(0, classifier.classify(SyntheticItemSource.COINS));
+        assertEquals(0, items.getCompositionLookups());
+        assertEquals(0, classifier.classify(items.idOf("lobster")));
+        assertEquals(1, items.getCompositionLookups());
+    }
+
+    @Test
+    public void notedAndPlaceholderVariantsShareOneLookup() {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        ItemClassifier classifier = new ItemClassifier(items);
+        classifier.update("lobster, rune*", "");
+
+        int lobster = items.idOf("lobster");
+        assertEquals(0, classifier.classify(lobster));
+        assertEquals(0, classifier.classify(items.notedId(lobster)));
+        assertEquals(0, classifier.classify(items.placeholderId(lobster)));
+        assertEquals(1, items.getCompositionLookups());
+
+        // A placeholder only links back to its base item
+        int scimitar = items.idOf("rune scimitar");
+        assertEquals(0, classifier.classify(items.placeholderId(scimitar)));
+        assertEquals(0, classifier.classify(scimitar));
+        assertEquals(2, items.getCompositionLookups());
+        assertEquals(0, classifier.classify(items.notedId(scimitar)));
+        assertEquals(3, items.getCompositionLookups());
+    }
+
+    @Test
+    public void idPatternsStillApplyToTheVariantId() {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        ItemClassifier classifier = new ItemClassifier(items);
+        int lobster = items.idOf("lobster");
+        classifier.update("lobster, !#" + items.notedId(lobster), "");
+
+        assertEquals(0, classifier.classify(lobster));
+        assertEquals(ItemMatcher.NO_MATCH, classifier.classify(items.notedId(lobster)));
+        assertEquals(1, items.getCompositionLookups());
+    }
+
+    @Test
+    public void keptPatternSetsAreBounded() {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        ItemClassifier classifier = new ItemClassifier(items);
+        for (int i = 0; i < 10; i++) {
+            classifier.update("lobster, *(" + i + ")", "");
+            for (int id = items.firstId(); id <= items.lastId(); id++) {
+                classifier.classify(id);
+            }
+        }
+
+        assertEquals(4, classifier.getCachedPatternSets());
+        // Each item also fills in its noted and placeholder variants
+        assertEquals(4L * 3 * (items.lastId() - items.firstId() + 1), classifier.getCachedVerdicts());
+        assertTrue(classifier.getFootprintBytes() <= 4L * VerdictTable.MAX_CAPACITY + 4 * 1024 * 1024);
+    }
+
+    @Test
+    public void verdictsPastTheCapacityAreNotCached() {
+        VerdictTable verdicts = new VerdictTable();
+        verdicts.put(VerdictTable.MAX_CAPACITY + 1, 0);
+        assertEquals(VerdictTable.UNKNOWN, verdicts.get(VerdictTable.MAX_CAPACITY + 1));
+        verdicts.put(40000, 0);
+        assertEquals(0, verdicts.get(40000));
+        assertEquals(1, verdicts.getKnownCount());
+        // Only the page holding the id is allocated
+        assertEquals(4096, verdicts.getFootprintBytes());
+    }
+
+    @Test
+    public void failedStackConditionsFallThroughToLaterGroups() {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        ItemClassifier classifier = new ItemClassifier(items);
+        PriceSnapshot prices = new PriceSnapshot(items);
+        classifier.update("", "Low #FF0000: lobster, qty<5\nFood: lobster, shark\nRich: value>=1m");
+        assertTrue(classifier.hasConditions());
+        assertTrue(classifier.hasValueConditions());
+
+        int lobster = items.idOf("lobster");
+        assertEquals("Low", classifier.getHighlight(lobster, 2, prices).getName());
+        assertEquals("Food", classifier.getHighlight(lobster, 10, prices).getName());
+
+        // A stack of coins is worth its quantity
+        assertNull(classifier.getHighlight(SyntheticItemSource.COINS, 999_999, prices));
+        assertEquals("Rich", classifier.getHighlight(SyntheticItemSource.COINS, 1_000_000, prices).getName());
+    }
+
+    @Test
+    public void pricesAreReadOncePerTick() {
+        SyntheticItemSource items = new SyntheticItemSource(200);
+        PriceSnapshot prices = new PriceSnapshot(items);
+        int lobster = items.idOf("lobster");
+
+        assertEquals(items.getItemPrice(lobster), prices.getPrice(lobster));
+        prices.getPrice(lobster);
+        assertEquals(1, prices.getPriceLookups());
+        prices.nextTick();
+        prices.getPrice(lobster);
+        assertEquals(2, prices.getPriceLookups());
+    }
+
+    @Test
+    public void parsePresets() {
+        List<Preset> presets = Preset.parse("Bossing: shark, *brew*\n\n  lobster, coins\n");
+        assertEquals(2, presets.size());
+        assertEquals("Bossing", presets.get(0).getName());
+        assertEquals("shark, *brew*", presets.get(0).getItemList());
+        assertEquals("Preset 2", presets.get(1).getName());
+        assertEquals("lobster, coins", presets.get(1).getItemList());
+
+        assertEquals(presets.get(0), Preset.find(presets, "bossing"));
+        assertNull(Preset.find(presets, "skilling"));
+        assertEquals(presets.get(1), Preset.find(presets, "preset 2"));
+    }
+}
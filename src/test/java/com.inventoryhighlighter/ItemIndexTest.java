@@ -0,0 +1,42 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.VerdictTable;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ItemIndexTest {
+    @Test
+    public void everyItemIsClassifiedUpFront() {
+        SyntheticItemSource items = new SyntheticItemSource(1000);
+        ItemClassifier classifier = new ItemClassifier(items);
+        classifier.update("lobster", "");
+        ReplayClientThread clientThread = new ReplayClientThread();
+        ItemIndex index = new ItemIndex(clientThread, items, classifier);
+
+        index.start();
+        while (clientThread.hasPending()) {
+            clientThread.runPending();
+        }
+        assertTrue(index.isComplete());
+
+        // Variants were named by their base item's lookup
+        int catalog = items.lastId() - items.firstId() + 2;
+        assertTrue(index.getLookups() < items.getItemCount() - catalog);
+
+        int lobster = items.idOf("lobster");
+        assertEquals(0, classifier.getCachedVerdict(lobster));
+        assertEquals(0, classifier.getCachedVerdict(items.placeholderId(lobster)));
+
+        // A new pattern set is resolved for every existing item before anything is drawn
+        long lookups = items.getCompositionLookups();
+        classifier.update("shark, #" + SyntheticItemSource.COINS, "Potions: *(4)");
+        for (int itemId = 0; itemId < items.getItemCount(); itemId++) {
+            assertFalse(classifier.getCachedVerdict(itemId) == VerdictTable.UNKNOWN);
+        }
+        assertEquals(1, classifier.getCachedVerdict(items.idOf("prayer potion(4)")));
+        assertEquals(0, classifier.getCachedVerdict(SyntheticItemSource.COINS));
+        assertEquals(lookups, items.getCompositionLookups());
+    }
+}
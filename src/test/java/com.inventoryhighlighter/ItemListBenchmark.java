@@ -0,0 +1,148 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.ItemMatcher;
+import com.inventoryhighlighter.engine.PatternList;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Cost of a very large item list file: streaming it in, compiling it with every item already named
+ * (so every item is matched again), and applying small edits to it, which match again only the items
+ * the edited lines can hit. Also reports the compiled matcher's footprint.
+ *
+ * <pre>
+ * ./gradlew itemListBenchmark
+ * ./gradlew itemListBenchmark -PitemListArgs="--patterns 20000 --edits 50 --rounds 10"
+ * </pre>
+ */
+public class ItemListBenchmark {
+    private static final int CATALOG = 15000;
+
+    public static void main(String[] args) throws IOException {
+        int patterns = 10000;
+        int edits = 10;
+        int rounds = 20;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--patterns":
+                    patterns = Integer.parseInt(args[++i]);
+                    break;
+                case "--edits":
+                    edits = Integer.parseInt(args[++i]);
+                    break;
+                case "--rounds":
+                    rounds = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        SyntheticItemSource items = new SyntheticItemSource(CATALOG);
+        ItemClassifier classifier = new ItemClassifier(items);
+        classifier.update("", "Food #00FF00: lobster, shark\nRunes: rune*");
+        // Every item named up front, as the item index does once logged in
+        for (int id = items.firstId(); id <= items.lastId(); id++) {
+            classifier.learnName(id);
+        }
+
+        Random random = new Random(47);
+        List<String> lines = lines(patterns, random);
+        String text = String.join("\n", lines);
+
+        System.out.println(String.format("%-8s %8s %10s %12s %10s", "step", "patterns", "ms/op", "rematched", "KB"));
+        // Each step runs once unmeasured to warm up
+        for (int pass = 0; pass < 2; pass++) {
+            String label = pass == 0 ? null : "load";
+            long nanos = 0;
+            List<String> entries = null;
+            for (int round = 0; round < rounds; round++) {
+                PatternList list = new PatternList(HighlightGroup::standardizePattern);
+                long start = System.nanoTime();
+                entries = list.load(new StringReader(text)).getEntries();
+                nanos += System.nanoTime() - start;
+            }
+            report(label, entries.size(), nanos, rounds, 0, 0);
+
+            nanos = 0;
+            for (int round = 0; round < rounds; round++) {
+                classifier.updateFileEntries(Collections.emptyList());
+                long start = System.nanoTime();
+                classifier.updateFileEntries(entries);
+                nanos += System.nanoTime() - start;
+            }
+            report(pass == 0 ? null : "compile", entries.size(), nanos, rounds, classifier.getLastRematched(), 0);
+
+            // A few lines swapped for new ones, as when editing the file by hand
+            PatternList list = new PatternList(HighlightGroup::standardizePattern);
+            list.load(new StringReader(text));
+            long incremental = 0;
+            int rematched = 0;
+            for (int round = 0; round < rounds; round++) {
+                List<String> edited = new ArrayList<>(lines);
+                for (int edit = 0; edit < edits; edit++) {
+                    edited.set(random.nextInt(edited.size()), "filler item " + random.nextInt(CATALOG));
+                }
+                long start = System.nanoTime();
+                PatternList.Delta delta = list.load(new StringReader(String.join("\n", edited)));
+                classifier.updateFileEntries(delta);
+                incremental += System.nanoTime() - start;
+                rematched += classifier.getLastRematched();
+            }
+            report(pass == 0 ? null : "edit", edits, incremental, rounds, rematched / rounds, 0);
+
+            // Matching every name builds the glob automaton's states, so the footprint is at its largest
+            ItemMatcher matcher = ItemMatcher.compile(Collections.singletonList(entries));
+            long start = System.nanoTime();
+            long sink = 0;
+            for (int id = items.firstId(); id <= items.lastId(); id++) {
+                sink += matcher.match(id, items.getItemComposition(id).getName().toLowerCase());
+            }
+            report(pass == 0 ? null : "match", entries.size(), System.nanoTime() - start, 1, matcher.getStateCount(),
+                matcher.getFootprintBytes() / 1024);
+            if (sink == 42) {
+                System.out.println();
+            }
+        }
+    }
+
+    /**
+     * A list the way players keep one: mostly item names, some exact names and ids, a few globs
+     */
+    private static List<String> lines(int count, Random random) {
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int item = random.nextInt(CATALOG);
+            switch (i % 10) {
+                case 0:
+                case 1:
+                    lines.add("=Filler item " + item);
+                    break;
+                case 2:
+                    lines.add("#" + (1000 + item));
+                    break;
+                case 3:
+                    lines.add("filler item " + item + "*");
+                    break;
+                case 4:
+                    lines.add(i % 100 == 4 ? "*item " + item + "?" : "*item " + item);
+                    break;
+                default:
+                    lines.add("Filler item " + item);
+                    break;
+            }
+        }
+        return lines;
+    }
+
+    private static void report(String label, int patterns, long nanos, int rounds, int rematched, long kilobytes) {
+        if (label != null) {
+            System.out.println(String.format("%-8s %8d %10.2f %12d %10d", label, patterns,
+                nanos / 1e6 / rounds, rematched, kilobytes));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.PatternList;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class ItemListFileTest {
+    private static PatternList.Delta next(BlockingQueue<PatternList.Delta> deltas) throws InterruptedException {
+        PatternList.Delta delta = deltas.poll(10, TimeUnit.SECONDS);
+        assertNotNull("No change seen", delta);
+        return delta;
+    }
+
+    @Test
+    public void editsArriveAsDeltas() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("highlighter");
+        Path path = directory.resolve("items.txt");
+        Files.write(path, "Lobster\nShark, \"Tome of fire, empty\"".getBytes(StandardCharsets.UTF_8));
+
+        ItemListFile file = new ItemListFile();
+        BlockingQueue<PatternList.Delta> deltas = new LinkedBlockingQueue<>();
+        try {
+            file.watch(path.toString(), deltas::add);
+            PatternList.Delta delta = next(deltas);
+            assertEquals(Arrays.asList("lobster", "shark", "\"tome of fire, empty\""), delta.getAdded());
+
+            Files.write(path, "shark\nmanta ray\n\"tome of fire, empty\"".getBytes(StandardCharsets.UTF_8));
+            delta = next(deltas);
+            assertEquals(Collections.singletonList("manta ray"), delta.getAdded());
+            assertEquals(Collections.singletonList("lobster"), delta.getRemoved());
+
+            Files.delete(path);
+            delta = next(deltas);
+            assertEquals(3, delta.getRemoved().size());
+            assertEquals(0, file.size());
+        } finally {
+            file.stop();
+            Files.deleteIfExists(path);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void relativePathsAreInThePluginDirectory() {
+        assertEquals(ItemListFile.DIRECTORY.toPath().resolve("items.txt").toAbsolutePath(),
+            ItemListFile.resolve(" items.txt "));
+        assertEquals(null, ItemListFile.resolve(""));
+    }
+
+    @Test
+    public void pathsWithoutAParentAreNotWatched() {
+        Path root = ItemListFile.resolve("items.txt").getRoot();
+        assertNotNull(ItemListFile.resolve("items.txt").getParent());
+
+        ItemListFile file = new ItemListFile();
+        BlockingQueue<PatternList.Delta> deltas = new LinkedBlockingQueue<>();
+        file.watch(root.toString(), deltas::add);
+        assertEquals(0, deltas.size());
+        assertEquals(0, file.size());
+        file.stop();
+    }
+}
@@ -0,0 +1,96 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.ClassificationJob;
+import net.runelite.api.widgets.InterfaceID;
+import net.runelite.api.widgets.WidgetUtil;
+import java.util.Random;
+
+/**
+ * Cost of recoloring large right-click menus. Builds menus the size of a crowded scene while an item
+ * is selected ("Use X -> ..." on every item, NPC and object) and times {@link MenuHighlighter} over
+ * every entry, cold (nothing classified yet) and warm.
+ *
+ * <pre>
+ * ./gradlew menuBenchmark
+ * ./gradlew menuBenchmark -PmenuArgs="--entries 2000 --menus 5000"
+ * </pre>
+ */
+public class MenuBenchmark {
+    private static final int INVENTORY_WIDGET = WidgetUtil.packComponentId(InterfaceID.INVENTORY, 0);
+
+    public static void main(String[] args) {
+        int entries = 500;
+        int menus = 2000;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--entries":
+                    entries = Integer.parseInt(args[++i]);
+                    break;
+                case "--menus":
+                    menus = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        SyntheticItemSource items = new SyntheticItemSource(2000);
+        ItemClassifier classifier = new ItemClassifier(items);
+        classifier.update(ReplayScenarios.DEFAULT_ITEM_LIST, "Dragon #FFAA00: dragon*\nBones #FFFFFF: *bones");
+        ReplayClientThread clientThread = new ReplayClientThread();
+        ClassificationJob job = new ClassificationJob(clientThread::invokeLater, classifier);
+        ContainerRegistry containers = new ContainerRegistry(clientThread, job, classifier, new PriceSnapshot(items),
+            new InventoryHighlighterConfig() {});
+        MenuHighlighter highlighter = new MenuHighlighter(null, classifier, containers);
+
+        // Two thirds of the entries are on items, the rest on NPCs and objects
+        Random random = new Random(38);
+        String[] targets = new String[entries];
+        int[] itemIds = new int[entries];
+        int selected = items.idOf("dragon bones");
+        for (int i = 0; i < entries; i++) {
+            if (i % 3 == 2) {
+                itemIds[i] = -1;
+                targets[i] = "<col=ff9040>Dragon bones<col=ffffff> -> <col=ffff00>Goblin";
+            } else {
+                itemIds[i] = items.firstId() + random.nextInt(items.lastId() - items.firstId() + 1);
+                targets[i] = "<col=ff9040>Dragon bones<col=ffffff> -> <col=ff9040>"
+                    + items.getItemComposition(itemIds[i]).getName();
+            }
+        }
+
+        System.out.println(String.format("%-8s %8s %8s %12s %12s", "verdicts", "entries", "menus", "ns/entry", "recolored"));
+        // Each pass runs once unmeasured to warm up
+        run(null, highlighter, targets, itemIds, selected, menus);
+        run("cold", highlighter, targets, itemIds, selected, menus);
+        job.enqueue(itemIds, itemIds.length);
+        job.enqueue(new int[]{selected}, 1);
+        while (clientThread.hasPending()) {
+            clientThread.runPending();
+        }
+        run(null, highlighter, targets, itemIds, selected, menus);
+        run("warm", highlighter, targets, itemIds, selected, menus);
+    }
+
+    private static void run(String label, MenuHighlighter highlighter, String[] targets, int[] itemIds, int selected,
+            int menus) {
+        long recolored = highlighter.getRecolored();
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int menu = 0; menu < menus; menu++) {
+            for (int i = 0; i < targets.length; i++) {
+                String target = highlighter.highlight(targets[i], itemIds[i], INVENTORY_WIDGET, i, selected);
+                sink += target != null ? target.length() : 0;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+
+        if (label != null) {
+            System.out.println(String.format("%-8s %8d %8d %12.1f %12d", label, targets.length, menus,
+                (double) nanos / ((long) menus * targets.length), highlighter.getRecolored() - recolored));
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.ClassificationJob;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.widgets.InterfaceID;
+import net.runelite.api.widgets.WidgetUtil;
+import org.junit.Test;
+import java.awt.Color;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MenuHighlighterTest {
+    private static final int INVENTORY_WIDGET = WidgetUtil.packComponentId(InterfaceID.INVENTORY, 0);
+
+    private final SyntheticItemSource items = new SyntheticItemSource(200);
+    private final ItemClassifier classifier = new ItemClassifier(items);
+    private final ReplayClientThread clientThread = new ReplayClientThread();
+    private final ClassificationJob job = new ClassificationJob(clientThread::invokeLater, classifier);
+    private final ContainerRegistry containers = new ContainerRegistry(clientThread, job, classifier,
+        new PriceSnapshot(items), new InventoryHighlighterConfig() {});
+    private final MenuHighlighter menus = new MenuHighlighter(null, classifier, containers);
+
+    private final int lobster = items.idOf("lobster");
+    private final int shark = items.idOf("shark");
+    private final int knife = items.idOf("knife");
+
+    private void classify(int... itemIds) {
+        job.enqueue(itemIds, itemIds.length);
+        while (clientThread.hasPending()) {
+            clientThread.runPending();
+        }
+    }
+
+    @Test
+    public void highlightedItemsAreRecolored() {
+        classifier.update("lobster", "Sharks #00FF00: shark");
+        menus.setDefaultColor(Color.RED);
+        classify(lobster, shark, knife);
+
+        assertEquals("<col=ff0000>Lobster", menus.highlight("<col=ff9040>Lobster", lobster, INVENTORY_WIDGET, 0, -1));
+        assertEquals("<col=00ff00>Shark", menus.highlight("<col=ff9040>Shark", shark, INVENTORY_WIDGET, 1, -1));
+        assertNull(menus.highlight("<col=ff9040>Knife", knife, INVENTORY_WIDGET, 2, -1));
+        assertNull(menus.highlight("<col=ffff00>Man", -1, -1, 0, -1));
+    }
+
+    @Test
+    public void bothSidesOfUseAreRecolored() {
+        classifier.update("lobster", "Sharks #00FF00: shark");
+        menus.setDefaultColor(Color.RED);
+        classify(lobster, shark, knife);
+
+        assertEquals("<col=ff0000>Lobster<col=ffffff> -> <col=00ff00>Shark",
+            menus.highlight("<col=ff9040>Lobster<col=ffffff> -> <col=ff9040>Shark", shark, INVENTORY_WIDGET, 1, lobster));
+        assertEquals("<col=ff9040>Knife<col=ffffff> -> <col=00ff00>Shark",
+            menus.highlight("<col=ff9040>Knife<col=ffffff> -> <col=ff9040>Shark", shark, INVENTORY_WIDGET, 1, knife));
+        assertEquals("<col=ff0000>Lobster<col=ffffff> -> <col=ffff00>Man",
+            menus.highlight("<col=ff9040>Lobster<col=ffffff> -> <col=ffff00>Man", -1, -1, 0, lobster));
+    }
+
+    @Test
+    public void unclassifiedItemsCostNoLookup() {
+        classifier.update("lobster", "");
+        assertNull(menus.highlight("<col=ff9040>Lobster", lobster, INVENTORY_WIDGET, 0, -1));
+        assertEquals(0, items.getCompositionLookups());
+    }
+
+    @Test
+    public void conditionalGroupsComeFromSettledSlots() {
+        classifier.update("", "Low: lobster, qty<5");
+        containers.update(InventoryID.INVENTORY.getId(), new Item[]{new Item(lobster, 2), new Item(lobster, 10)});
+        classify(lobster);
+
+        assertEquals("<col=ff0000>Lobster", menus.highlight("<col=ff9040>Lobster", lobster, INVENTORY_WIDGET, 0, -1));
+        assertNull(menus.highlight("<col=ff9040>Lobster", lobster, INVENTORY_WIDGET, 1, -1));
+    }
+}
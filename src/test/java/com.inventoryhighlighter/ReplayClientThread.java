@@ -0,0 +1,57 @@
+package com.inventoryhighlighter;
+
+import net.runelite.client.callback.ClientThread;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A client thread for headless runs. The caller is the client thread, so {@code invoke} runs the task
+ * right away, while {@code invokeLater} tasks wait for {@link #runPending()}, which the replay calls
+ * once per client tick. A task returning false stays queued, as in the client.
+ */
+class ReplayClientThread extends ClientThread {
+    private final List<BooleanSupplier> pending = new ArrayList<>();
+
+    @Override
+    public void invoke(Runnable r) {
+        r.run();
+    }
+
+    @Override
+    public void invoke(BooleanSupplier r) {
+        if (!r.getAsBoolean()) {
+            pending.add(r);
+        }
+    }
+
+    @Override
+    public void invokeLater(Runnable r) {
+        pending.add(() -> {
+            r.run();
+            return true;
+        });
+    }
+
+    @Override
+    public void invokeLater(BooleanSupplier r) {
+        pending.add(r);
+    }
+
+    /**
+     * Run every queued task once, keeping those that are not done yet
+     */
+    void runPending() {
+        List<BooleanSupplier> tasks = new ArrayList<>(pending);
+        pending.clear();
+        for (BooleanSupplier task : tasks) {
+            if (!task.getAsBoolean()) {
+                pending.add(task);
+            }
+        }
+    }
+
+    boolean hasPending() {
+        return !pending.isEmpty();
+    }
+}
@@ -0,0 +1,134 @@
+package com.inventoryhighlighter;
+
+import java.util.Arrays;
+
+/**
+ * One step of a replayed session. Streams are stored one event per line:
+ *
+ * <pre>
+ * client_tick
+ * game_tick
+ * mouse 600 240
+ * container 93 995x1000 379 -1 ...   (item id, optional xQuantity, -1 for an empty slot)
+ * widget 12
+ * config itemList lobster,shark*      (newlines in values are written as \n)
+ * frame
+ * </pre>
+ */
+public final class ReplayEvent {
+    public enum Type {
+        CLIENT_TICK,
+        GAME_TICK,
+        MOUSE,
+        CONTAINER,
+        WIDGET,
+        CONFIG,
+        FRAME
+    }
+
+    static final ReplayEvent CLIENT_TICK = new ReplayEvent(Type.CLIENT_TICK, 0, 0, null, null, null, null);
+    static final ReplayEvent GAME_TICK = new ReplayEvent(Type.GAME_TICK, 0, 0, null, null, null, null);
+    static final ReplayEvent FRAME = new ReplayEvent(Type.FRAME, 0, 0, null, null, null, null);
+
+    final Type type;
+    // mouse x/y, container id or widget group id
+    final int a;
+    final int b;
+    final int[] itemIds;
+    final int[] quantities;
+    final String key;
+    final String value;
+
+    private ReplayEvent(Type type, int a, int b, int[] itemIds, int[] quantities, String key, String value) {
+        this.type = type;
+        this.a = a;
+        this.b = b;
+        this.itemIds = itemIds;
+        this.quantities = quantities;
+        this.key = key;
+        this.value = value;
+    }
+
+    static ReplayEvent mouse(int x, int y) {
+        return new ReplayEvent(Type.MOUSE, x, y, null, null, null, null);
+    }
+
+    static ReplayEvent container(int containerId, int[] itemIds, int[] quantities) {
+        return new ReplayEvent(Type.CONTAINER, containerId, 0, itemIds.clone(), quantities.clone(), null, null);
+    }
+
+    static ReplayEvent widget(int groupId) {
+        return new ReplayEvent(Type.WIDGET, groupId, 0, null, null, null, null);
+    }
+
+    static ReplayEvent config(String key, String value) {
+        return new ReplayEvent(Type.CONFIG, 0, 0, null, null, key, value);
+    }
+
+    /**
+     * Parse a single trace line. Blank lines and lines starting with '#' yield null.
+     */
+    static ReplayEvent parse(String line) {
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+            return null;
+        }
+
+        String[] parts = line.split("\\s+", 3);
+        switch (parts[0]) {
+            case "client_tick":
+                return CLIENT_TICK;
+            case "game_tick":
+                return GAME_TICK;
+            case "frame":
+                return FRAME;
+            case "mouse":
+                return mouse(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            case "widget":
+                return widget(Integer.parseInt(parts[1]));
+            case "config":
+                return config(parts[1], parts.length > 2 ? parts[2].replace("\\n", "\n") : "");
+            case "container": {
+                String[] slots = parts.length > 2 ? parts[2].split("\\s+") : new String[0];
+                int[] ids = new int[slots.length];
+                int[] quantities = new int[slots.length];
+                for (int i = 0; i < slots.length; i++) {
+                    int x = slots[i].indexOf('x');
+                    ids[i] = Integer.parseInt(x < 0 ? slots[i] : slots[i].substring(0, x));
+                    quantities[i] = x < 0 ? (ids[i] < 0 ? 0 : 1) : Integer.parseInt(slots[i].substring(x + 1));
+                }
+                return container(Integer.parseInt(parts[1]), ids, quantities);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown replay event: " + line);
+        }
+    }
+
+    String format() {
+        switch (type) {
+            case MOUSE:
+                return "mouse " + a + " " + b;
+            case WIDGET:
+                return "widget " + a;
+            case CONFIG:
+                return "config " + key + " " + value.replace("\n", "\\n");
+            case CONTAINER: {
+                StringBuilder sb = new StringBuilder("container ").append(a);
+                for (int i = 0; i < itemIds.length; i++) {
+                    sb.append(' ').append(itemIds[i]);
+                    if (quantities[i] != 1 && itemIds[i] >= 0) {
+                        sb.append('x').append(quantities[i]);
+                    }
+                }
+                return sb.toString();
+            }
+            default:
+                return type.name().toLowerCase();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.CONTAINER ? "container " + a + " " + Arrays.toString(itemIds) : format();
+    }
+}
@@ -0,0 +1,317 @@
+package com.inventoryhighlighter;
+
+import net.runelite.api.InventoryID;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthesized sessions for {@link SessionReplay}. Every stream starts from the same seed so runs
+ * are comparable; one frame is one client tick and a game tick lands every 30 frames (600ms / 20ms).
+ */
+final class ReplayScenarios {
+    static final String BANK_SORTING = "bank-sorting";
+    static final String INVENTORY_FLICKING = "inventory-flicking";
+    static final String THREE_TICK_SKILLING = "3-tick-skilling";
+    static final String BANK_SORTING_GROUPS = "bank-sorting-groups";
+    static final String PRESET_SWITCHING = "preset-switching";
+    static final String BANK_OPEN = "bank-open";
+    static final String[] ALL = {BANK_SORTING, INVENTORY_FLICKING, THREE_TICK_SKILLING, BANK_SORTING_GROUPS,
+        PRESET_SWITCHING, BANK_OPEN};
+
+    static final String DEFAULT_ITEM_LIST = "rune*, *potion*, lobster, coins, shark";
+
+    private static final int FRAMES_PER_GAME_TICK = 30;
+    private static final int BANK_SIZE = 800;
+    static final int FULL_BANK_SIZE = 1000;
+
+    private ReplayScenarios() {
+    }
+
+    static List<ReplayEvent> build(String scenario, SyntheticItemSource items, int frames, boolean hoverOnly) {
+        switch (scenario) {
+            case BANK_SORTING:
+                return bankSorting(items, frames, hoverOnly);
+            case INVENTORY_FLICKING:
+                return inventoryFlicking(items, frames, hoverOnly);
+            case THREE_TICK_SKILLING:
+                return threeTickSkilling(items, frames, hoverOnly);
+            case BANK_SORTING_GROUPS:
+                return bankSortingGroups(items, frames, hoverOnly);
+            case PRESET_SWITCHING:
+                return presetSwitching(items, frames, hoverOnly);
+            case BANK_OPEN:
+                return bankOpen(items, frames, hoverOnly);
+            default:
+                throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+    }
+
+    private static List<ReplayEvent> header(boolean hoverOnly, String itemList) {
+        List<ReplayEvent> events = new ArrayList<>();
+        events.add(ReplayEvent.config("hoverOnly", Boolean.toString(hoverOnly)));
+        events.add(ReplayEvent.config("itemList", itemList));
+        events.add(ReplayEvent.GAME_TICK);
+        return events;
+    }
+
+    private static int[] inventory(SyntheticItemSource items, Random random) {
+        int[] ids = new int[SessionReplay.INVENTORY_SIZE];
+        ids[0] = SyntheticItemSource.COINS;
+        for (int i = 1; i < ids.length; i++) {
+            ids[i] = items.firstId() + random.nextInt(items.lastId() - items.firstId() + 1);
+        }
+        return ids;
+    }
+
+    /**
+     * A main tab with the usual suspects up front, followed by the rest of the catalog in random order
+     * with every fourth item left as a placeholder.
+     */
+    private static int[] bank(SyntheticItemSource items, Random random) {
+        return bank(items, random, BANK_SIZE);
+    }
+
+    private static int[] bank(SyntheticItemSource items, Random random, int size) {
+        List<Integer> front = new ArrayList<>();
+        front.add(SyntheticItemSource.COINS);
+        for (String name : new String[]{"lobster", "shark", "prayer potion(4)", "super restore(4)", "rune scimitar",
+            "rune platebody", "rune pickaxe", "dragon dagger", "dragon bones"}) {
+            front.add(items.idOf(name));
+        }
+
+        List<Integer> rest = new ArrayList<>();
+        for (int id = items.firstId(); id <= items.lastId(); id++) {
+            if (!front.contains(id)) {
+                rest.add(id);
+            }
+        }
+        Collections.shuffle(rest, random);
+        for (int i = 3; i < rest.size(); i += 4) {
+            rest.set(i, items.placeholderId(rest.get(i)));
+        }
+
+        int[] bank = new int[Math.min(size, front.size() + rest.size())];
+        for (int i = 0; i < bank.length; i++) {
+            bank[i] = i < front.size() ? front.get(i) : rest.get(i - front.size());
+        }
+        return bank;
+    }
+
+    private static int[] ones(int size) {
+        int[] quantities = new int[size];
+        Arrays.fill(quantities, 1);
+        return quantities;
+    }
+
+    /**
+     * Bank open with a full tab; slots are swapped every few frames while the mouse drags across
+     * the grid, and the item list is edited halfway through.
+     */
+    private static List<ReplayEvent> bankSorting(SyntheticItemSource items, int frames, boolean hoverOnly) {
+        Random random = new Random(26);
+        List<ReplayEvent> events = header(hoverOnly, DEFAULT_ITEM_LIST);
+
+        int[] bank = bank(items, random);
+        int[] quantities = ones(bank.length);
+        events.add(ReplayEvent.widget(SessionReplay.BANK_GROUP));
+        events.add(ReplayEvent.container(InventoryID.BANK.getId(), bank, quantities));
+        events.add(ReplayEvent.container(InventoryID.INVENTORY.getId(), inventory(items, random), ones(SessionReplay.INVENTORY_SIZE)));
+
+        for (int frame = 0; frame < frames; frame++) {
+            events.add(ReplayEvent.CLIENT_TICK);
+            if (frame % 3 == 0) {
+                int slot = random.nextInt(SessionReplay.BANK_COLUMNS * SessionReplay.BANK_VISIBLE_ROWS);
+                events.add(ReplayEvent.mouse(SessionReplay.bankSlotX(slot) + 10, SessionReplay.bankSlotY(slot, 0) + 10));
+            }
+            if (frame % FRAMES_PER_GAME_TICK == 0) {
+                events.add(ReplayEvent.GAME_TICK);
+            }
+            if (frame % 10 == 0) {
+                int a = random.nextInt(bank.length);
+                int b = random.nextInt(bank.length);
+                int tmp = bank[a];
+                bank[a] = bank[b];
+                bank[b] = tmp;
+                events.add(ReplayEvent.container(InventoryID.BANK.getId(), bank, quantities));
+            }
+            if (frame == frames / 2) {
+                events.add(ReplayEvent.config("itemList", "dragon*, *(4), shark, coins"));
+            }
+            events.add(ReplayEvent.FRAME);
+        }
+        return events;
+    }
+
+    /**
+     * The bank sorting session with the same patterns spread over several colored groups, to
+     * compare against the single-list run.
+     */
+    private static List<ReplayEvent> bankSortingGroups(SyntheticItemSource items, int frames, boolean hoverOnly) {
+        List<ReplayEvent> events = bankSorting(items, frames, hoverOnly);
+        events.add(2, ReplayEvent.config("highlightGroups", String.join("\n",
+            "Food #00FF00: lobster, shark, karambwan, anglerfish",
+            "Potions #FF00FF: *potion*, *brew*",
+            "Runes #00FFFF: rune*",
+            "Dragon #FFAA00: dragon*",
+            "Bones #FFFFFF: *bones",
+            "Logs #AA5500: *logs")));
+        return events;
+    }
+
+    /**
+     * Bank open while cycling through three presets every couple of game ticks. Only the first
+     * visit to each preset should cost item lookups.
+     */
+    private static List<ReplayEvent> presetSwitching(SyntheticItemSource items, int frames, boolean hoverOnly) {
+        Random random = new Random(29);
+        List<ReplayEvent> events = header(hoverOnly, DEFAULT_ITEM_LIST);
+        String[] presets = {"Bossing", "Skilling", "Slayer"};
+        events.add(2, ReplayEvent.config("presets", String.join("\n",
+            "Bossing: *potion*, *brew*, shark, anglerfish, manta ray, rune*",
+            "Skilling: *logs, *pickaxe, *axe, granite*, guam*, swamp tar",
+            "Slayer: dragon*, *bones, lobster, karambwan, *(4)")));
+
+        int[] bank = bank(items, random);
+        events.add(ReplayEvent.widget(SessionReplay.BANK_GROUP));
+        events.add(ReplayEvent.container(InventoryID.BANK.getId(), bank, ones(bank.length)));
+        events.add(ReplayEvent.container(InventoryID.INVENTORY.getId(), inventory(items, random), ones(SessionReplay.INVENTORY_SIZE)));
+
+        for (int frame = 0; frame < frames; frame++) {
+            events.add(ReplayEvent.CLIENT_TICK);
+            if (frame % 3 == 0) {
+                int slot = random.nextInt(SessionReplay.BANK_COLUMNS * SessionReplay.BANK_VISIBLE_ROWS);
+                events.add(ReplayEvent.mouse(SessionReplay.bankSlotX(slot) + 10, SessionReplay.bankSlotY(slot, 0) + 10));
+            }
+            if (frame % (FRAMES_PER_GAME_TICK * 2) == 0) {
+                events.add(ReplayEvent.config("activePreset", presets[(frame / (FRAMES_PER_GAME_TICK * 2)) % presets.length]));
+            }
+            if (frame % FRAMES_PER_GAME_TICK == 0) {
+                events.add(ReplayEvent.GAME_TICK);
+            }
+            events.add(ReplayEvent.FRAME);
+        }
+        return events;
+    }
+
+    /**
+     * A full 1000 slot bank opened over and over, each time with an item list edited since the last
+     * visit, so every slot arrives without a verdict. Measures how many frames it takes until the whole
+     * bank is classified.
+     */
+    private static List<ReplayEvent> bankOpen(SyntheticItemSource items, int frames, boolean hoverOnly) {
+        Random random = new Random(35);
+        List<ReplayEvent> events = header(hoverOnly, DEFAULT_ITEM_LIST);
+        String[] itemLists = {DEFAULT_ITEM_LIST, "dragon*, *(4), shark, coins", "*logs, *pickaxe, *axe, guam*",
+            "rune*, *bones, lobster, karambwan", "*potion*, *brew*, anglerfish, manta ray", "iron*, steel*, tuna"};
+
+        int[] bank = bank(items, random, FULL_BANK_SIZE);
+        int[] inventory = inventory(items, random);
+        events.add(ReplayEvent.container(InventoryID.INVENTORY.getId(), inventory, ones(SessionReplay.INVENTORY_SIZE)));
+
+        int visits = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            events.add(ReplayEvent.CLIENT_TICK);
+            if (frame % (FRAMES_PER_GAME_TICK * 4) == 0) {
+                // More lists than kept pattern sets, so no visit finds its verdicts cached
+                events.add(ReplayEvent.config("itemList", itemLists[visits++ % itemLists.length]));
+                events.add(ReplayEvent.GAME_TICK);
+                events.add(ReplayEvent.widget(SessionReplay.BANK_GROUP));
+                events.add(ReplayEvent.container(InventoryID.BANK.getId(), bank, ones(bank.length)));
+            } else if (frame % (FRAMES_PER_GAME_TICK * 4) == FRAMES_PER_GAME_TICK * 3) {
+                events.add(ReplayEvent.GAME_TICK);
+                events.add(ReplayEvent.widget(SessionReplay.INVENTORY_GROUP));
+            } else if (frame % FRAMES_PER_GAME_TICK == 0) {
+                events.add(ReplayEvent.GAME_TICK);
+            }
+            if (frame % 3 == 0) {
+                int slot = random.nextInt(SessionReplay.BANK_COLUMNS * SessionReplay.BANK_VISIBLE_ROWS);
+                events.add(ReplayEvent.mouse(SessionReplay.bankSlotX(slot) + 10, SessionReplay.bankSlotY(slot, 0) + 10));
+            }
+            events.add(ReplayEvent.FRAME);
+        }
+        return events;
+    }
+
+    /**
+     * Inventory only; the mouse lands on a different slot every frame and food is eaten every
+     * couple of game ticks.
+     */
+    private static List<ReplayEvent> inventoryFlicking(SyntheticItemSource items, int frames, boolean hoverOnly) {
+        Random random = new Random(27);
+        List<ReplayEvent> events = header(hoverOnly, DEFAULT_ITEM_LIST);
+
+        int[] inventory = inventory(items, random);
+        int lobster = items.idOf("lobster");
+        for (int i = 14; i < inventory.length; i++) {
+            inventory[i] = lobster;
+        }
+        int[] quantities = ones(inventory.length);
+        events.add(ReplayEvent.widget(SessionReplay.INVENTORY_GROUP));
+        events.add(ReplayEvent.container(InventoryID.INVENTORY.getId(), inventory, quantities));
+
+        int eaten = inventory.length - 1;
+        for (int frame = 0; frame < frames; frame++) {
+            events.add(ReplayEvent.CLIENT_TICK);
+            int slot = random.nextInt(inventory.length);
+            events.add(ReplayEvent.mouse(SessionReplay.inventorySlotX(slot) + 8, SessionReplay.inventorySlotY(slot) + 8));
+            if (frame % FRAMES_PER_GAME_TICK == 0) {
+                events.add(ReplayEvent.GAME_TICK);
+            }
+            if (frame % (FRAMES_PER_GAME_TICK * 2) == 15) {
+                if (eaten < 14) {
+                    // Restock
+                    for (int i = 14; i < inventory.length; i++) {
+                        inventory[i] = lobster;
+                    }
+                    eaten = inventory.length - 1;
+                }
+                inventory[eaten--] = -1;
+                events.add(ReplayEvent.container(InventoryID.INVENTORY.getId(), inventory, quantities));
+            }
+            events.add(ReplayEvent.FRAME);
+        }
+        return events;
+    }
+
+    /**
+     * Tick-manipulated gathering: every third game tick a resource is consumed and a product
+     * appears, with the mouse alternating between the two clicked slots.
+     */
+    private static List<ReplayEvent> threeTickSkilling(SyntheticItemSource items, int frames, boolean hoverOnly) {
+        Random random = new Random(28);
+        List<ReplayEvent> events = header(hoverOnly, "guam*, swamp tar, granite*, " + DEFAULT_ITEM_LIST);
+
+        int[] inventory = inventory(items, random);
+        inventory[0] = items.idOf("guam leaf");
+        inventory[1] = items.idOf("swamp tar");
+        int[] products = {items.idOf("granite (500g)"), items.idOf("granite (2kg)"), items.idOf("granite (5kg)")};
+        int[] quantities = ones(inventory.length);
+        quantities[1] = 500;
+        events.add(ReplayEvent.widget(SessionReplay.INVENTORY_GROUP));
+        events.add(ReplayEvent.container(InventoryID.INVENTORY.getId(), inventory, quantities));
+
+        int gameTicks = 0;
+        int productSlot = 2;
+        for (int frame = 0; frame < frames; frame++) {
+            events.add(ReplayEvent.CLIENT_TICK);
+            if (frame % 15 == 0) {
+                int slot = (frame / 15) % 2;
+                events.add(ReplayEvent.mouse(SessionReplay.inventorySlotX(slot) + 12, SessionReplay.inventorySlotY(slot) + 12));
+            }
+            if (frame % FRAMES_PER_GAME_TICK == 0) {
+                events.add(ReplayEvent.GAME_TICK);
+                if (++gameTicks % 3 == 0) {
+                    inventory[productSlot] = products[random.nextInt(products.length)];
+                    productSlot = productSlot + 1 < inventory.length ? productSlot + 1 : 2;
+                    quantities[1] = Math.max(1, quantities[1] - 1);
+                    events.add(ReplayEvent.container(InventoryID.INVENTORY.getId(), inventory, quantities));
+                }
+            }
+            events.add(ReplayEvent.FRAME);
+        }
+        return events;
+    }
+}
@@ -0,0 +1,436 @@
+package com.inventoryhighlighter;
+
+import com.inventoryhighlighter.engine.ClassificationJob;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.Point;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.ClientTick;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.WidgetLoaded;
+import net.runelite.api.widgets.ComponentID;
+import net.runelite.api.widgets.Widget;
+import net.runelite.api.widgets.WidgetItem;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.input.KeyManager;
+import net.runelite.client.ui.overlay.Overlay;
+import net.runelite.client.ui.overlay.OverlayManager;
+import net.runelite.client.ui.overlay.WidgetItemOverlay;
+import org.mockito.invocation.InvocationOnMock;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Headless session replay. Wires the plugin and both overlays against mocked client services and
+ * an in-memory item catalog, then feeds them a synthesized or recorded {@link ReplayEvent} stream.
+ * Each {@code frame} event renders every visible slot through every overlay the plugin has added,
+ * the same way {@link WidgetItemOverlay#render} would.
+ *
+ * <pre>
+ * ./gradlew replay                                   all built-in scenarios, hover-only and not
+ * ./gradlew replay -PreplayArgs="--frames 6000 bank-sorting"
+ * ./gradlew replay -PreplayArgs="session.trace"      replay a recorded trace file
+ * ./gradlew replay -PreplayArgs="--write traces"     dump the synthesized streams as trace files
+ * </pre>
+ *
+ * CPU time is the replay thread's CPU time and includes the mocks, so compare runs against each
+ * other rather than reading the numbers as absolute client cost. The overlays' time-based throttles
+ * see wall-clock time, which passes faster than in a real session.
+ * <p>
+ * Each run prints one line per scenario: the events replayed and frames drawn, CPU and wall time,
+ * pattern set invalidations, highlights drawn, item composition lookups, the sprite cache's size in
+ * KB and the slots culled as off screen. The last two, ready and ready ms, are the most frames
+ * any container change waited until its last slot had a verdict, and how long the last such wait
+ * took.
+ */
+public class SessionReplay {
+    static final int INVENTORY_GROUP = 149;
+    static final int BANK_GROUP = 12;
+
+    // Fixed-mode layout
+    static final int INVENTORY_SIZE = 28;
+    private static final int INVENTORY_COLUMNS = 4;
+    private static final int INVENTORY_X = 563;
+    private static final int INVENTORY_Y = 213;
+    static final int BANK_COLUMNS = 8;
+    static final int BANK_VISIBLE_ROWS = 8;
+    private static final int BANK_X = 73;
+    private static final int BANK_Y = 83;
+    private static final int SLOT_WIDTH = 36;
+    private static final int SLOT_HEIGHT = 32;
+
+    private static final int DEFAULT_FRAMES = 3000;
+    private static final int DEFAULT_CATALOG_SIZE = 2000;
+
+    private final SyntheticItemSource items;
+    private final InventoryHighlighterPlugin plugin;
+    private final ItemClassifier classifier;
+    private final HighlightPainter painter;
+    private final HighlightSpriteCache spriteCache;
+    private final BankViewport bankViewport;
+    private final ClassificationJob classificationJob;
+    private final ReplayClientThread clientThread = new ReplayClientThread();
+    private final Set<Overlay> activeOverlays = new LinkedHashSet<>();
+    private final Map<String, Object> configValues = new HashMap<>();
+    private final Map<Integer, int[]> containerIds = new HashMap<>();
+    private final Map<Integer, int[]> containerQuantities = new HashMap<>();
+    private final Map<Long, WidgetItem> widgetItems = new HashMap<>();
+    private final BufferedImage canvas = new BufferedImage(765, 503, BufferedImage.TYPE_INT_ARGB);
+    private final Graphics2D graphics = canvas.createGraphics();
+
+    private int mouseX = -1;
+    private int mouseY = -1;
+    private boolean bankOpen;
+    private int gameCycle;
+
+    SessionReplay(SyntheticItemSource items) throws Exception {
+        this.items = items;
+
+        Client client = mock(Client.class, withSettings().stubOnly());
+        when(client.getGameState()).thenReturn(GameState.LOGGED_IN);
+        when(client.getMouseCanvasPosition()).thenAnswer(i -> new Point(mouseX, mouseY));
+        when(client.getGameCycle()).thenAnswer(i -> gameCycle);
+
+        // The visible part of the bank: the first BANK_VISIBLE_ROWS rows, since the replay never scrolls
+        Widget bankContainer = mock(Widget.class, withSettings().stubOnly());
+        when(bankContainer.getId()).thenReturn(ComponentID.BANK_ITEM_CONTAINER);
+        when(bankContainer.getBounds()).thenReturn(new Rectangle(BANK_X, BANK_Y, BANK_COLUMNS * 48, BANK_VISIBLE_ROWS * 36));
+        when(client.getWidget(ComponentID.BANK_ITEM_CONTAINER)).thenAnswer(i -> bankOpen ? bankContainer : null);
+
+        OverlayManager overlayManager = mock(OverlayManager.class, withSettings().stubOnly());
+        when(overlayManager.add(any(Overlay.class))).thenAnswer(i -> activeOverlays.add(i.getArgument(0)));
+        when(overlayManager.remove(any(Overlay.class))).thenAnswer(i -> activeOverlays.remove(i.getArgument(0)));
+
+        InventoryHighlighterConfig config = mock(InventoryHighlighterConfig.class,
+            withSettings().stubOnly().defaultAnswer(this::answerConfig));
+
+        plugin = new InventoryHighlighterPlugin();
+        Injector injector = Guice.createInjector(binder -> {
+            binder.bind(Client.class).toInstance(client);
+            binder.bind(ClientThread.class).toInstance(clientThread);
+            binder.bind(OverlayManager.class).toInstance(overlayManager);
+            binder.bind(ItemManager.class).toInstance(mock(ItemManager.class, withSettings().stubOnly()));
+            binder.bind(ConfigManager.class).toInstance(mock(ConfigManager.class, withSettings().stubOnly()));
+            binder.bind(KeyManager.class).toInstance(mock(KeyManager.class, withSettings().stubOnly()));
+            binder.bind(ItemSource.class).toInstance(items);
+            binder.bind(InventoryHighlighterConfig.class).toInstance(config);
+            binder.bind(InventoryHighlighterPlugin.class).toInstance(plugin);
+            plugin.configure(binder);
+        });
+        classifier = injector.getInstance(ItemClassifier.class);
+        painter = injector.getInstance(HighlightPainter.class);
+        spriteCache = injector.getInstance(HighlightSpriteCache.class);
+        bankViewport = injector.getInstance(BankViewport.class);
+        classificationJob = injector.getInstance(ClassificationJob.class);
+
+        plugin.startUp();
+    }
+
+    private Object answerConfig(InvocationOnMock invocation) throws Throwable {
+        Object value = configValues.get(invocation.getMethod().getName());
+        return value != null ? value : invocation.callRealMethod();
+    }
+
+    static int inventorySlotX(int slot) {
+        return INVENTORY_X + (slot % INVENTORY_COLUMNS) * 42;
+    }
+
+    static int inventorySlotY(int slot) {
+        return INVENTORY_Y + (slot / INVENTORY_COLUMNS) * 36;
+    }
+
+    static int bankSlotX(int slot) {
+        return BANK_X + (slot % BANK_COLUMNS) * 48;
+    }
+
+    static int bankSlotY(int slot, int scrollY) {
+        return BANK_Y + (slot / BANK_COLUMNS) * 36 - scrollY;
+    }
+
+    Result run(String scenario, List<ReplayEvent> events) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long lookupsBefore = items.getCompositionLookups();
+        long invalidationsBefore = classifier.getInvalidations();
+        long highlightsBefore = painter.getHighlightsDrawn();
+        long culledBefore = bankViewport.getSkippedSlots();
+        long wallStart = System.nanoTime();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+
+        int frames = 0;
+        int readyFrames = 0;
+        int unreadySince = -1;
+        for (ReplayEvent event : events) {
+            switch (event.type) {
+                case CLIENT_TICK:
+                    gameCycle++;
+                    clientThread.runPending();
+                    plugin.onClientTick(new ClientTick());
+                    break;
+                case GAME_TICK:
+                    plugin.onGameTick(new GameTick());
+                    break;
+                case MOUSE:
+                    mouseX = event.a;
+                    mouseY = event.b;
+                    break;
+                case CONTAINER:
+                    containerIds.put(event.a, event.itemIds);
+                    containerQuantities.put(event.a, event.quantities);
+                    plugin.onItemContainerChanged(new ItemContainerChanged(event.a, container(event.a)));
+                    break;
+                case WIDGET:
+                    bankOpen = event.a == BANK_GROUP || (bankOpen && event.a != INVENTORY_GROUP);
+                    WidgetLoaded loaded = new WidgetLoaded();
+                    loaded.setGroupId(event.a);
+                    plugin.onWidgetLoaded(loaded);
+                    break;
+                case CONFIG:
+                    applyConfig(event.key, event.value);
+                    break;
+                case FRAME:
+                    plugin.onBeforeRender(new BeforeRender());
+                    renderFrame();
+                    frames++;
+                    // Frames drawn while some slot was still waiting for its verdict
+                    if (classificationJob.isPending()) {
+                        unreadySince = unreadySince < 0 ? frames : unreadySince;
+                    } else if (unreadySince >= 0) {
+                        readyFrames = Math.max(readyFrames, frames - unreadySince);
+                        unreadySince = -1;
+                    }
+                    break;
+            }
+        }
+
+        Result result = new Result();
+        result.scenario = scenario;
+        result.events = events.size();
+        result.frames = frames;
+        result.cpuNanos = threads.getCurrentThreadCpuTime() - cpuStart;
+        result.wallNanos = System.nanoTime() - wallStart;
+        result.invalidations = classifier.getInvalidations() - invalidationsBefore;
+        result.highlights = painter.getHighlightsDrawn() - highlightsBefore;
+        result.compositionLookups = items.getCompositionLookups() - lookupsBefore;
+        result.culledSlots = bankViewport.getSkippedSlots() - culledBefore;
+        result.cacheBytes = classifier.getFootprintBytes() + spriteCache.getFootprintBytes();
+        result.readyFrames = readyFrames;
+        result.readyNanos = classificationJob.getLastJobNanos();
+        return result;
+    }
+
+    private void applyConfig(String key, String value) {
+        Method method;
+        try {
+            method = InventoryHighlighterConfig.class.getMethod(key);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Unknown config key: " + key, e);
+        }
+
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            configValues.put(key, Boolean.parseBoolean(value));
+        } else if (type == int.class) {
+            configValues.put(key, Integer.parseInt(value));
+        } else if (type == Color.class) {
+            configValues.put(key, new Color((int) Long.parseLong(value.replace("#", ""), 16), true));
+        } else {
+            configValues.put(key, value);
+        }
+    }
+
+    private ItemContainer container(int containerId) {
+        ItemContainer container = mock(ItemContainer.class, withSettings().stubOnly());
+        when(container.getId()).thenReturn(containerId);
+        when(container.size()).thenReturn(containerIds.get(containerId).length);
+        when(container.getItems()).thenAnswer(i -> {
+            int[] ids = containerIds.get(containerId);
+            int[] quantities = containerQuantities.get(containerId);
+            Item[] contents = new Item[ids.length];
+            for (int slot = 0; slot < ids.length; slot++) {
+                contents[slot] = new Item(ids[slot], quantities[slot]);
+            }
+            return contents;
+        });
+        return container;
+    }
+
+    private void renderFrame() {
+        List<WidgetItemOverlay> overlays = new ArrayList<>();
+        for (Overlay o : activeOverlays) {
+            if (o instanceof WidgetItemOverlay) {
+                overlays.add((WidgetItemOverlay) o);
+            }
+        }
+
+        renderContainer(overlays, InventoryID.INVENTORY.getId());
+        if (bankOpen) {
+            renderContainer(overlays, InventoryID.BANK.getId());
+        }
+    }
+
+    private void renderContainer(List<WidgetItemOverlay> overlays, int containerId) {
+        int[] ids = containerIds.get(containerId);
+        if (ids == null) {
+            return;
+        }
+
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] <= 0) {
+                continue;
+            }
+            WidgetItem widgetItem = widgetItem(containerId, slot);
+            for (WidgetItemOverlay o : overlays) {
+                o.renderItemOverlay(graphics, ids[slot], widgetItem);
+            }
+        }
+    }
+
+    private WidgetItem widgetItem(int containerId, int slot) {
+        return widgetItems.computeIfAbsent(((long) containerId << 32) | slot, k -> {
+            boolean bank = containerId == InventoryID.BANK.getId();
+            Rectangle bounds = bank
+                ? new Rectangle(bankSlotX(slot), bankSlotY(slot, 0), SLOT_WIDTH, SLOT_HEIGHT)
+                : new Rectangle(inventorySlotX(slot), inventorySlotY(slot), SLOT_WIDTH, SLOT_HEIGHT);
+
+            Widget widget = mock(Widget.class, withSettings().stubOnly());
+            when(widget.getIndex()).thenReturn(slot);
+            // Bank slots are dynamic children of the bank item container and share its id
+            when(widget.getId()).thenReturn(bank ? ComponentID.BANK_ITEM_CONTAINER : INVENTORY_GROUP << 16);
+
+            WidgetItem item = mock(WidgetItem.class, withSettings().stubOnly());
+            when(item.getCanvasBounds()).thenReturn(bounds);
+            when(item.getWidget()).thenReturn(widget);
+            when(item.getId()).thenAnswer(i -> containerIds.get(containerId)[slot]);
+            when(item.getQuantity()).thenAnswer(i -> containerQuantities.get(containerId)[slot]);
+            return item;
+        });
+    }
+
+    static final class Result {
+        String scenario;
+        int events;
+        int frames;
+        long cpuNanos;
+        long wallNanos;
+        long invalidations;
+        long highlights;
+        long compositionLookups;
+        long cacheBytes;
+        long culledSlots;
+        // Most frames any container change waited for its last verdict, and the last such wait
+        int readyFrames;
+        long readyNanos;
+
+        static String header() {
+            return String.format("%-28s %8s %7s %10s %10s %10s %10s %10s %10s %10s %7s %9s",
+                "scenario", "events", "frames", "cpu ms", "wall ms", "invalid.", "drawn", "lookups", "cache KB", "culled",
+                "ready", "ready ms");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %8d %7d %10.1f %10.1f %10d %10d %10d %10d %10d %7d %9.2f",
+                scenario, events, frames, cpuNanos / 1e6, wallNanos / 1e6, invalidations, highlights,
+                compositionLookups, cacheBytes / 1024, culledSlots, readyFrames, readyNanos / 1e6);
+        }
+    }
+
+    static List<ReplayEvent> readTrace(File file) throws IOException {
+        List<ReplayEvent> events = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                ReplayEvent event = ReplayEvent.parse(line);
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+        }
+        return events;
+    }
+
+    static void writeTrace(File file, List<ReplayEvent> events) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+            for (ReplayEvent event : events) {
+                writer.println(event.format());
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        int frames = DEFAULT_FRAMES;
+        int catalogSize = DEFAULT_CATALOG_SIZE;
+        File writeDir = null;
+        List<String> targets = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--frames":
+                    frames = Integer.parseInt(args[++i]);
+                    break;
+                case "--catalog":
+                    catalogSize = Integer.parseInt(args[++i]);
+                    break;
+                case "--write":
+                    writeDir = new File(args[++i]);
+                    break;
+                default:
+                    targets.add(args[i]);
+            }
+        }
+        if (targets.isEmpty()) {
+            targets.addAll(List.of(ReplayScenarios.ALL));
+        }
+
+        System.out.println(Result.header());
+        for (String target : targets) {
+            File trace = new File(target);
+            if (trace.isFile()) {
+                SyntheticItemSource items = new SyntheticItemSource(catalogSize);
+                System.out.println(new SessionReplay(items).run(trace.getName(), readTrace(trace)));
+                continue;
+            }
+
+            for (boolean hoverOnly : new boolean[]{true, false}) {
+                String name = target + (hoverOnly ? "/hover" : "/all");
+                SyntheticItemSource items = new SyntheticItemSource(catalogSize);
+                List<ReplayEvent> events = ReplayScenarios.build(target, items, frames, hoverOnly);
+                if (writeDir != null) {
+                    writeDir.mkdirs();
+                    writeTrace(new File(writeDir, name.replace('/', '-') + ".trace"), events);
+                }
+                System.out.println(new SessionReplay(items).run(name, events));
+            }
+        }
+    }
+}
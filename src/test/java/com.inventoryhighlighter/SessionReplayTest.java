@@ -0,0 +1,81 @@
+package com.inventoryhighlighter;
+
+import java.io.File;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SessionReplayTest {
+    private static final int FRAMES = 300;
+
+    @Test
+    public void builtInScenariosDrawHighlights() throws Exception {
+        for (String scenario : ReplayScenarios.ALL) {
+            for (boolean hoverOnly : new boolean[]{true, false}) {
+                SyntheticItemSource items = new SyntheticItemSource(500);
+                List<ReplayEvent> events = ReplayScenarios.build(scenario, items, FRAMES, hoverOnly);
+                SessionReplay.Result result = new SessionReplay(items).run(scenario, events);
+
+                assertEquals(FRAMES, result.frames);
+                assertTrue(scenario + " drew nothing", result.highlights > 0);
+                assertTrue(scenario + " never invalidated", result.invalidations > 0);
+            }
+        }
+    }
+
+    @Test
+    public void bankSlotsOutOfViewAreCulled() throws Exception {
+        SyntheticItemSource items = new SyntheticItemSource(500);
+        List<ReplayEvent> events = ReplayScenarios.build(ReplayScenarios.BANK_SORTING, items, FRAMES, false);
+        SessionReplay.Result result = new SessionReplay(items).run(ReplayScenarios.BANK_SORTING, events);
+
+        // Every frame draws the bank, which holds the whole catalog; all but the visible rows are skipped
+        int hidden = 500 - SessionReplay.BANK_COLUMNS * SessionReplay.BANK_VISIBLE_ROWS;
+        assertTrue(result.culledSlots >= (long) hidden * FRAMES);
+    }
+
+    @Test
+    public void openedBankIsClassifiedWithinASecond() throws Exception {
+        SyntheticItemSource items = new SyntheticItemSource(500);
+        List<ReplayEvent> events = ReplayScenarios.build(ReplayScenarios.BANK_OPEN, items, FRAMES, false);
+        SessionReplay.Result result = new SessionReplay(items).run(ReplayScenarios.BANK_OPEN, events);
+
+        // One classification slice per client tick; even a cold JVM finishes within 50 frames
+        assertTrue(result.readyFrames <= 50);
+    }
+
+    @Test
+    public void writtenTracesReplay() throws Exception {
+        SyntheticItemSource items = new SyntheticItemSource(500);
+        List<ReplayEvent> events = ReplayScenarios.build(ReplayScenarios.INVENTORY_FLICKING, items, FRAMES, false);
+        File trace = File.createTempFile("session", ".trace");
+        try {
+            SessionReplay.writeTrace(trace, events);
+            List<ReplayEvent> read = SessionReplay.readTrace(trace);
+            assertEquals(events.size(), read.size());
+
+            SessionReplay.Result result = new SessionReplay(new SyntheticItemSource(500)).run(trace.getName(), read);
+            assertEquals(FRAMES, result.frames);
+            assertTrue(result.highlights > 0);
+        } finally {
+            trace.delete();
+        }
+    }
+
+    @Test
+    public void traceLinesRoundTrip() {
+        String[] lines = {
+            "client_tick",
+            "game_tick",
+            "mouse 600 240",
+            "container 93 995x1000 379 -1 1005",
+            "widget 12",
+            "config itemList rune*, *potion*",
+            "frame"
+        };
+        for (String line : lines) {
+            assertEquals(line, ReplayEvent.parse(line).format());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.inventoryhighlighter;
+
+import org.junit.Test;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SpriteAtlasTest {
+    private static final int PAGE_BYTES = SpriteAtlas.PAGE_SIZE * SpriteAtlas.PAGE_SIZE * 4;
+
+    private static BufferedImage sprite(int argb) {
+        BufferedImage image = new BufferedImage(36, 32, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 32; y++) {
+            for (int x = 0; x < 36; x++) {
+                image.setRGB(x, y, argb);
+            }
+        }
+        return image;
+    }
+
+    private static int drawnColor(SpriteAtlas.Region region) {
+        BufferedImage target = new BufferedImage(36, 32, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        SpriteAtlas.draw(graphics, region, 0, 0);
+        graphics.dispose();
+        return target.getRGB(18, 16);
+    }
+
+    @Test
+    public void inventorySpritesShareOnePage() {
+        SpriteAtlas<Integer> atlas = new SpriteAtlas<>(4L * PAGE_BYTES);
+        // 14 columns by 16 shelves of 36x32 fit on a 512 page
+        for (int i = 0; i < 14 * 16; i++) {
+            assertNotNull(atlas.add(i, sprite(0xFF000000 | i)));
+        }
+        assertEquals(1, atlas.getPageCount());
+        assertEquals(0xFF000000 | 100, drawnColor(atlas.get(100)));
+    }
+
+    @Test
+    public void fullAtlasEvictsLeastRecentlyDrawnAndCompacts() {
+        SpriteAtlas<Integer> atlas = new SpriteAtlas<>(PAGE_BYTES);
+        int perPage = 14 * 16;
+        for (int i = 0; i < perPage; i++) {
+            atlas.add(i, sprite(0xFF000000 | i));
+        }
+
+        // Keep the upper half in use while new sprites push in
+        for (int i = perPage / 2; i < perPage; i++) {
+            atlas.get(i);
+        }
+        for (int i = perPage; i < perPage + 20; i++) {
+            assertNotNull(atlas.add(i, sprite(0xFF000000 | i)));
+        }
+
+        assertEquals(1, atlas.getPageCount());
+        assertTrue(atlas.getCompactions() > 0);
+        assertNull(atlas.get(0));
+        // Sprites moved by compaction still draw their own pixels
+        for (int i = perPage / 2; i < perPage + 20; i++) {
+            assertEquals(0xFF000000 | i, drawnColor(atlas.get(i)));
+        }
+    }
+
+    @Test
+    public void spritesLargerThanAPageAreNotPacked() {
+        SpriteAtlas<Integer> atlas = new SpriteAtlas<>(PAGE_BYTES);
+        assertNull(atlas.add(1, new BufferedImage(SpriteAtlas.PAGE_SIZE + 1, 8, BufferedImage.TYPE_INT_ARGB)));
+        assertEquals(0, atlas.size());
+    }
+}
@@ -0,0 +1,224 @@
+package com.inventoryhighlighter;
+
+import net.runelite.api.ItemComposition;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deterministic item catalog for the replay harness. Names follow real item naming (metals, potion
+ * doses, food, logs) so README-style patterns match a realistic share of the catalog, padded with
+ * non-matching filler up to the requested size. Every item also has a noted and a placeholder
+ * variant, linked the way the game links them.
+ */
+public class SyntheticItemSource implements ItemSource {
+    static final int COINS = 995;
+    private static final int FIRST_ID = 1000;
+    private static final int NOTE_OFFSET = 20000;
+    private static final int PLACEHOLDER_OFFSET = 40000;
+    private static final int NOTE_TEMPLATE = 799;
+    private static final int PLACEHOLDER_TEMPLATE = 14401;
+
+    private static final String[] METALS = {"bronze", "iron", "steel", "black", "mithril", "adamant", "rune", "dragon"};
+    private static final String[] EQUIPMENT = {"sword", "scimitar", "longsword", "dagger", "platebody", "platelegs",
+        "full helm", "kiteshield", "pickaxe", "axe", "arrow", "bolts", "dart"};
+    private static final String[] POTIONS = {"attack potion", "strength potion", "defence potion", "prayer potion",
+        "super attack", "super strength", "super restore", "ranging potion", "magic potion", "antifire potion",
+        "stamina potion", "saradomin brew"};
+    private static final String[] MISC = {"lobster", "shark", "swordfish", "monkfish", "tuna", "karambwan",
+        "manta ray", "anglerfish", "trout", "salmon", "feather", "bones", "big bones", "dragon bones",
+        "granite (500g)", "granite (2kg)", "granite (5kg)", "logs", "oak logs", "teak logs", "yew logs",
+        "magic logs", "guam leaf", "swamp tar", "knife", "hammer", "chisel"};
+
+    private final Map<Integer, String> names = new HashMap<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final Map<Integer, ItemComposition> compositions = new ConcurrentHashMap<>();
+    private final BufferedImage[] sprites = new BufferedImage[4];
+    private final BufferedImage outline;
+    private final int lastId;
+
+    private final AtomicLong compositionLookups = new AtomicLong();
+
+    SyntheticItemSource(int catalogSize) {
+        add(COINS, "Coins");
+
+        List<String> catalog = new ArrayList<>();
+        for (String metal : METALS) {
+            for (String piece : EQUIPMENT) {
+                catalog.add(metal + " " + piece);
+            }
+        }
+        for (String potion : POTIONS) {
+            for (int dose = 4; dose >= 1; dose--) {
+                catalog.add(potion + "(" + dose + ")");
+            }
+        }
+        for (String misc : MISC) {
+            catalog.add(misc);
+        }
+        for (int i = catalog.size(); i < catalogSize; i++) {
+            catalog.add("filler item " + i);
+        }
+
+        int id = FIRST_ID;
+        for (String name : catalog) {
+            add(id++, Character.toUpperCase(name.charAt(0)) + name.substring(1));
+        }
+        lastId = id - 1;
+
+        for (int i = 0; i < sprites.length; i++) {
+            sprites[i] = sprite(new Color(60 * i, 120, 200 - 40 * i), 4 + i * 2);
+        }
+        outline = sprite(Color.RED, 2);
+    }
+
+    private void add(int id, String name) {
+        names.put(id, name);
+        ids.put(name.toLowerCase(), id);
+    }
+
+    private static BufferedImage sprite(Color color, int inset) {
+        BufferedImage image = new BufferedImage(36, 32, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillOval(inset, inset, 36 - inset * 2, 32 - inset * 2);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Item id for a catalog name (case-insensitive), or -1.
+     */
+    int idOf(String name) {
+        return ids.getOrDefault(name.toLowerCase(), -1);
+    }
+
+    int notedId(int itemId) {
+        return itemId + NOTE_OFFSET;
+    }
+
+    int placeholderId(int itemId) {
+        return itemId + PLACEHOLDER_OFFSET;
+    }
+
+    int firstId() {
+        return FIRST_ID;
+    }
+
+    int lastId() {
+        return lastId;
+    }
+
+    @Override
+    public int getItemCount() {
+        return placeholderId(lastId) + 1;
+    }
+
+    long getCompositionLookups() {
+        return compositionLookups.get();
+    }
+
+    @Override
+    public ItemComposition getItemComposition(int itemId) {
+        compositionLookups.incrementAndGet();
+        return compositions.computeIfAbsent(itemId, this::composition);
+    }
+
+    private ItemComposition composition(int itemId) {
+        boolean noted = itemId >= NOTE_OFFSET && itemId < PLACEHOLDER_OFFSET;
+        boolean placeholder = itemId >= PLACEHOLDER_OFFSET;
+        int baseId = noted ? itemId - NOTE_OFFSET : placeholder ? itemId - PLACEHOLDER_OFFSET : itemId;
+        String name = names.getOrDefault(baseId, "null");
+        boolean known = names.containsKey(baseId);
+        return (ItemComposition) Proxy.newProxyInstance(ItemComposition.class.getClassLoader(),
+            new Class<?>[]{ItemComposition.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getName":
+                        return name;
+                    case "getId":
+                        return itemId;
+                    case "getNote":
+                        return noted ? NOTE_TEMPLATE : -1;
+                    case "getLinkedNoteId":
+                        return !known || placeholder ? -1 : noted ? baseId : notedId(baseId);
+                    case "getPlaceholderTemplateId":
+                        return placeholder ? PLACEHOLDER_TEMPLATE : -1;
+                    case "getPlaceholderId":
+                        return !known || noted ? -1 : placeholder ? baseId : placeholderId(baseId);
+                    case "hashCode":
+                        return itemId;
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "ItemComposition[" + itemId + " " + name + "]";
+                    default:
+                        return defaultValue(method.getReturnType());
+                }
+            });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == char.class) {
+            return (char) 0;
+        }
+        return 0;
+    }
+
+    @Override
+    public BufferedImage getImage(int itemId) {
+        return sprites[Math.floorMod(itemId, sprites.length)];
+    }
+
+    @Override
+    public BufferedImage getItemOutline(int itemId, int thickness, Color color) {
+        // Like the client, every call builds a new image
+        BufferedImage image = new BufferedImage(outline.getWidth(), outline.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.drawImage(outline, 0, 0, null);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Spread between 1 and 2.5M, so a value threshold splits the catalog. Notes cost as much as their
+     * item, placeholders nothing.
+     */
+    @Override
+    public int getItemPrice(int itemId) {
+        if (itemId == COINS) {
+            return 1;
+        }
+        if (itemId >= PLACEHOLDER_OFFSET || !names.containsKey(itemId % NOTE_OFFSET)) {
+            return 0;
+        }
+        return (int) (1 + (itemId % NOTE_OFFSET) * 7919L % 2_500_000);
+    }
+}
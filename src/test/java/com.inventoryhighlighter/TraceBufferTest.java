@@ -0,0 +1,34 @@
+package com.inventoryhighlighter;
+
+import org.junit.Test;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TraceBufferTest {
+    @Test
+    public void dumpHoldsTheLastEventsOldestFirst() throws Exception {
+        TraceBuffer trace = new TraceBuffer();
+        int events = TraceBuffer.CAPACITY + 100;
+        for (int i = 0; i < events; i++) {
+            trace.record(TraceBuffer.HIGHLIGHT, 1000 + i, i % 28, i * 1000L);
+        }
+        assertEquals(events, trace.getRecorded());
+
+        File file = File.createTempFile("trace", ".txt");
+        try {
+            trace.dump(file);
+            List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            assertEquals(TraceBuffer.CAPACITY + 1, lines.size());
+            assertTrue(lines.get(0).startsWith("#"));
+            assertEquals("100 0 highlight 1100 16", lines.get(1));
+            assertEquals((events - 1) + " " + (TraceBuffer.CAPACITY - 1) + " highlight " + (1000 + events - 1)
+                + " " + (events - 1) % 28, lines.get(lines.size() - 1));
+        } finally {
+            file.delete();
+        }
+    }
+}